@@ -59,6 +59,28 @@ default int getPatternPriority() {
      */
     boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder);
 
+    /**
+     * Return how many copies of a pattern this provider can accept in a single call to {@link #pushPatterns}. Providers
+     * that return more than 1 let crafting CPUs extract the inputs and power for many copies of a pattern at once.
+     */
+    default int getMaxPatternBatchSize(IPatternDetails patternDetails) {
+        return 1;
+    }
+
+    /**
+     * Instruct a provider to craft several copies of one of the patterns at once. This is only called with more than
+     * one copy if {@link #getMaxPatternBatchSize} allows it.
+     *
+     * @param patternDetails details
+     * @param inputHolder    the requested stacks for all copies combined, for each input slot of the pattern
+     * @param copies         how many copies of the pattern to craft
+     *
+     * @return if all copies were successfully pushed. If this returns false, none of them may have been pushed.
+     */
+    default boolean pushPatterns(IPatternDetails patternDetails, KeyCounter[] inputHolder, int copies) {
+        return copies == 1 && pushPattern(patternDetails, inputHolder);
+    }
+
     /**
      * @return if this is true, the crafting engine will refuse to send patterns to this provider.
      */
@@ -1,6 +1,11 @@
 package appeng.api.stacks;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.base.Preconditions;
 import com.mojang.serialization.Codec;
@@ -10,6 +15,8 @@
 
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.component.DataComponentPatch;
@@ -29,6 +36,7 @@
 import net.minecraft.world.level.Level;
 
 import appeng.api.storage.AEKeyFilter;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 
 public final class AEItemKey extends AEKey {
@@ -46,29 +54,77 @@ public final class AEItemKey extends AEKey {
                             .fieldOf("id").forGetter(key -> key.stack.getItemHolder()),
                     DataComponentPatch.CODEC.optionalFieldOf("components", DataComponentPatch.EMPTY)
                             .forGetter(key -> key.stack.getComponentsPatch()))
-                    .apply(builder, (item, componentPatch) -> new AEItemKey(new ItemStack(item, 1, componentPatch))));
+                    .apply(builder, (item, componentPatch) -> intern(new ItemStack(item, 1, componentPatch), false)));
     public static final Codec<AEItemKey> CODEC = MAP_CODEC.codec();
 
+    /**
+     * The keys of items without any changes to their default components, which are by far the most common.
+     */
+    private static final Map<Item, AEItemKey> DEFAULT_KEYS = new ConcurrentHashMap<>();
+    /**
+     * Interns keys with component changes. Keys are spread over several independently locked interners by their hash,
+     * so that threads creating different keys rarely have to wait for each other. The length is a power of two.
+     */
+    private static final Interner[] INTERNERS = new Interner[32];
+
+    static {
+        for (int i = 0; i < INTERNERS.length; i++) {
+            INTERNERS[i] = new Interner();
+        }
+    }
+
     private final ItemStack stack;
     private final int hashCode;
     private final int maxStackSize;
     private final int damage;
 
-    private AEItemKey(ItemStack stack) {
+    private AEItemKey(ItemStack stack, int hashCode) {
         Preconditions.checkArgument(!stack.isEmpty(), "stack is empty");
         this.stack = stack;
-        this.hashCode = ItemStack.hashItemAndComponents(stack);
+        this.hashCode = hashCode;
         this.maxStackSize = stack.getMaxStackSize();
         this.damage = stack.getDamageValue();
     }
 
+    /**
+     * Returns the key for the given stack. Keys are interned, so that equal keys are usually the same instance, and
+     * looking up the key of a stack that already has one doesn't allocate anything. Interning of keys with component
+     * changes can be disabled in the config.
+     */
     @Nullable
     public static AEItemKey of(ItemStack stack) {
         if (stack.isEmpty()) {
             return null;
         }
 
-        return new AEItemKey(stack.copy());
+        return intern(stack, true);
+    }
+
+    /**
+     * @param copy False if the stack is not referenced anywhere else and can be used by the key directly.
+     */
+    private static AEItemKey intern(ItemStack stack, boolean copy) {
+        if (stack.isComponentsPatchEmpty()) {
+            var key = DEFAULT_KEYS.get(stack.getItem());
+            if (key == null) {
+                var keyStack = copy ? stack.copyWithCount(1) : stack;
+                key = DEFAULT_KEYS.computeIfAbsent(stack.getItem(),
+                        item -> new AEItemKey(keyStack, ItemStack.hashItemAndComponents(keyStack)));
+            }
+            return key;
+        }
+
+        var hash = ItemStack.hashItemAndComponents(stack);
+        if (!isInterningEnabled()) {
+            return new AEItemKey(copy ? stack.copyWithCount(1) : stack, hash);
+        }
+        return INTERNERS[(hash ^ hash >>> 16) & (INTERNERS.length - 1)].intern(stack, hash, copy);
+    }
+
+    private static boolean isInterningEnabled() {
+        // Keys can already be created while the config is not loaded yet
+        var config = AEConfig.instance();
+        return config == null || config.isInternItemKeys();
     }
 
     public static boolean matches(AEKey what, ItemStack itemStack) {
@@ -251,7 +307,7 @@ public void writeToPacket(RegistryFriendlyByteBuf data) {
 
     public static AEItemKey fromPacket(RegistryFriendlyByteBuf data) {
         var stack = ItemStack.STREAM_CODEC.decode(data);
-        return new AEItemKey(stack);
+        return intern(stack, false);
     }
 
     @Override
@@ -261,4 +317,62 @@ public String toString() {
                 : stack.getItem().getClass().getName() + "(unregistered)";
         return stack.isComponentsPatchEmpty() ? idString : idString + " (with patches)";
     }
+
+    /**
+     * Weakly interns the keys of stacks with component changes, so that keys no longer referenced anywhere else can
+     * still be garbage collected. Each instance is one stripe of {@link #INTERNERS}.
+     */
+    private static final class Interner {
+        private final ReferenceQueue<AEItemKey> queue = new ReferenceQueue<>();
+        private final Int2ObjectOpenHashMap<Entry> table = new Int2ObjectOpenHashMap<>();
+
+        synchronized AEItemKey intern(ItemStack stack, int hash, boolean copy) {
+            expungeStaleEntries();
+
+            var head = table.get(hash);
+            for (var entry = head; entry != null; entry = entry.next) {
+                var key = entry.get();
+                if (key != null && ItemStack.isSameItemSameComponents(key.stack, stack)) {
+                    return key;
+                }
+            }
+
+            var key = new AEItemKey(copy ? stack.copyWithCount(1) : stack, hash);
+            table.put(hash, new Entry(key, queue, head));
+            return key;
+        }
+
+        private void expungeStaleEntries() {
+            Reference<? extends AEItemKey> ref;
+            while ((ref = queue.poll()) != null) {
+                var stale = (Entry) ref;
+                Entry previous = null;
+                for (var entry = table.get(stale.hash); entry != null; entry = entry.next) {
+                    if (entry == stale) {
+                        if (previous != null) {
+                            previous.next = entry.next;
+                        } else if (entry.next != null) {
+                            table.put(stale.hash, entry.next);
+                        } else {
+                            table.remove(stale.hash);
+                        }
+                        break;
+                    }
+                    previous = entry;
+                }
+            }
+        }
+
+        private static final class Entry extends WeakReference<AEItemKey> {
+            private final int hash;
+            @Nullable
+            private Entry next;
+
+            Entry(AEItemKey key, ReferenceQueue<AEItemKey> queue, @Nullable Entry next) {
+                super(key, queue);
+                this.hash = key.hashCode;
+                this.next = next;
+            }
+        }
+    }
 }
@@ -23,6 +23,10 @@ interface AEKey2LongMap extends Object2LongMap<AEKey> {
     final class OpenHashMap extends Object2LongOpenHashMap<AEKey> implements AEKey2LongMap {
     }
 
+    /**
+     * @deprecated Only kept for {@link FuzzySearch#createMap2Long()}.
+     */
+    @Deprecated(forRemoval = true)
     final class AVLTreeMap extends Object2LongAVLTreeMap<AEKey> implements AEKey2LongMap {
         public AVLTreeMap(Comparator<? super AEKey> c) {
             super(c);
@@ -2,6 +2,7 @@
 
 import java.util.Comparator;
 import java.util.SortedMap;
+import java.util.SortedSet;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -29,7 +30,12 @@ public static <K extends AEKey, V> Object2ObjectSortedMap<K, V> createMap() {
 
     /**
      * Creates a map that is searchable via {@link #findFuzzy}.
+     *
+     * @deprecated {@link KeyCounter} no longer uses these maps. Use {@link KeyCounter#findFuzzy} for fuzzy searches of
+     *             amounts, or {@link #createMap} for other values.
      */
+    @Deprecated(forRemoval = true)
+    @SuppressWarnings("removal")
     public static AEKey2LongMap.AVLTreeMap createMap2Long() {
         return new AEKey2LongMap.AVLTreeMap(COMPARATOR);
     }
@@ -48,6 +54,18 @@ public static <T extends SortedMap<K, V>, K, V> T findFuzzy(T map, AEKey key, Fu
         return (T) map.subMap((K) lowerBound, (K) upperBound);
     }
 
+    /**
+     * Does a fuzzy search. The set must have been created using {@link #COMPARATOR}.
+     */
+    @SuppressWarnings({ "unchecked" })
+    public static <T extends SortedSet<K>, K> T findFuzzy(T set, AEKey key, FuzzyMode fuzzy) {
+        var lowerBound = makeLowerBound(key, fuzzy);
+        var upperBound = makeUpperBound(key, fuzzy);
+        Preconditions.checkState(lowerBound.itemDamage > upperBound.itemDamage);
+
+        return (T) set.subSet((K) lowerBound, (K) upperBound);
+    }
+
     @VisibleForTesting
     record FuzzyBound(int itemDamage) {
     }
@@ -23,75 +23,176 @@
 
 package appeng.api.stacks;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-
-import com.google.common.collect.Iterators;
+import java.util.function.ObjLongConsumer;
 
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.objects.AbstractObject2LongMap;
 import it.unimi.dsi.fastutil.objects.Object2LongMap;
-import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectAVLTreeSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSortedSet;
 import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 
 import appeng.api.config.FuzzyMode;
 
 /**
  * Associates a generic value of type T with AE keys and makes key/value pairs searchable with fuzzy mode semantics.
+ * <p/>
+ * The amounts are stored in a single open-addressing table. The index needed for {@link #findFuzzy} is only built
+ * when it is first used, and then kept up to date until the counter is cleared.
  */
 public final class KeyCounter implements Iterable<Object2LongMap.Entry<AEKey>> {
-    // First map contains a mapping from AEKey#primaryKey
-    private final Reference2ObjectMap<Object, VariantCounter> lists = new Reference2ObjectOpenHashMap<>();
+    private final AEKey2LongMap.OpenHashMap records = new AEKey2LongMap.OpenHashMap();
+    /**
+     * Groups the keys in {@link #records} by {@link AEKey#getPrimaryKey()}. Null until the first fuzzy search. It may
+     * contain keys that have since been removed through an iterator, but never misses a key.
+     */
+    @Nullable
+    private Reference2ObjectOpenHashMap<Object, Set<AEKey>> fuzzyIndex;
 
     public Collection<Object2LongMap.Entry<AEKey>> findFuzzy(AEKey key, FuzzyMode fuzzy) {
         Objects.requireNonNull(key, "key");
-        var subIndex = getSubIndexOrNull(key);
-        return subIndex == null ? List.of() : subIndex.findFuzzy(key, fuzzy);
+        var variants = getFuzzyIndex().get(key.getPrimaryKey());
+        if (variants == null) {
+            return List.of();
+        }
+
+        Collection<AEKey> matches;
+        if (variants instanceof ObjectSortedSet<AEKey> sortedVariants) {
+            matches = FuzzySearch.findFuzzy(sortedVariants, key, fuzzy);
+        } else {
+            // For keys whose primary key does not support fuzzy range lookups, we simply return all variants, which
+            // amounts to ignoring NBT.
+            matches = variants;
+        }
+
+        var result = new ArrayList<Object2LongMap.Entry<AEKey>>(matches.size());
+        var it = matches.iterator();
+        while (it.hasNext()) {
+            var match = it.next();
+            if (records.containsKey(match)) {
+                result.add(new AbstractObject2LongMap.BasicEntry<>(match, records.getLong(match)));
+            } else {
+                it.remove();
+            }
+        }
+        return result;
     }
 
-    public void removeZeros() {
-        var iterator = lists.entrySet().iterator();
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            var variantList = entry.getValue();
-            variantList.removeZeros();
-            if (variantList.isEmpty()) {
-                iterator.remove();
+    /**
+     * Tests if {@link #findFuzzy} would find any entries, without collecting them.
+     */
+    public boolean containsFuzzy(AEKey key, FuzzyMode fuzzy) {
+        Objects.requireNonNull(key, "key");
+        var variants = getFuzzyIndex().get(key.getPrimaryKey());
+        if (variants == null) {
+            return false;
+        }
+
+        Collection<AEKey> matches;
+        if (variants instanceof ObjectSortedSet<AEKey> sortedVariants) {
+            matches = FuzzySearch.findFuzzy(sortedVariants, key, fuzzy);
+        } else {
+            matches = variants;
+        }
+
+        // The index might still contain keys that were removed through an iterator
+        for (var match : matches) {
+            if (records.containsKey(match)) {
+                return true;
             }
         }
+        return false;
     }
 
-    public void addAll(KeyCounter other) {
-        for (var entry : other.lists.entrySet()) {
-            var ourSubIndex = lists.get(entry.getKey());
-            if (ourSubIndex == null) {
-                lists.put(entry.getKey(), entry.getValue().copy());
-            } else {
-                ourSubIndex.addAll(entry.getValue());
+    /**
+     * Builds the index used by {@link #findFuzzy} right away instead of on the first search. Once this was called, a
+     * counter that isn't modified anymore can be searched from several threads.
+     */
+    public void buildFuzzyIndex() {
+        getFuzzyIndex();
+    }
+
+    private Reference2ObjectOpenHashMap<Object, Set<AEKey>> getFuzzyIndex() {
+        if (fuzzyIndex == null) {
+            fuzzyIndex = new Reference2ObjectOpenHashMap<>();
+            for (var what : records.keySet()) {
+                addToFuzzyIndex(what);
             }
         }
+        return fuzzyIndex;
     }
 
-    public void removeAll(KeyCounter other) {
-        for (var entry : other.lists.entrySet()) {
-            var ourSubIndex = lists.get(entry.getKey());
-            if (ourSubIndex == null) {
-                var copied = entry.getValue().copy();
-                copied.invert();
-                lists.put(entry.getKey(), copied);
+    private void addToFuzzyIndex(AEKey what) {
+        // The kind of index for a primary key is determined by the first key added for it
+        var variants = fuzzyIndex.get(what.getPrimaryKey());
+        if (variants == null) {
+            if (what.getFuzzySearchMaxValue() > 0) {
+                variants = new ObjectAVLTreeSet<>(FuzzySearch.COMPARATOR);
             } else {
-                ourSubIndex.removeAll(entry.getValue());
+                variants = new ObjectOpenHashSet<>();
             }
+            fuzzyIndex.put(what.getPrimaryKey(), variants);
+        }
+        variants.add(what);
+    }
+
+    private void removeFromFuzzyIndex(AEKey what) {
+        var variants = fuzzyIndex.get(what.getPrimaryKey());
+        if (variants != null && variants.remove(what) && variants.isEmpty()) {
+            fuzzyIndex.remove(what.getPrimaryKey());
+        }
+    }
+
+    public void removeZeros() {
+        var it = records.object2LongEntrySet().fastIterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            if (entry.getLongValue() == 0) {
+                if (fuzzyIndex != null) {
+                    removeFromFuzzyIndex(entry.getKey());
+                }
+                it.remove();
+            }
+        }
+    }
+
+    public void addAll(KeyCounter other) {
+        var it = other.records.object2LongEntrySet().fastIterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            add(entry.getKey(), entry.getLongValue());
+        }
+    }
+
+    public void removeAll(KeyCounter other) {
+        var it = other.records.object2LongEntrySet().fastIterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            add(entry.getKey(), -entry.getLongValue());
         }
     }
 
     public void add(AEKey key, long amount) {
         Objects.requireNonNull(key, "key");
-        getSubIndex(key).add(key, amount);
+        if (fuzzyIndex == null) {
+            records.addTo(key, amount);
+        } else {
+            // Only a change in size tells us that the key is new, without looking it up twice
+            var sizeBefore = records.size();
+            records.addTo(key, amount);
+            if (records.size() != sizeBefore) {
+                addToFuzzyIndex(key);
+            }
+        }
     }
 
     public void remove(AEKey key, long amount) {
@@ -99,65 +200,75 @@ public void remove(AEKey key, long amount) {
     }
 
     public void set(AEKey key, long amount) {
-        getSubIndex(key).set(key, amount);
+        Objects.requireNonNull(key, "key");
+        if (fuzzyIndex == null) {
+            records.put(key, amount);
+        } else {
+            var sizeBefore = records.size();
+            records.put(key, amount);
+            if (records.size() != sizeBefore) {
+                addToFuzzyIndex(key);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry for the given key entirely, rather than just setting its amount to zero.
+     */
+    public void removeKey(AEKey key) {
+        Objects.requireNonNull(key, "key");
+        var sizeBefore = records.size();
+        records.removeLong(key);
+        if (fuzzyIndex != null && records.size() != sizeBefore) {
+            removeFromFuzzyIndex(key);
+        }
     }
 
     public long get(AEKey key) {
         Objects.requireNonNull(key);
-        var subIndex = lists.get(key.getPrimaryKey());
-        if (subIndex == null) {
-            return 0;
-        }
-        return subIndex.get(key);
+        return records.getLong(key);
     }
 
+    /**
+     * Sets all amounts to zero.
+     */
     public void reset() {
-        for (var list : lists.values()) {
-            list.reset();
+        var it = records.object2LongEntrySet().fastIterator();
+        while (it.hasNext()) {
+            it.next().setValue(0);
         }
     }
 
     public void clear() {
-        for (var list : lists.values()) {
-            list.clear();
-        }
+        records.clear();
+        fuzzyIndex = null;
     }
 
     public boolean isEmpty() {
-        for (var list : lists.values()) {
-            if (!list.isEmpty()) {
-                return false;
-            }
-        }
-        return true;
+        return records.isEmpty();
     }
 
     public int size() {
-        int tot = 0;
-        for (var list : lists.values()) {
-            tot += list.size();
-        }
-        return tot;
+        return records.size();
     }
 
-    @Override
-    public Iterator<Object2LongMap.Entry<AEKey>> iterator() {
-        return Iterators.concat(
-                Iterators.transform(lists.values().iterator(), VariantCounter::iterator));
-    }
-
-    private VariantCounter getSubIndex(AEKey key) {
-        // We check before the call to computeIfAbsent, otherwise we'd need a capturing lambda.
-        if (key.getFuzzySearchMaxValue() > 0) {
-            return lists.computeIfAbsent(key.getPrimaryKey(), k -> new VariantCounter.FuzzyVariantMap());
-        } else {
-            return lists.computeIfAbsent(key.getPrimaryKey(), k -> new VariantCounter.UnorderedVariantMap());
+    /**
+     * Calls the consumer for every key and its amount, including keys whose amount is zero. Unlike iterating over this
+     * counter, this does not allocate an entry for every key.
+     * <p/>
+     * The counter must not be modified by the consumer.
+     */
+    public void forEach(ObjLongConsumer<? super AEKey> consumer) {
+        var it = records.object2LongEntrySet().fastIterator();
+        while (it.hasNext()) {
+            var entry = it.next();
+            consumer.accept(entry.getKey(), entry.getLongValue());
         }
     }
 
-    @Nullable
-    private VariantCounter getSubIndexOrNull(AEKey key) {
-        return lists.get(key.getPrimaryKey());
+    @Override
+    public Iterator<Object2LongMap.Entry<AEKey>> iterator() {
+        return records.object2LongEntrySet().iterator();
     }
 
     @Nullable
@@ -174,36 +285,21 @@ public <T extends AEKey> T getFirstKey(Class<T> keyClass) {
 
     @Nullable
     public Object2LongMap.Entry<AEKey> getFirstEntry() {
-        for (var value : lists.values()) {
-            var it = value.iterator();
-            if (it.hasNext()) {
-                return it.next();
-            }
-        }
-        return null;
+        var it = iterator();
+        return it.hasNext() ? it.next() : null;
     }
 
     @Nullable
     public <T extends AEKey> Object2LongMap.Entry<AEKey> getFirstEntry(Class<T> keyClass) {
-        for (var value : lists.values()) {
-            var it = value.iterator();
-            if (it.hasNext()) {
-                var entry = it.next();
-                if (keyClass.isInstance(entry.getKey())) {
-                    return entry;
-                }
+        for (var entry : this) {
+            if (keyClass.isInstance(entry.getKey())) {
+                return entry;
             }
         }
         return null;
     }
 
     public Set<AEKey> keySet() {
-        var keys = new HashSet<AEKey>(size());
-        for (var list : lists.values()) {
-            for (var entry : list) {
-                keys.add(entry.getKey());
-            }
-        }
-        return keys;
+        return new HashSet<>(records.keySet());
     }
 }
@@ -28,6 +28,14 @@ private MEStorage getDelegate() {
         return Objects.requireNonNullElseGet(supplier.get(), NullInventory::of);
     }
 
+    /**
+     * @return The storage currently supplied, or null if there is none.
+     */
+    @Nullable
+    public MEStorage getSuppliedStorage() {
+        return supplier.get();
+    }
+
     @Override
     public boolean isPreferredStorageFor(AEKey what, IActionSource source) {
         return getDelegate().isPreferredStorageFor(what, source);
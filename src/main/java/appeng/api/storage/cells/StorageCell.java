@@ -46,6 +46,15 @@ default boolean canFitInsideCell() {
         return true;
     }
 
+    /**
+     * Return whether the amounts returned by {@link #insert} and {@link #extract} are always exactly the change to the
+     * content of the cell. This isn't the case for cells that void what doesn't fit, or whose content never changes.
+     * Drives can track the content of cells that return true without querying them after every change.
+     */
+    default boolean reportsExactChanges() {
+        return false;
+    }
+
     /**
      * Tells the cell to persist to NBT.
      */
@@ -41,6 +41,7 @@
 import appeng.blockentity.grid.AENetworkedInvBlockEntity;
 import appeng.core.AEConfig;
 import appeng.core.definitions.AEItems;
+import appeng.me.service.WirelessService;
 import appeng.util.inv.AppEngInternalInventory;
 import appeng.util.inv.filter.AEItemDefinitionFilter;
 
@@ -122,6 +123,8 @@ public void onReady() {
 
     private void updatePower() {
         this.getMainNode().setIdlePowerUsage(AEConfig.instance().wireless_getPowerDrain(this.getBoosters()));
+        // The range depends on the boosters too
+        this.getMainNode().ifPresent(grid -> grid.getService(WirelessService.class).updateAccessPoint(this));
     }
 
     private int getBoosters() {
@@ -18,6 +18,8 @@
 
 package appeng.blockentity.spatial;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
@@ -27,6 +29,7 @@
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 
 import appeng.api.config.Actionable;
 import appeng.api.config.PowerMultiplier;
@@ -39,6 +42,8 @@
 import appeng.api.util.AECableType;
 import appeng.blockentity.grid.AENetworkedInvBlockEntity;
 import appeng.hooks.ticking.TickHandler;
+import appeng.spatial.SpatialStorageHelper;
+import appeng.spatial.SpatialTransfer;
 import appeng.util.ILevelRunnable;
 import appeng.util.inv.AppEngInternalInventory;
 import appeng.util.inv.FilteredInternalInventory;
@@ -54,6 +59,12 @@ public class SpatialIOPortBlockEntity extends AENetworkedInvBlockEntity {
 
     private boolean isActive = false;
 
+    /**
+     * The transfer started by the last transition of this port, as long as it may still be running.
+     */
+    @Nullable
+    private SpatialTransfer transfer;
+
     public SpatialIOPortBlockEntity(BlockEntityType<?> blockEntityType, BlockPos pos, BlockState blockState) {
         super(blockEntityType, pos, blockState);
         this.getMainNode().setFlags(GridFlags.REQUIRE_CHANNEL);
@@ -123,6 +134,18 @@ public void onMainNodeStateChanged(IGridNodeListener.State reason) {
         }
     }
 
+    /**
+     * @return The share of the chunk columns that the transfer started by this port has swapped, or -1 if it isn't
+     *         running anymore.
+     */
+    public float getTransferProgress() {
+        if (this.transfer != null && this.transfer.getState() != SpatialTransfer.State.RUNNING) {
+            // Don't keep the swapped regions in memory
+            this.transfer = null;
+        }
+        return this.transfer != null ? this.transfer.getProgress() : -1;
+    }
+
     private void triggerTransition() {
         if (!isClientSide()) {
             final ItemStack cell = this.inv.getStackInSlot(0);
@@ -176,6 +199,11 @@ private void transition() {
                         energy.extractAEPower(req, Actionable.MODULATE, PowerMultiplier.CONFIG);
                         this.inv.setItemDirect(0, ItemStack.EMPTY);
                         this.inv.setItemDirect(1, cell);
+
+                        // Larger regions are swapped over the next ticks
+                        var region = BoundingBox.fromCorners(spc.getMin().offset(1, 1, 1),
+                                spc.getMax().offset(-1, -1, -1));
+                        this.transfer = SpatialStorageHelper.getInstance().getTransfer(serverLevel, region);
                     }
                 }
             }
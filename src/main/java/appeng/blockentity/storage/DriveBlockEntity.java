@@ -360,7 +360,7 @@ private double updateStateForSlot(int slot) {
 
         var is = this.inv.getStackInSlot(slot);
         if (!is.isEmpty()) {
-            var cell = StorageCells.getCellInventory(is, this::onCellContentChanged);
+            var cell = StorageCells.getCellInventory(is, () -> onCellContentChanged(slot));
 
             if (cell != null) {
                 this.inv.setHandler(slot, cell);
@@ -418,8 +418,13 @@ private void blinkCell(int slot) {
      * serializing it to NBT right away, we just queue up a save for the entire BE. As part of saving the BE, the cell
      * will then be serialized to NBT.
      */
-    private void onCellContentChanged() {
+    private void onCellContentChanged(int slot) {
         this.level.blockEntityChanged(this.worldPosition);
+
+        var handler = this.invBySlot[slot];
+        if (handler != null) {
+            handler.onCellContentChanged();
+        }
     }
 
     private static class CellValidInventoryFilter implements IAEItemFilter {
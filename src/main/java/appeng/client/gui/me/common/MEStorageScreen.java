@@ -772,6 +772,8 @@ public void containerTick() {
             }
         }
 
+        this.repo.buildSearchIndex();
+
         super.containerTick();
     }
 
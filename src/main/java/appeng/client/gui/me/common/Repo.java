@@ -39,6 +39,8 @@
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
 
@@ -47,6 +49,7 @@
 import appeng.api.config.ViewItems;
 import appeng.api.stacks.AEItemKey;
 import appeng.api.stacks.AEKey;
+import appeng.api.stacks.AEKeyType;
 import appeng.client.gui.me.search.RepoSearch;
 import appeng.client.gui.widgets.IScrollSource;
 import appeng.client.gui.widgets.ISortSource;
@@ -67,11 +70,18 @@ public class Repo implements IClientRepo {
 
     public static final Comparator<GridInventoryEntry> AMOUNT_DESC = AMOUNT_ASC.reversed();
 
+    private static final Map<ViewOrder, Comparator<GridInventoryEntry>> VIEW_COMPARATORS = new HashMap<>();
+
     private static final Comparator<GridInventoryEntry> PINNED_ROW_COMPARATOR = Comparator.comparing(entry -> {
         var pinInfo = PinnedKeys.getPinInfo(entry.getWhat());
         return pinInfo != null ? pinInfo.since : Instant.MAX;
     });
 
+    /**
+     * The time spent per client tick on indexing the names and tooltips of new keys for search.
+     */
+    private static final long SEARCH_INDEX_BUDGET_NANOS = 2_000_000;
+
     private int rowSize = 9;
 
     private boolean enabled = false;
@@ -92,6 +102,22 @@ public class Repo implements IClientRepo {
     private final ISortSource sortSrc;
     private boolean paused;
 
+    /**
+     * The entries that changed since the view was last updated, by serial, as they were at that time. The value is
+     * null for entries that are new.
+     */
+    private final Long2ObjectMap<GridInventoryEntry> changedEntries = new Long2ObjectOpenHashMap<>();
+    /**
+     * Set when the view has to be rebuilt and re-sorted from all entries, instead of just repositioning the changed
+     * entries.
+     */
+    private boolean viewNeedsRebuild = true;
+    // The settings the view was last built with
+    private Comparator<GridInventoryEntry> viewComparator;
+    private ViewItems viewMode;
+    private Set<AEKeyType> viewKeyTypes;
+    private Set<AEKey> viewPinnedKeys;
+
     public Repo(IScrollSource src, ISortSource sortSrc) {
         this.src = src;
         this.sortSrc = sortSrc;
@@ -100,6 +126,7 @@ public Repo(IScrollSource src, ISortSource sortSrc) {
     public void setPartitionList(IPartitionList partitionList) {
         if (partitionList != this.partitionList) {
             this.partitionList = partitionList;
+            this.viewNeedsRebuild = true;
             this.updateView();
         }
     }
@@ -121,6 +148,10 @@ private void handleUpdate(GridInventoryEntry serverEntry) {
         entriesByItemIdNeedsUpdate = true;
 
         var localEntry = entries.get(serverEntry.getSerial());
+        if (!changedEntries.containsKey(serverEntry.getSerial())) {
+            changedEntries.put(serverEntry.getSerial(), localEntry);
+        }
+
         if (localEntry == null) {
             // First time we're seeing this serial -> create new entry
             if (serverEntry.getWhat() == null) {
@@ -129,6 +160,7 @@ private void handleUpdate(GridInventoryEntry serverEntry) {
             }
             if (serverEntry.isMeaningful()) {
                 entries.put(serverEntry.getSerial(), serverEntry);
+                search.addToIndex(serverEntry.getWhat());
             }
             return;
         }
@@ -148,6 +180,13 @@ private void handleUpdate(GridInventoryEntry serverEntry) {
         }
     }
 
+    /**
+     * Continues indexing the keys of this repo for search, limited to a small amount of time per call.
+     */
+    public final void buildSearchIndex() {
+        search.buildIndex(SEARCH_INDEX_BUDGET_NANOS);
+    }
+
     public final void updateView() {
         // While the view is paused, we try to only append to the view list in order to avoid mis-clicks by the
         // player due to items shifting under their mouse cursor.
@@ -180,30 +219,117 @@ public final void updateView() {
             }
 
             addEntriesToView(entriesToAdd);
+
+            // The view is no longer sorted, so it can't be updated incrementally after unpausing
+            viewNeedsRebuild = true;
         } else {
-            this.view.clear();
-            this.pinnedRow.clear();
+            var comparator = getComparator(this.sortSrc.getSortBy(), this.sortSrc.getSortDir());
+            var viewMode = this.sortSrc.getSortDisplay();
+            var keyTypes = this.sortSrc.getSortKeyTypes();
 
-            this.view.ensureCapacity(this.entries.size());
-            this.pinnedRow.ensureCapacity(rowSize);
+            if (canUpdateViewIncrementally(comparator, viewMode, keyTypes)) {
+                updateChangedEntriesInView();
+            } else {
+                rebuildView(comparator, viewMode, keyTypes);
+            }
+        }
+        changedEntries.clear();
 
-            addEntriesToView(this.entries.values());
+        if (this.updateViewListener != null) {
+            this.updateViewListener.run();
         }
+    }
+
+    private void rebuildView(Comparator<GridInventoryEntry> comparator, ViewItems viewMode,
+            Set<AEKeyType> keyTypes) {
+        this.view.clear();
+        this.pinnedRow.clear();
+
+        this.view.ensureCapacity(this.entries.size());
+        this.pinnedRow.ensureCapacity(rowSize);
+
+        addEntriesToView(this.entries.values());
 
-        // Don't re-sort while being paused
-        if (!isPaused()) {
-            // Sort older entries first in the pinned row
-            pinnedRow.sort(PINNED_ROW_COMPARATOR);
+        // Sort older entries first in the pinned row
+        pinnedRow.sort(PINNED_ROW_COMPARATOR);
 
-            var sortOrder = this.sortSrc.getSortBy();
-            var sortDir = this.sortSrc.getSortDir();
+        this.view.sort(comparator);
 
-            this.view.sort(getComparator(sortOrder, sortDir));
+        this.viewNeedsRebuild = false;
+        this.viewComparator = comparator;
+        this.viewMode = viewMode;
+        this.viewKeyTypes = keyTypes;
+        this.viewPinnedKeys = PinnedKeys.getPinnedKeys();
+    }
+
+    /**
+     * The view can only be updated incrementally if it was built with the same settings, and none of the changes
+     * affect the pinned row.
+     */
+    private boolean canUpdateViewIncrementally(Comparator<GridInventoryEntry> comparator, ViewItems viewMode,
+            Set<AEKeyType> keyTypes) {
+        if (viewNeedsRebuild
+                || !comparator.equals(viewComparator)
+                || viewMode != this.viewMode
+                || !keyTypes.equals(viewKeyTypes)
+                || !PinnedKeys.getPinnedKeys().equals(viewPinnedKeys)) {
+            return false;
         }
 
-        if (this.updateViewListener != null) {
-            this.updateViewListener.run();
+        if (!viewPinnedKeys.isEmpty()) {
+            for (var changed : changedEntries.long2ObjectEntrySet()) {
+                var entry = changed.getValue() != null ? changed.getValue() : entries.get(changed.getLongKey());
+                if (entry != null && viewPinnedKeys.contains(entry.getWhat())) {
+                    return false;
+                }
+            }
         }
+
+        return true;
+    }
+
+    /**
+     * Removes the changed entries from the sorted view, and inserts them at their new position if they're still
+     * visible.
+     */
+    private void updateChangedEntriesInView() {
+        for (var changed : changedEntries.long2ObjectEntrySet()) {
+            var previousEntry = changed.getValue();
+            if (previousEntry != null) {
+                var idx = Collections.binarySearch(view, previousEntry, viewComparator);
+                if (idx >= 0) {
+                    view.remove(idx);
+                }
+            }
+
+            var entry = entries.get(changed.getLongKey());
+            if (entry != null && isVisible(entry, viewMode, viewKeyTypes)) {
+                var idx = Collections.binarySearch(view, entry, viewComparator);
+                if (idx < 0) {
+                    view.add(-idx - 1, entry);
+                }
+            }
+        }
+    }
+
+    private boolean isVisible(GridInventoryEntry entry, ViewItems viewMode, Set<AEKeyType> keyTypes) {
+        if (this.partitionList != null && !this.partitionList.isListed(entry.getWhat())) {
+            return false;
+        }
+
+        if (viewMode == ViewItems.CRAFTABLE && !entry.isCraftable()) {
+            return false;
+        }
+
+        if (viewMode == ViewItems.STORED && entry.getStoredAmount() == 0) {
+            return false;
+        }
+
+        if (!keyTypes.contains(entry.getWhat().getType())) {
+            return false;
+        }
+
+        return search.matches(entry);
     }
 
     private void addEntriesToView(Collection<GridInventoryEntry> entries) {
@@ -219,23 +345,7 @@ private void addEntriesToView(Collection<GridInventoryEntry> entries) {
                 continue;
             }
 
-            if (this.partitionList != null && !this.partitionList.isListed(entry.getWhat())) {
-                continue;
-            }
-
-            if (viewMode == ViewItems.CRAFTABLE && !entry.isCraftable()) {
-                continue;
-            }
-
-            if (viewMode == ViewItems.STORED && entry.getStoredAmount() == 0) {
-                continue;
-            }
-
-            if (!typeFilter.contains(entry.getWhat().getType())) {
-                continue;
-            }
-
-            if (search.matches(entry)) {
+            if (isVisible(entry, viewMode, typeFilter)) {
                 this.view.add(entry);
             }
         }
@@ -316,12 +426,19 @@ private static boolean takeOverSlotOccupiedByRemovedItem(GridInventoryEntry serv
         return true;
     }
 
-    private Comparator<? super GridInventoryEntry> getComparator(SortOrder sortOrder, SortDir sortDir) {
-        if (sortOrder == SortOrder.AMOUNT) {
-            return sortDir == SortDir.ASCENDING ? AMOUNT_ASC : AMOUNT_DESC;
-        }
-
-        return Comparator.comparing(GridInventoryEntry::getWhat, getKeyComparator(sortOrder, sortDir));
+    /**
+     * Entries that are otherwise equal are ordered by serial, so that every entry has a unique position in the view.
+     */
+    private Comparator<GridInventoryEntry> getComparator(SortOrder sortOrder, SortDir sortDir) {
+        return VIEW_COMPARATORS.computeIfAbsent(new ViewOrder(sortOrder, sortDir), order -> {
+            Comparator<GridInventoryEntry> comparator;
+            if (sortOrder == SortOrder.AMOUNT) {
+                comparator = sortDir == SortDir.ASCENDING ? AMOUNT_ASC : AMOUNT_DESC;
+            } else {
+                comparator = Comparator.comparing(GridInventoryEntry::getWhat, getKeyComparator(sortOrder, sortDir));
+            }
+            return comparator.thenComparingLong(GridInventoryEntry::getSerial);
+        });
     }
 
     public List<GridInventoryEntry> getPinnedEntries() {
@@ -355,6 +472,8 @@ public final int size() {
 
     public final void clear() {
         this.entries.clear();
+        this.changedEntries.clear();
+        this.viewNeedsRebuild = true;
         this.view.clear();
         this.pinnedRow.clear();
         this.entriesByItemId.clear();
@@ -386,7 +505,10 @@ public final String getSearchString() {
     }
 
     public final void setSearchString(String searchString) {
-        this.search.setSearchString(searchString);
+        if (!searchString.equals(this.search.getSearchString())) {
+            this.search.setSearchString(searchString);
+            this.viewNeedsRebuild = true;
+        }
     }
 
     private Comparator<AEKey> getKeyComparator(SortOrder sortBy, SortDir sortDir) {
@@ -462,6 +584,9 @@ public final void setUpdateViewListener(Runnable updateViewListener) {
         this.updateViewListener = updateViewListener;
     }
 
+    private record ViewOrder(SortOrder sortOrder, SortDir sortDir) {
+    }
+
     /**
      * Checks if the repo knows that the given key can be crafted.
      */
@@ -1,6 +1,8 @@
 package appeng.client.gui.me.search;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Predicate;
 
@@ -10,6 +12,10 @@
 
 final class ModSearchPredicate implements Predicate<GridInventoryEntry> {
     private final String term;
+    /**
+     * Whether the term matched, by mod id. There are far fewer mods than keys.
+     */
+    private final Map<String, Boolean> matchingMods = new HashMap<>();
 
     public ModSearchPredicate(String term) {
         this.term = normalize(term);
@@ -21,18 +27,22 @@ public boolean test(GridInventoryEntry gridInventoryEntry) {
         String modId = entryInfo.getModId();
 
         if (modId != null) {
-            if (modId.contains(term)) {
-                return true;
-            }
-
-            String modName = Platform.getModName(modId);
-            modName = normalize(modName);
-            return modName.contains(term);
+            return matchingMods.computeIfAbsent(modId, this::matchesMod);
         }
 
         return false;
     }
 
+    private boolean matchesMod(String modId) {
+        if (modId.contains(term)) {
+            return true;
+        }
+
+        String modName = Platform.getModName(modId);
+        modName = normalize(modName);
+        return modName.contains(term);
+    }
+
     private static String normalize(String input) {
         return input.toLowerCase(Locale.ROOT);
     }
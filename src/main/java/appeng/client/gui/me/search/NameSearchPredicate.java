@@ -1,22 +1,37 @@
 package appeng.client.gui.me.search;
 
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Predicate;
 
-import appeng.api.stacks.AEKey;
+import org.jetbrains.annotations.Nullable;
+
 import appeng.menu.me.common.GridInventoryEntry;
 
 final class NameSearchPredicate implements Predicate<GridInventoryEntry> {
     private final String term;
+    private final SearchIndex index;
+    /**
+     * The sorted ids of the indexed keys whose name may contain the term, or null if the index can't narrow them down.
+     */
+    @Nullable
+    private final int[] candidates;
+    private final int indexedCount;
 
-    public NameSearchPredicate(String term) {
+    public NameSearchPredicate(String term, SearchIndex index) {
         this.term = term.toLowerCase();
+        this.index = index;
+        this.candidates = index.findNameCandidates(this.term);
+        this.indexedCount = index.getIndexedNameCount();
     }
 
     @Override
     public boolean test(GridInventoryEntry gridInventoryEntry) {
-        AEKey entryInfo = Objects.requireNonNull(gridInventoryEntry.getWhat());
-        String displayName = entryInfo.getDisplayName().getString();
-        return displayName.toLowerCase().contains(term);
+        var key = index.get(Objects.requireNonNull(gridInventoryEntry.getWhat()));
+        if (candidates != null && key.getId() < indexedCount && Arrays.binarySearch(candidates, key.getId()) < 0) {
+            return false;
+        }
+
+        return key.getName().contains(term);
     }
 }
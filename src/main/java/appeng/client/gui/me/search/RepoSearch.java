@@ -2,8 +2,6 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.function.Predicate;
 
 import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
@@ -19,7 +17,7 @@ public class RepoSearch {
     // Cached information
     private final Long2BooleanMap cache = new Long2BooleanOpenHashMap();
     private Predicate<GridInventoryEntry> search = (e) -> true;
-    final Map<AEKey, String> tooltipCache = new WeakHashMap<>();
+    private final SearchIndex index = new SearchIndex();
 
     public RepoSearch() {
     }
@@ -36,6 +34,22 @@ public void setSearchString(String searchString) {
         }
     }
 
+    /**
+     * Queues the key for the search index, so that its name and tooltip are ready by the time the player searches.
+     */
+    public void addToIndex(AEKey what) {
+        index.get(what);
+    }
+
+    /**
+     * Indexes queued keys for at most the given time.
+     *
+     * @return True if all keys are indexed.
+     */
+    public boolean buildIndex(long budgetNanos) {
+        return index.build(budgetNanos);
+    }
+
     public boolean matches(GridInventoryEntry entry) {
         return cache.computeIfAbsent(entry.getSerial(), s -> search.test(entry));
     }
@@ -71,13 +85,13 @@ private List<Predicate<GridInventoryEntry>> getPredicates(String query) {
             if (part.startsWith("@")) {
                 predicateFilters.add(new ModSearchPredicate(part.substring(1)));
             } else if (part.startsWith("#")) {
-                predicateFilters.add(new TooltipsSearchPredicate(part.substring(1), tooltipCache));
+                predicateFilters.add(new TooltipsSearchPredicate(part.substring(1), index));
             } else if (part.startsWith("$")) {
                 predicateFilters.add(new TagSearchPredicate(part.substring(1)));
             } else if (part.startsWith("*")) {
                 predicateFilters.add(new ItemIdSearchPredicate(part.substring(1)));
             } else {
-                predicateFilters.add(new NameSearchPredicate(part));
+                predicateFilters.add(new NameSearchPredicate(part, index));
             }
         }
 
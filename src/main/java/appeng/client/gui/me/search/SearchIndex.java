@@ -0,0 +1,193 @@
+package appeng.client.gui.me.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.ChatFormatting;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import appeng.api.client.AEKeyRendering;
+import appeng.api.stacks.AEKey;
+import appeng.core.AEConfig;
+import appeng.util.Platform;
+
+/**
+ * Holds the searchable text of every key the terminal has seen, together with trigram indices over names and tooltips.
+ * The tooltip index is only built after the first tooltip search.
+ * <p/>
+ * Display names and tooltips are computed by item and fluid code that expects to run on the client thread, so the
+ * index is built there too, but incrementally in small time slices. Keys that were not indexed yet still compute their
+ * text on demand when a search needs it.
+ */
+final class SearchIndex {
+    private final Object2IntOpenHashMap<AEKey> ids = new Object2IntOpenHashMap<>();
+    private final List<IndexedKey> keys = new ArrayList<>();
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex tooltips = new TrigramIndex();
+    /**
+     * Keys are indexed in the order of their ids, so all keys with a lower id than this are in the name index.
+     */
+    private int indexedNameCount;
+    /**
+     * Same as {@link #indexedNameCount}, but for the tooltip index.
+     */
+    private int indexedTooltipCount;
+    /**
+     * Tooltips are expensive to compute, so they are only indexed once the player searched for one.
+     */
+    private boolean indexTooltips;
+
+    SearchIndex() {
+        ids.defaultReturnValue(-1);
+    }
+
+    public IndexedKey get(AEKey what) {
+        var id = ids.getInt(what);
+        if (id == -1) {
+            id = keys.size();
+            ids.put(what, id);
+            keys.add(new IndexedKey(id, what));
+        }
+        return keys.get(id);
+    }
+
+    /**
+     * Indexes keys that were not indexed yet until the given time has passed.
+     *
+     * @return True if all known keys are indexed.
+     */
+    public boolean build(long budgetNanos) {
+        var deadline = System.nanoTime() + budgetNanos;
+        while (indexedNameCount < keys.size()) {
+            names.add(indexedNameCount, keys.get(indexedNameCount).getName());
+            indexedNameCount++;
+
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+        if (indexTooltips) {
+            while (indexedTooltipCount < keys.size()) {
+                tooltips.add(indexedTooltipCount, keys.get(indexedTooltipCount).getTooltip());
+                indexedTooltipCount++;
+
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+            }
+        }
+        return indexedNameCount >= keys.size() && (!indexTooltips || indexedTooltipCount >= keys.size());
+    }
+
+    public int getIndexedNameCount() {
+        return indexedNameCount;
+    }
+
+    public int getIndexedTooltipCount() {
+        return indexedTooltipCount;
+    }
+
+    /**
+     * @see TrigramIndex#findCandidates(String)
+     */
+    @Nullable
+    public int[] findNameCandidates(String term) {
+        return names.findCandidates(term);
+    }
+
+    /**
+     * Also starts indexing tooltips if this is the first tooltip search.
+     *
+     * @see TrigramIndex#findCandidates(String)
+     */
+    @Nullable
+    public int[] findTooltipCandidates(String term) {
+        indexTooltips = true;
+        return tooltips.findCandidates(term);
+    }
+
+    static String normalizeTooltip(String input) {
+        return input.toLowerCase().replace(" ", "");
+    }
+
+    static final class IndexedKey {
+        private final int id;
+        private final AEKey what;
+        @Nullable
+        private String name;
+        @Nullable
+        private String tooltip;
+
+        private IndexedKey(int id, AEKey what) {
+            this.id = id;
+            this.what = what;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return The lowercase display name.
+         */
+        public String getName() {
+            if (name == null) {
+                name = what.getDisplayName().getString().toLowerCase();
+            }
+            return name;
+        }
+
+        /**
+         * @return The concatenated text of the key's tooltip for search purposes.
+         */
+        public String getTooltip() {
+            if (tooltip == null) {
+                tooltip = normalizeTooltip(computeTooltipText(what));
+            }
+            return tooltip;
+        }
+
+        private static String computeTooltipText(AEKey what) {
+            var lines = AEKeyRendering.getTooltip(what);
+
+            var tooltipText = new StringBuilder();
+            for (int i = 0; i < lines.size(); i++) {
+                var line = lines.get(i);
+
+                // Process last line and skip mod name if our heuristic detects it
+                if (i > 0 && i >= lines.size() - 1 && !AEConfig.instance().isSearchModNameInTooltips()) {
+                    var text = line.getString();
+                    boolean hadFormatting = false;
+                    if (text.indexOf(ChatFormatting.PREFIX_CODE) != -1) {
+                        text = ChatFormatting.stripFormatting(text);
+                        hadFormatting = true;
+                    } else {
+                        hadFormatting = !line.getStyle().isEmpty();
+                    }
+
+                    if (!hadFormatting || !Objects.equals(text, Platform.getModName(what.getModId()))) {
+                        tooltipText.append('\n').append(text);
+                    }
+                } else {
+                    if (i > 0) {
+                        tooltipText.append('\n');
+                    }
+                    line.visit(text -> {
+                        if (text.indexOf(ChatFormatting.PREFIX_CODE) != -1) {
+                            text = ChatFormatting.stripFormatting(text);
+                        }
+                        tooltipText.append(text);
+                        return Optional.empty();
+                    });
+                }
+            }
+
+            return tooltipText.toString();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package appeng.client.gui.me.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * Maps every sequence of three characters to the ids of the texts containing it. Since a text can only contain a term
+ * if it contains all of the term's trigrams, this narrows down the texts that have to be checked for a substring.
+ * <p/>
+ * The ids of each trigram are kept as a sorted list, which stays small for the many trigrams that only occur in a few
+ * texts.
+ */
+final class TrigramIndex {
+    private static final int[] NO_IDS = new int[0];
+
+    private final Long2ObjectOpenHashMap<IntArrayList> postings = new Long2ObjectOpenHashMap<>();
+    private int lastId = -1;
+
+    /**
+     * Adds a text to the index. Texts have to be added in ascending order of their ids.
+     */
+    public void add(int id, String text) {
+        if (id < lastId) {
+            throw new IllegalArgumentException("Texts must be added in order of their ids: " + id + " < " + lastId);
+        }
+        lastId = id;
+
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            var ids = postings.computeIfAbsent(trigram(text, i), t -> new IntArrayList());
+            // The same trigram can occur several times in a text
+            if (ids.isEmpty() || ids.getInt(ids.size() - 1) != id) {
+                ids.add(id);
+            }
+        }
+    }
+
+    /**
+     * @return The sorted ids of all texts that may contain the term, or null if the term is too short to narrow them
+     *         down.
+     */
+    @Nullable
+    public int[] findCandidates(String term) {
+        if (term.length() < 3) {
+            return null;
+        }
+
+        var termPostings = new ArrayList<IntArrayList>(term.length() - 2);
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            var ids = postings.get(trigram(term, i));
+            if (ids == null) {
+                return NO_IDS;
+            }
+            termPostings.add(ids);
+        }
+
+        // Start with the rarest trigram to keep the intermediate results small
+        termPostings.sort(Comparator.comparingInt(IntArrayList::size));
+        var result = termPostings.get(0).toIntArray();
+        var size = result.length;
+        for (int i = 1; i < termPostings.size() && size > 0; i++) {
+            size = retainAll(result, size, termPostings.get(i));
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Removes the ids from the first size entries of the sorted result that are not in the sorted list of ids, moving
+     * the remaining ones to the front.
+     *
+     * @return The number of remaining ids.
+     */
+    private static int retainAll(int[] result, int size, IntArrayList ids) {
+        int retained = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            var id = result[i];
+            while (j < ids.size() && ids.getInt(j) < id) {
+                j++;
+            }
+            if (j == ids.size()) {
+                break;
+            }
+            if (ids.getInt(j) == id) {
+                result[retained++] = id;
+            }
+        }
+        return retained;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -220,8 +220,20 @@ public boolean isEnableFacadeRecipesInRecipeViewer() {
         return client.enableFacadeRecipesInRecipeViewer.getAsBoolean();
     }
 
-    public int getCraftingCalculationTimePerTick() {
-        return common.craftingCalculationTimePerTick.get();
+    public int getCraftingCalculationPoolSize() {
+        return common.craftingCalculationPoolSize.get();
+    }
+
+    public int getCraftingCalculationTimeLimit() {
+        return common.craftingCalculationTimeLimit.get();
+    }
+
+    public int getCraftingCalculationThreads() {
+        return common.craftingCalculationThreads.get();
+    }
+
+    public void setCraftingCalculationThreads(int threads) {
+        common.craftingCalculationThreads.set(threads);
     }
 
     public boolean isCraftingSimulatedExtraction() {
@@ -326,6 +338,54 @@ public int getPathfindingStepsPerTick() {
         return common.pathfindingStepsPerTick.get();
     }
 
+    public boolean isIncrementalInventoryCache() {
+        return common.incrementalInventoryCache.get();
+    }
+
+    public int getInventoryCacheReconcileInterval() {
+        return common.inventoryCacheReconcileInterval.get();
+    }
+
+    public int getTerminalChangeLogSize() {
+        return common.terminalChangeLogSize.get();
+    }
+
+    public boolean isCompressTerminalUpdates() {
+        return common.compressTerminalUpdates.get();
+    }
+
+    public void setCompressTerminalUpdates(boolean enable) {
+        common.compressTerminalUpdates.set(enable);
+    }
+
+    public boolean isInternItemKeys() {
+        return common.internItemKeys.get();
+    }
+
+    public void setInternItemKeys(boolean enable) {
+        common.internItemKeys.set(enable);
+    }
+
+    public boolean isIncrementalChannelPathing() {
+        return common.incrementalChannelPathing.get();
+    }
+
+    public int getGridTickBudgetMicros() {
+        return common.gridTickBudgetMicros.get();
+    }
+
+    public int getGlobalGridTickBudgetMicros() {
+        return common.globalGridTickBudgetMicros.get();
+    }
+
+    public int getStorageBusScanSlotsPerTick() {
+        return common.storageBusScanSlotsPerTick.get();
+    }
+
+    public int getSpatialTransferTickBudgetMicros() {
+        return common.spatialTransferTickBudgetMicros.get();
+    }
+
     /**
      * @return True if an in-world preview of parts and facade placement should be shown when holding one in hand.
      */
@@ -524,7 +584,9 @@ private static class CommonConfig {
 
         // Misc
         public final IntValue formationPlaneEntityLimit;
-        public final IntValue craftingCalculationTimePerTick;
+        public final IntValue craftingCalculationPoolSize;
+        public final IntValue craftingCalculationTimeLimit;
+        public final IntValue craftingCalculationThreads;
         public final BooleanValue craftingSimulatedExtraction;
         public final BooleanValue allowBlockEntityFacades;
         public final BooleanValue debugTools;
@@ -534,6 +596,18 @@ private static class CommonConfig {
         public final IntValue pathfindingStepsPerTick;
         public final BooleanValue spatialAnchorEnableRandomTicks;
 
+        // Performance
+        public final BooleanValue incrementalInventoryCache;
+        public final IntValue inventoryCacheReconcileInterval;
+        public final IntValue terminalChangeLogSize;
+        public final BooleanValue compressTerminalUpdates;
+        public final BooleanValue incrementalChannelPathing;
+        public final BooleanValue internItemKeys;
+        public final IntValue gridTickBudgetMicros;
+        public final IntValue globalGridTickBudgetMicros;
+        public final IntValue storageBusScanSlotsPerTick;
+        public final IntValue spatialTransferTickBudgetMicros;
+
         public final BooleanValue disassemblyCrafting;
         public final IntValue growthAcceleratorSpeed;
         public final BooleanValue annihilationPlaneSkyDustGeneration;
@@ -610,6 +684,29 @@ public CommonConfig() {
                     "Whether Spatial Anchors should force random chunk ticks and entity spawning.");
             builder.pop();
 
+            builder.push("performance");
+            incrementalInventoryCache = define(builder, "incrementalInventoryCache", true,
+                    "Maintain the cached network inventory from the changes reported by storage cells in drives, instead of rescanning all mounted storage every tick. Other storage (i.e. storage buses) is still rescanned.");
+            inventoryCacheReconcileInterval = define(builder, "inventoryCacheReconcileInterval", 200, 1, 72000,
+                    "The number of ticks after which the incrementally maintained network inventory is fully rescanned to correct any drift.");
+            terminalChangeLogSize = define(builder, "terminalChangeLogSize", 16384, 0, 1048576,
+                    "The number of changes to the network inventory each grid with open terminals remembers for them, which then only need to send the changed stacks to their players. Terminals that fall further behind resend their entire content. 0 makes every terminal compare the full network inventory each tick instead.");
+            compressTerminalUpdates = define(builder, "compressTerminalUpdates", false,
+                    "Deflate large terminal inventory updates before sending them. Only useful if the connection itself is not compressed, i.e. when network compression is disabled on a server behind a proxy.");
+            incrementalChannelPathing = define(builder, "incrementalChannelPathing", true,
+                    "Update the channels of a grid with a controller only around the cables and devices that were added or removed, instead of recalculating and rebooting the entire grid. Channels may then be assigned differently than by a full recalculation, which still happens when controllers change.");
+            internItemKeys = define(builder, "internItemKeys", true,
+                    "Share one instance between all equal keys of items with component changes (i.e. enchanted or damaged items), which saves memory and makes comparing them cheaper, at the cost of a lookup whenever such a key is created. Keys of items without component changes are always shared.");
+            gridTickBudgetMicros = define(builder, "gridTickBudgetMicros", 0, 0, 50000,
+                    "The time in microseconds each grid may spend ticking its devices (buses, interfaces, etc.) per server tick. Devices that are due once the budget is used up are ticked on the next tick instead. 0 disables the limit.");
+            globalGridTickBudgetMicros = define(builder, "globalGridTickBudgetMicros", 0, 0, 50000,
+                    "The time in microseconds all grids together may spend ticking their devices per server tick. Grids that had to defer devices are ticked first on the next tick. 0 disables the limit.");
+            storageBusScanSlotsPerTick = define(builder, "storageBusScanSlotsPerTick", 512, 1, 1048576,
+                    "The number of slots of an external inventory a storage bus checks for changes each time it ticks. Larger inventories are checked over several ticks. Slots the storage bus itself inserted into or extracted from are always updated immediately.");
+            spatialTransferTickBudgetMicros = define(builder, "spatialTransferTickBudgetMicros", 5000, 0, 1000000,
+                    "The time in microseconds a spatial IO port may spend swapping blocks per server tick. Larger regions are swapped over several ticks, during which blocks in them can't be placed or broken. 0 swaps the entire region in one tick.");
+            builder.pop();
+
             builder.push("automation");
             formationPlaneEntityLimit = define(builder, "formationPlaneEntityLimit", 128);
             builder.pop();
@@ -620,7 +717,12 @@ public CommonConfig() {
             builder.pop();
 
             builder.push("craftingCPU");
-            this.craftingCalculationTimePerTick = define(builder, "craftingCalculationTimePerTick", 5);
+            this.craftingCalculationPoolSize = define(builder, "craftingCalculationPoolSize", 4, 1, 64,
+                    "The number of crafting job calculations that can run at the same time. They run on their own threads without pausing the server tick, so each of them can fully use a CPU core next to the server thread, plus craftingCalculationThreads more for its parallel workers. Further calculations wait until one of them has finished.");
+            this.craftingCalculationTimeLimit = define(builder, "craftingCalculationTimeLimit", 60, 0, 3600,
+                    "The number of seconds a crafting job calculation may run before it is cancelled. Time spent waiting for a free calculation thread does not count. 0 disables the limit.");
+            this.craftingCalculationThreads = define(builder, "craftingCalculationThreads", 2, 0, 64,
+                    "The number of additional threads that crafting job calculations can use to request the inputs of a pattern concurrently. 0 disables parallel calculations.");
             this.craftingSimulatedExtraction = define(builder, "craftingSimulatedExtraction", false,
                     "When true: simulate extraction of all the network's contents when starting a crafting job calculation. When false: use the cached available content list (same as terminals). Enabling might work a bit better, but it will significantly reduce performance.");
             builder.pop();
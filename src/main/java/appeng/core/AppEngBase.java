@@ -92,6 +92,7 @@
 import appeng.sounds.AppEngSounds;
 import appeng.spatial.SpatialStorageChunkGenerator;
 import appeng.spatial.SpatialStorageDimensionIds;
+import appeng.spatial.SpatialStorageHelper;
 
 /**
  * Mod functionality that is common to both dedicated server and client.
@@ -184,6 +185,8 @@ public AppEngBase(IEventBus modEventBus, ModContainer container) {
 
         NeoForge.EVENT_BUS.addListener(WrenchHook::onPlayerUseBlockEvent);
         NeoForge.EVENT_BUS.addListener(SkyStoneBreakSpeed::handleBreakFaster);
+        NeoForge.EVENT_BUS.addListener(SpatialStorageHelper.getInstance()::onBlockBreak);
+        NeoForge.EVENT_BUS.addListener(SpatialStorageHelper.getInstance()::onBlockPlace);
 
         HotkeyActions.init();
     }
@@ -238,6 +241,7 @@ private void onServerAboutToStart(final ServerAboutToStartEvent evt) {
     }
 
     private void serverStopping(final ServerStoppingEvent event) {
+        SpatialStorageHelper.getInstance().finishTransfers();
         ChunkLoadingService.getInstance().onServerStopping(event);
     }
 
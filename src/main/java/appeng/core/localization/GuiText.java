@@ -208,6 +208,7 @@ public enum GuiText implements LocalizationEnum {
     SpatialAnchorUsedPower("Energy Usage: %s"),
     SpatialCapacity("Capacity: %dx%dx%d"),
     SpatialIOPort("Spatial IO Port"),
+    SpatialTransferProgress("Transferring: %s%%"),
     Start("Start"),
     StonecuttingPattern("Stonecutting Patterns"),
     StorageBus("Storage Bus"),
@@ -1,18 +1,25 @@
 
 package appeng.core.network.clientbound;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
 
 import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.world.entity.player.Player;
@@ -23,6 +30,7 @@
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.KeyCounter;
 import appeng.api.storage.AEKeyFilter;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.core.network.ClientboundPacket;
 import appeng.core.network.CustomAppEngPayload;
@@ -35,7 +43,8 @@ public record MEInventoryUpdatePacket(
         int containerId,
         @Nullable List<GridInventoryEntry> entries,
         int encodedEntryCount,
-        @Nullable RegistryFriendlyByteBuf encodedEntries
+        @Nullable RegistryFriendlyByteBuf encodedEntries,
+        boolean deflate
 
 ) implements ClientboundPacket {
 
@@ -61,12 +70,34 @@ public Type<MEInventoryUpdatePacket> type() {
      */
     private static final int INITIAL_BUFFER_CAPACITY = 2 * 1024;
 
+    /**
+     * Batches of a full update that are smaller than this are never deflated.
+     */
+    private static final int DEFLATE_THRESHOLD = 8 * 1024;
+
+    /**
+     * Upper bound for the inflated size of a batch, to reject malformed packets. A batch is flushed as soon as it
+     * exceeds {@link #UNCOMPRESSED_PACKET_BYTE_LIMIT}, so it can only be larger by the size of a single entry.
+     */
+    private static final int MAX_INFLATED_BYTES = 4 * UNCOMPRESSED_PACKET_BYTE_LIMIT;
+
+    // Flags preceding each entry, indicating which of its properties are written
+    private static final int FLAG_KEY = 1;
+    private static final int FLAG_STORED = 2;
+    private static final int FLAG_REQUESTABLE = 4;
+    private static final int FLAG_CRAFTABLE = 8;
+
     public static MEInventoryUpdatePacket decode(RegistryFriendlyByteBuf data) {
         var containerId = data.readVarInt();
         var fullUpdate = data.readBoolean();
         var encodedEntryCount = data.readVarInt();
-        var entries = decodeEntriesPayload(encodedEntryCount, data);
-        return new MEInventoryUpdatePacket(fullUpdate, containerId, entries, 0, null);
+        List<GridInventoryEntry> entries;
+        if (encodedEntryCount > 0 && data.readBoolean()) {
+            entries = decodeEntriesPayload(encodedEntryCount, inflate(data));
+        } else {
+            entries = decodeEntriesPayload(encodedEntryCount, data);
+        }
+        return new MEInventoryUpdatePacket(fullUpdate, containerId, entries, 0, null, false);
     }
 
     public void write(RegistryFriendlyByteBuf data) {
@@ -77,9 +108,73 @@ public void write(RegistryFriendlyByteBuf data) {
             if (encodedEntries == null) {
                 throw new UnsupportedOperationException("Use the builder");
             }
-            data.ensureWritable(encodedEntries.readableBytes());
-            encodedEntries.getBytes(encodedEntries.readerIndex(), data, encodedEntries.readableBytes());
+            data.writeBoolean(deflate);
+            if (deflate) {
+                deflate(encodedEntries, data);
+            } else {
+                data.ensureWritable(encodedEntries.readableBytes());
+                encodedEntries.getBytes(encodedEntries.readerIndex(), data, encodedEntries.readableBytes());
+            }
+        }
+    }
+
+    /**
+     * Writes the readable bytes of the payload to the output in deflated form, prefixed by the original and the
+     * deflated length.
+     */
+    private static void deflate(ByteBuf payload, ByteBuf out) {
+        var input = new byte[payload.readableBytes()];
+        payload.getBytes(payload.readerIndex(), input);
+
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            var deflated = new ByteArrayOutputStream(input.length / 4);
+            var chunk = new byte[8192];
+            while (!deflater.finished()) {
+                var count = deflater.deflate(chunk);
+                deflated.write(chunk, 0, count);
+            }
+
+            var friendlyOut = new FriendlyByteBuf(out);
+            friendlyOut.writeVarInt(input.length);
+            friendlyOut.writeByteArray(deflated.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static RegistryFriendlyByteBuf inflate(RegistryFriendlyByteBuf data) {
+        var inflatedLength = data.readVarInt();
+        if (inflatedLength < 0 || inflatedLength > MAX_INFLATED_BYTES) {
+            throw new DecoderException("Invalid inflated ME inventory update size: " + inflatedLength);
+        }
+        var deflated = data.readByteArray();
+
+        var inflated = new byte[inflatedLength];
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            var offset = 0;
+            while (offset < inflatedLength && !inflater.finished()) {
+                var count = inflater.inflate(inflated, offset, inflatedLength - offset);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += count;
+            }
+            if (offset != inflatedLength) {
+                throw new DecoderException("Truncated ME inventory update: " + offset + " of " + inflatedLength);
+            }
+        } catch (DataFormatException e) {
+            throw new DecoderException("Malformed ME inventory update", e);
+        } finally {
+            inflater.end();
         }
+
+        return new RegistryFriendlyByteBuf(Unpooled.wrappedBuffer(inflated), data.registryAccess(),
+                ConnectionType.NEOFORGE);
     }
 
     public static class Builder {
@@ -94,6 +189,16 @@ public static class Builder {
 
         private int entryCount;
 
+        /**
+         * Serial of the last entry written to {@link #encodedEntries}. Serials are written relative to it.
+         */
+        private long lastSerial;
+
+        /**
+         * Deflate large batches. Only used for full updates, where most entries carry their key.
+         */
+        private final boolean deflate;
+
         @Nullable
         private AEKeyFilter filter;
 
@@ -101,6 +206,7 @@ public Builder(int containerId, boolean fullUpdate, RegistryAccess registryAcces
             this.containerId = containerId;
             this.fullUpdate = fullUpdate;
             this.registryAccess = registryAccess;
+            this.deflate = fullUpdate && AEConfig.instance().isCompressTerminalUpdates();
         }
 
         public void setFilter(@Nullable AEKeyFilter filter) {
@@ -176,7 +282,8 @@ public void add(GridInventoryEntry entry) {
             // This should only error out if the entire packet exceeds about 2 megabytes of memory,
             // if any item writes that much junk to a share tag, it's acceptable to crash.
             // We'll normally flush much much earlier (32k)
-            writeEntry(data, entry);
+            writeEntry(data, entry, lastSerial);
+            lastSerial = entry.getSerial();
 
             ++entryCount;
 
@@ -188,12 +295,15 @@ public void add(GridInventoryEntry entry) {
         private void flushData() {
             if (encodedEntries != null) {
                 // Build a packet and queue it
-                var packet = new MEInventoryUpdatePacket(fullUpdate, containerId, null, entryCount, encodedEntries);
+                var deflateBatch = deflate && encodedEntries.readableBytes() >= DEFLATE_THRESHOLD;
+                var packet = new MEInventoryUpdatePacket(fullUpdate, containerId, null, entryCount, encodedEntries,
+                        deflateBatch);
                 packets.add(packet);
 
                 // Reset
                 encodedEntries = null;
                 entryCount = 0;
+                lastSerial = 0;
                 fullUpdate = false; // Only the first packet in a chain is a full update
             }
         }
@@ -224,28 +334,64 @@ public static Builder builder(int containerId, boolean fullUpdate, RegistryAcces
     }
 
     /**
-     * Writes this entry to a packet buffer for shipping it to the client.
+     * Writes this entry to a packet buffer for shipping it to the client. The key is only written the first time an
+     * entry is sent, afterwards the serial from the {@link IncrementalUpdateHelper} refers to it. Since consecutive
+     * entries usually have close serials, the serial is written relative to the one of the previous entry, and
+     * properties that are zero are omitted.
      */
-    private static void writeEntry(RegistryFriendlyByteBuf buffer, GridInventoryEntry entry) {
-        buffer.writeVarLong(entry.getSerial());
-        AEKey.writeOptionalKey(buffer, entry.getWhat());
-        buffer.writeVarLong(entry.getStoredAmount());
-        buffer.writeVarLong(entry.getRequestableAmount());
-        buffer.writeBoolean(entry.isCraftable());
+    private static void writeEntry(RegistryFriendlyByteBuf buffer, GridInventoryEntry entry, long previousSerial) {
+        var what = entry.getWhat();
+        var storedAmount = entry.getStoredAmount();
+        var requestableAmount = entry.getRequestableAmount();
+
+        int flags = 0;
+        if (what != null) {
+            flags |= FLAG_KEY;
+        }
+        if (storedAmount != 0) {
+            flags |= FLAG_STORED;
+        }
+        if (requestableAmount != 0) {
+            flags |= FLAG_REQUESTABLE;
+        }
+        if (entry.isCraftable()) {
+            flags |= FLAG_CRAFTABLE;
+        }
+
+        buffer.writeByte(flags);
+        buffer.writeVarLong(zigZagEncode(entry.getSerial() - previousSerial));
+        if (what != null) {
+            AEKey.writeKey(buffer, what);
+        }
+        if (storedAmount != 0) {
+            buffer.writeVarLong(storedAmount);
+        }
+        if (requestableAmount != 0) {
+            buffer.writeVarLong(requestableAmount);
+        }
     }
 
     /**
      * Reads an inventory entry from a packet.
      */
-    public static GridInventoryEntry readEntry(RegistryFriendlyByteBuf buffer) {
-        long serial = buffer.readVarLong();
-        AEKey what = AEKey.readOptionalKey(buffer);
-        long storedAmount = buffer.readVarLong();
-        long requestableAmount = buffer.readVarLong();
-        boolean craftable = buffer.readBoolean();
+    public static GridInventoryEntry readEntry(RegistryFriendlyByteBuf buffer, long previousSerial) {
+        int flags = buffer.readUnsignedByte();
+        long serial = previousSerial + zigZagDecode(buffer.readVarLong());
+        AEKey what = (flags & FLAG_KEY) != 0 ? AEKey.readKey(buffer) : null;
+        long storedAmount = (flags & FLAG_STORED) != 0 ? buffer.readVarLong() : 0;
+        long requestableAmount = (flags & FLAG_REQUESTABLE) != 0 ? buffer.readVarLong() : 0;
+        boolean craftable = (flags & FLAG_CRAFTABLE) != 0;
         return new GridInventoryEntry(serial, what, storedAmount, requestableAmount, craftable);
     }
 
+    private static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
     @Override
     @OnlyIn(Dist.CLIENT)
     public void handleOnClient(Player player) {
@@ -259,6 +405,7 @@ public void handleOnClient(Player player) {
 
             // In singleplayer, we're just getting the exact same instance that the builder created
             // so it has the pre-encoded data.
+            // The payload is only deflated when it is actually written to the connection.
             var actualEntries = entries;
             if (actualEntries == null && encodedEntries != null) {
                 actualEntries = decodeEntriesPayload(encodedEntryCount, encodedEntries);
@@ -274,8 +421,11 @@ public void handleOnClient(Player player) {
     private static ArrayList<GridInventoryEntry> decodeEntriesPayload(int entryCount, RegistryFriendlyByteBuf data) {
         // We need to access the current screen to know which storage channel was used to serialize this data
         var entries = new ArrayList<GridInventoryEntry>(entryCount);
+        long previousSerial = 0;
         for (int i = 0; i < entryCount; i++) {
-            entries.add(readEntry(data));
+            var entry = readEntry(data, previousSerial);
+            entries.add(entry);
+            previousSerial = entry.getSerial();
         }
         return entries;
     }
@@ -20,6 +20,8 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
@@ -36,18 +38,17 @@
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.GenericStack;
 import appeng.api.stacks.KeyCounter;
+import appeng.core.AEConfig;
 import appeng.core.AELog;
 import appeng.crafting.inv.ChildCraftingSimulationState;
 import appeng.crafting.inv.CraftingSimulationState;
 import appeng.crafting.inv.NetworkCraftingSimulationState;
-import appeng.hooks.ticking.TickHandler;
 
 public class CraftingCalculation {
     private final NetworkCraftingSimulationState networkInv;
     private final Level level;
     private final KeyCounter missing = new KeyCounter();
-    private final Object monitor = new Object();
-    private final Stopwatch watch = Stopwatch.createUnstarted();
+    private final CraftingPlanCache planCache;
     private final CraftingTreeNode tree;
     private final AEKey output;
     // The initially requested amount of "output", may be reduced depending on the strategy used
@@ -55,10 +56,16 @@ public class CraftingCalculation {
     private final CalculationStrategy strategy;
     private boolean simulate = false;
     final ICraftingSimulationRequester simRequester;
-    private boolean running = false;
-    private boolean done = false;
-    private int time = 5;
-    private int incTime = Integer.MAX_VALUE;
+    /**
+     * Set once the thread running this calculation was interrupted, so that its workers stop as well.
+     */
+    private volatile boolean cancelled = false;
+    /**
+     * The {@link System#nanoTime()} after which the calculation is cancelled, or 0 if it may run indefinitely. Set
+     * before the calculation starts, and thus before its workers are started.
+     */
+    private long deadline;
+    private final ParallelCraftingPlanner parallelPlanner = new ParallelCraftingPlanner(this);
     private final List<CraftAttempt> attempts = AELog.isCraftingLogEnabled() ? new ArrayList<>() : null;
 
     public CraftingCalculation(Level level, IGrid grid, ICraftingSimulationRequester simRequester,
@@ -72,6 +79,7 @@ public CraftingCalculation(Level level, IGrid grid, ICraftingSimulationRequester
         var storage = grid.getStorageService();
         var craftingService = grid.getCraftingService();
         this.networkInv = new NetworkCraftingSimulationState(storage, simRequester.getActionSource());
+        this.planCache = CraftingPlanCache.of(craftingService);
 
         this.tree = new CraftingTreeNode(craftingService, this, this.output, 1, null, -1);
     }
@@ -80,9 +88,17 @@ void addMissing(AEKey what, long amount) {
         missing.add(what, amount);
     }
 
+    /**
+     * Computes the plan. This runs on its own thread without synchronizing with the server: the network inventory and
+     * patterns are read from snapshots taken when the calculation was created. The plan is only checked against the
+     * actual network contents when it is submitted on the server thread.
+     */
     public ICraftingPlan run() {
         try {
-            TickHandler.instance().registerCraftingSimulation(this.level, this);
+            var timeLimit = AEConfig.instance().getCraftingCalculationTimeLimit();
+            if (timeLimit > 0) {
+                this.deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeLimit);
+            }
             this.handlePausing();
 
             var plan = computePlan();
@@ -91,8 +107,6 @@ public ICraftingPlan run() {
         } catch (Exception ex) {
             AELog.info(ex, "Exception during crafting calculation.");
             throw new RuntimeException(ex);
-        } finally {
-            this.finish();
         }
     }
 
@@ -168,41 +182,46 @@ private CraftingPlan runCraftAttempt(boolean simulate, long amount) throws Inter
         return plan;
     }
 
+    /**
+     * Called regularly while the calculation runs, to stop it once it was cancelled or ran out of time.
+     */
     void handlePausing() throws InterruptedException {
-        if (this.incTime > 100) {
-            this.incTime = 0;
-
-            synchronized (this.monitor) {
-                if (this.watch.elapsed(TimeUnit.MICROSECONDS) > this.time) {
-                    this.running = false;
-                    this.watch.stop();
-                    this.monitor.notify();
-                }
-
-                if (!this.running) {
-                    AELog.craftingDebug("crafting job will now sleep");
-
-                    while (!this.running) {
-                        this.monitor.wait();
-                    }
-
-                    AELog.craftingDebug("crafting job now active");
-                }
-            }
+        if (Thread.interrupted()) {
+            // Also stop the workers of the parallel planner, which are not interrupted themselves
+            this.cancelled = true;
+        }
+        if (this.deadline != 0 && System.nanoTime() - this.deadline > 0) {
+            this.cancelled = true;
+            throw new InterruptedException("Crafting calculation exceeded the time limit of "
+                    + AEConfig.instance().getCraftingCalculationTimeLimit() + " seconds");
+        }
+        if (this.cancelled) {
+            throw new InterruptedException("Crafting calculation was cancelled");
+        }
+    }
 
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
+    /**
+     * Waits for worker threads of the {@link ParallelCraftingPlanner} to finish.
+     */
+    void awaitWorkers(List<? extends Future<?>> futures) throws InterruptedException {
+        for (var future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Crafting planner worker failed", e);
+            } catch (InterruptedException e) {
+                this.cancelled = true;
+                throw e;
             }
         }
-        this.incTime++;
     }
 
-    private void finish() {
-        synchronized (this.monitor) {
-            this.running = false;
-            this.done = true;
-            this.monitor.notify();
-        }
+    ParallelCraftingPlanner getParallelPlanner() {
+        return parallelPlanner;
+    }
+
+    CraftingPlanCache getPlanCache() {
+        return planCache;
     }
 
     public boolean isSimulation() {
@@ -221,41 +240,6 @@ Level getLevel() {
         return this.level;
     }
 
-    /**
-     * returns true if this needs more simulation.
-     *
-     * @param micros microseconds of simulation
-     * @return true if this needs more simulation
-     */
-    public boolean simulateFor(int micros) {
-        this.time = micros;
-
-        synchronized (this.monitor) {
-            if (this.done) {
-                return false;
-            }
-
-            this.watch.reset();
-            this.watch.start();
-            this.running = true;
-
-            AELog.craftingDebug("main thread is now going to sleep");
-
-            this.monitor.notify();
-
-            while (this.running) {
-                try {
-                    this.monitor.wait();
-                } catch (InterruptedException ignored) {
-                }
-            }
-
-            AELog.craftingDebug("main thread is now active");
-        }
-
-        return true;
-    }
-
     private void logCraftingJob(ICraftingPlan plan) {
         if (AELog.isCraftingLogEnabled()) {
             ;
@@ -0,0 +1,135 @@
+package appeng.crafting;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.world.level.Level;
+
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.networking.crafting.ICraftingService;
+import appeng.api.stacks.AEKey;
+import appeng.api.storage.AEKeyFilter;
+import appeng.me.service.CraftingService;
+
+/**
+ * Caches how the nodes of a crafting tree are expanded: which stack a node actually crafts (after looking for fuzzy
+ * substitutes), whether it can be emitted, and which patterns can make it.
+ * <p/>
+ * This only depends on the patterns available in the grid, so it can be shared by all calculations in the same grid,
+ * which then only need to simulate the availability of the stacks. Each cache reads from a fixed set of patterns, and
+ * grids replace their cache as soon as their pattern set version changes, i.e. when a crafting provider was added or
+ * removed. Calculations that are still running keep using the cache they started with.
+ * <p/>
+ * Lookups can come from several calculations and threads at once.
+ */
+public final class CraftingPlanCache {
+    private final PatternLookup patterns;
+    private final Map<NodeKey, ResolvedNode> nodes = new ConcurrentHashMap<>();
+
+    public CraftingPlanCache(PatternLookup patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Returns the cache shared by all calculations of the given crafting service, or a new cache that is only used by
+     * one calculation if the service does not provide one.
+     */
+    static CraftingPlanCache of(ICraftingService craftingService) {
+        if (craftingService instanceof CraftingService service) {
+            return service.getPlanCache();
+        }
+        return new CraftingPlanCache(new PatternLookup() {
+            @Override
+            public Collection<IPatternDetails> getCraftingFor(AEKey whatToCraft) {
+                return craftingService.getCraftingFor(whatToCraft);
+            }
+
+            @Nullable
+            @Override
+            public AEKey getFuzzyCraftable(AEKey whatToCraft, AEKeyFilter filter) {
+                return craftingService.getFuzzyCraftable(whatToCraft, filter);
+            }
+
+            @Override
+            public boolean canEmitFor(AEKey what) {
+                return craftingService.canEmitFor(what);
+            }
+        });
+    }
+
+    /**
+     * Resolves a node of the crafting tree.
+     *
+     * @param what        The requested stack. For child nodes, this is the first possible input of the parent input.
+     * @param parentInput The pattern input the node is for, or null for the top-level node.
+     * @param level       The level used to check substitutes against the parent input.
+     */
+    ResolvedNode resolve(AEKey what, @Nullable IPatternDetails.IInput parentInput, Level level) {
+        // The level is only relevant when looking for substitutes
+        var key = new NodeKey(what, parentInput, parentInput != null ? level : null);
+        return nodes.computeIfAbsent(key, k -> resolveUncached(what, parentInput, level));
+    }
+
+    private ResolvedNode resolveUncached(AEKey what, @Nullable IPatternDetails.IInput parentInput, Level level) {
+        // if we can emit for something, use that.
+        if (patterns.canEmitFor(what)) {
+            return new ResolvedNode(what, true, List.of());
+        }
+
+        var crafted = findCraftedStack(what, parentInput, level);
+        return new ResolvedNode(crafted, false, List.copyOf(patterns.getCraftingFor(crafted)));
+    }
+
+    private AEKey findCraftedStack(AEKey what, @Nullable IPatternDetails.IInput parentInput, Level level) {
+        var patternsForWhat = patterns.getCraftingFor(what);
+
+        if (patternsForWhat.isEmpty() && parentInput != null) {
+            // No pattern for the exact encoded input. Try to find a pattern for a substitute ingredient. ;)
+            long acceptableAmount = parentInput.getPossibleInputs()[0].amount();
+
+            for (var possibleInput : parentInput.getPossibleInputs()) {
+                if (possibleInput.amount() != acceptableAmount) {
+                    // Skip if the amounts don't match (don't want to replace 1000 water by 1000 buckets for example).
+                    continue;
+                }
+
+                var fuzzy = patterns.getFuzzyCraftable(possibleInput.what(), fuzzyCandidate -> {
+                    return parentInput.isValid(fuzzyCandidate, level);
+                });
+
+                if (fuzzy != null) {
+                    return fuzzy;
+                }
+            }
+        }
+
+        return what;
+    }
+
+    /**
+     * @param what     The stack the node crafts.
+     * @param canEmit  True if the stack is provided by an emitter, in which case patterns are not used.
+     * @param patterns The patterns that can make the stack, before checking for recursion.
+     */
+    record ResolvedNode(AEKey what, boolean canEmit, List<IPatternDetails> patterns) {
+    }
+
+    private record NodeKey(AEKey what, @Nullable IPatternDetails.IInput parentInput, @Nullable Level level) {
+    }
+
+    /**
+     * The patterns a cache resolves nodes with. Must be safe to read from several threads at once.
+     */
+    public interface PatternLookup {
+        Collection<IPatternDetails> getCraftingFor(AEKey whatToCraft);
+
+        @Nullable
+        AEKey getFuzzyCraftable(AEKey whatToCraft, AEKeyFilter filter);
+
+        boolean canEmitFor(AEKey what);
+    }
+}
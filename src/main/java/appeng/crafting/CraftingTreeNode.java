@@ -54,6 +54,11 @@ public class CraftingTreeNode {
     // parent node.
     private final CraftingTreeProcess parent;
     private final Level level;
+    /**
+     * The crafting service of the grid, obtained on the server thread when the calculation was created. Child patterns
+     * are built on calculation threads, which must not look up the grid themselves.
+     */
+    private final ICraftingService craftingService;
     /**
      * "Template" of the item this node is making. For top-level node: the count is always 1. For child nodes: the count
      * is that of the template of the corresponding input.
@@ -64,6 +69,11 @@ public class CraftingTreeNode {
      * The patterns that can make this node. Null if they haven't been computed yet.
      */
     private ArrayList<CraftingTreeProcess> nodes = null;
+    /**
+     * The patterns in the grid that make {@link #what}, shared with other calculations through the
+     * {@link CraftingPlanCache}.
+     */
+    private final List<IPatternDetails> patterns;
     private final boolean canEmit;
 
     public CraftingTreeNode(ICraftingService cc, CraftingCalculation job, AEKey what, long amount,
@@ -71,41 +81,14 @@ public CraftingTreeNode(ICraftingService cc, CraftingCalculation job, AEKey what
         this.parent = par;
         this.parentInput = slot == -1 ? null : par.details.getInputs()[slot];
         this.level = job.getLevel();
+        this.craftingService = cc;
         this.job = job;
-        this.what = findCraftedStack(cc, what);
+        var resolved = job.getPlanCache().resolve(what, this.parentInput, this.level);
+        this.what = resolved.what();
         this.amount = amount;
 
-        this.canEmit = cc.canEmitFor(what);
-    }
-
-    private AEKey findCraftedStack(ICraftingService cc, AEKey wat) {
-        if (cc.canEmitFor(wat)) {
-            return wat; // if we can emit for something, use that.
-        }
-
-        var patterns = cc.getCraftingFor(wat);
-
-        if (patterns.isEmpty() && parentInput != null) {
-            // No pattern for the exact encoded input. Try to find a pattern for a substitute ingredient. ;)
-            long acceptableAmount = parentInput.getPossibleInputs()[0].amount();
-
-            for (var possibleInput : parentInput.getPossibleInputs()) {
-                if (possibleInput.amount() != acceptableAmount) {
-                    // Skip if the amounts don't match (don't want to replace 1000 water by 1000 buckets for example).
-                    continue;
-                }
-
-                var fuzzy = cc.getFuzzyCraftable(possibleInput.what(), fuzzyCandidate -> {
-                    return this.parentInput.isValid(fuzzyCandidate, level);
-                });
-
-                if (fuzzy != null) {
-                    return fuzzy;
-                }
-            }
-        }
-
-        return wat;
+        this.canEmit = resolved.canEmit();
+        this.patterns = resolved.patterns();
     }
 
     private void buildChildPatterns() {
@@ -116,17 +99,11 @@ private void buildChildPatterns() {
 
         if (this.nodes == null) {
             this.nodes = new ArrayList<>();
+            ParallelCraftingPlanner.recordUndo(() -> this.nodes = null);
 
-            var gridNode = this.job.simRequester.getGridNode();
-
-            // If the node is null, we just skip patterns and let the request (likely) fail.
-            if (gridNode != null) {
-                var craftingService = gridNode.getGrid().getCraftingService();
-
-                for (var details : craftingService.getCraftingFor(this.what)) {
-                    if (this.parent == null || this.parent.notRecursive(details)) {
-                        this.nodes.add(new CraftingTreeProcess(craftingService, job, details, this));
-                    }
+            for (var details : this.patterns) {
+                if (this.parent == null || this.parent.notRecursive(details)) {
+                    this.nodes.add(new CraftingTreeProcess(craftingService, job, details, this));
                 }
             }
         }
@@ -268,12 +245,12 @@ void request(CraftingSimulationState inv, long requestedAmount,
                                 return;
                             }
                         } else {
-                            pro.possible = false; // ;P
+                            pro.setPossible(false); // ;P
                         }
                     }
                 } catch (CraftBranchFailure fail) {
                     // TODO: why try again after a failure? just in case we receive the right inputs by chance?
-                    pro.possible = true;
+                    pro.setPossible(true);
                 }
             }
         }
@@ -99,6 +99,13 @@ private void updateLimitQty() {
         }
     }
 
+    void setPossible(boolean possible) {
+        if (this.possible != possible) {
+            ParallelCraftingPlanner.recordUndo(() -> this.possible = !possible);
+            this.possible = possible;
+        }
+    }
+
     boolean limitsQuantity() {
         return this.limitQty;
     }
@@ -110,8 +117,10 @@ void request(CraftingSimulationState inv, long times)
         var containerItems = this.containerItems ? new KeyCounter() : null;
 
         // request and remove inputs...
-        for (var entry : this.nodes.entrySet()) {
-            entry.getKey().request(inv, entry.getValue() * times, containerItems);
+        if (!this.job.getParallelPlanner().requestInputs(inv, this.nodes, times, containerItems)) {
+            for (var entry : this.nodes.entrySet()) {
+                entry.getKey().request(inv, entry.getValue() * times, containerItems);
+            }
         }
 
         // by now we must have succeeded, otherwise an exception would have been thrown by request() above
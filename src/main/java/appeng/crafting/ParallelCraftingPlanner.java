@@ -0,0 +1,269 @@
+package appeng.crafting;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.stacks.KeyCounter;
+import appeng.core.AEConfig;
+import appeng.crafting.inv.CraftingSimulationState;
+import appeng.crafting.inv.SpeculativeCraftingSimulationState;
+
+/**
+ * Requests the inputs of a pattern concurrently, each on its own {@link SpeculativeCraftingSimulationState}.
+ * <p/>
+ * The results are then applied to the parent state in input order. A result is only used if the input did not look up
+ * any stack that was changed by one of the inputs applied before it, otherwise the input is requested again on the
+ * updated state. This ensures that the resulting plan is the same one that requesting all inputs one after another
+ * would produce.
+ * <p/>
+ * Workers stop together with the owning {@link CraftingCalculation} if it is cancelled.
+ */
+final class ParallelCraftingPlanner {
+    private static final ExecutorService WORKER_POOL;
+
+    /**
+     * Number of workers that are currently in use, across all calculations. Bounded by
+     * {@link AEConfig#getCraftingCalculationThreads()}. Since the pool creates a thread for each task that can't be
+     * run on an idle thread, every task starts right away, and waiting for tasks can never deadlock.
+     */
+    private static final AtomicInteger USED_WORKERS = new AtomicInteger();
+
+    /**
+     * Records how to undo the changes to the crafting tree made by the current thread. Only set while a speculative
+     * request is running.
+     */
+    private static final ThreadLocal<UndoLog> CURRENT_UNDO_LOG = new ThreadLocal<>();
+
+    static {
+        var threadCount = new AtomicInteger();
+        final ThreadFactory factory = ar -> {
+            final Thread worker = new Thread(ar, "AE Crafting Planner #" + threadCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        };
+
+        WORKER_POOL = Executors.newCachedThreadPool(factory);
+    }
+
+    private final CraftingCalculation job;
+
+    ParallelCraftingPlanner(CraftingCalculation job) {
+        this.job = job;
+    }
+
+    /**
+     * Records how to undo a change to the crafting tree, in case it was made by a speculative request whose result is
+     * discarded.
+     */
+    static void recordUndo(Runnable undo) {
+        var undoLog = CURRENT_UNDO_LOG.get();
+        if (undoLog != null) {
+            undoLog.actions.add(undo);
+        }
+    }
+
+    /**
+     * Requests the given inputs of a pattern, as {@link CraftingTreeProcess#request} would.
+     *
+     * @return False if no workers were available, in which case nothing was requested.
+     */
+    boolean requestInputs(CraftingSimulationState inv, Map<CraftingTreeNode, Long> inputs, long times,
+            @Nullable KeyCounter containerItems) throws CraftBranchFailure, InterruptedException {
+        // Simulations record missing items in the calculation itself, and are not worth optimizing
+        if (inputs.size() < 2 || job.isSimulation()) {
+            return false;
+        }
+
+        var workers = acquireWorkers(inputs.size() - 1);
+        if (workers == 0) {
+            return false;
+        }
+
+        var requests = new ArrayList<InputRequest>(inputs.size());
+        for (var entry : inputs.entrySet()) {
+            requests.add(new InputRequest(entry.getKey(), entry.getValue() * times, inv, containerItems != null));
+        }
+
+        // The first input is requested by this thread, the next ones by the workers, and the rest by this thread again.
+        var futures = new ArrayList<Future<?>>(workers);
+        try {
+            for (int i = 1; i <= workers; i++) {
+                var request = requests.get(i);
+                futures.add(WORKER_POOL.submit(() -> runOnWorker(request)));
+            }
+        } catch (RuntimeException e) {
+            USED_WORKERS.addAndGet(futures.size() - workers);
+            throw e;
+        }
+
+        requests.get(0).run();
+        for (int i = workers + 1; i < requests.size(); i++) {
+            requests.get(i).run();
+        }
+
+        job.awaitWorkers(futures);
+
+        applyResults(inv, requests, containerItems);
+        return true;
+    }
+
+    private static int acquireWorkers(int wanted) {
+        var max = AEConfig.instance().getCraftingCalculationThreads();
+        while (true) {
+            var used = USED_WORKERS.get();
+            var acquired = Math.min(wanted, max - used);
+            if (acquired <= 0) {
+                return 0;
+            }
+            if (USED_WORKERS.compareAndSet(used, used + acquired)) {
+                return acquired;
+            }
+        }
+    }
+
+    private void runOnWorker(InputRequest request) {
+        try {
+            request.run();
+        } catch (InterruptedException e) {
+            request.error = e;
+        } finally {
+            USED_WORKERS.decrementAndGet();
+        }
+    }
+
+    private void applyResults(CraftingSimulationState inv, List<InputRequest> requests,
+            @Nullable KeyCounter containerItems) throws CraftBranchFailure, InterruptedException {
+        var modifiedPrimaryKeys = new HashSet<Object>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+
+            if (request.error != null) {
+                throw rethrow(request.error);
+            }
+
+            if (request.state.hasReadAny(modifiedPrimaryKeys)) {
+                // The result might be different when taking the changes of the previous inputs into account
+                request.undoLog.revert();
+                try {
+                    request.rerun(inv);
+                } catch (CraftBranchFailure failure) {
+                    revertFollowing(requests, i);
+                    throw failure;
+                }
+            } else if (request.failure != null) {
+                // Requesting the inputs one after another would have stopped at this input
+                revertFollowing(requests, i);
+                request.undoLog.keep();
+                throw request.failure;
+            } else {
+                request.undoLog.keep();
+            }
+
+            request.state.applyDiff(inv);
+            request.state.collectModifiedPrimaryKeys(modifiedPrimaryKeys);
+            if (containerItems != null) {
+                containerItems.addAll(request.containerItems);
+            }
+        }
+    }
+
+    private static void revertFollowing(List<InputRequest> requests, int index) {
+        for (int j = requests.size() - 1; j > index; j--) {
+            requests.get(j).undoLog.revert();
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable error) throws InterruptedException {
+        if (error instanceof InterruptedException interruptedException) {
+            throw interruptedException;
+        } else if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (error instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException(error);
+    }
+
+    /**
+     * Request for a single input of a pattern, on its own simulation state.
+     */
+    private static class InputRequest {
+        private final CraftingTreeNode node;
+        private final long amount;
+        private SpeculativeCraftingSimulationState state;
+        private final UndoLog undoLog = new UndoLog();
+        @Nullable
+        private KeyCounter containerItems;
+        @Nullable
+        private CraftBranchFailure failure;
+        @Nullable
+        private Throwable error;
+
+        InputRequest(CraftingTreeNode node, long amount, CraftingSimulationState parent, boolean containerItems) {
+            this.node = node;
+            this.amount = amount;
+            this.state = new SpeculativeCraftingSimulationState(parent);
+            this.containerItems = containerItems ? new KeyCounter() : null;
+        }
+
+        void run() {
+            var previousUndoLog = CURRENT_UNDO_LOG.get();
+            CURRENT_UNDO_LOG.set(undoLog);
+            try {
+                node.request(state, amount, containerItems);
+            } catch (CraftBranchFailure e) {
+                failure = e;
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                CURRENT_UNDO_LOG.set(previousUndoLog);
+            }
+        }
+
+        /**
+         * Requests the input again on the current parent state, without speculation.
+         */
+        void rerun(CraftingSimulationState parent) throws CraftBranchFailure, InterruptedException {
+            state = new SpeculativeCraftingSimulationState(parent);
+            if (containerItems != null) {
+                containerItems = new KeyCounter();
+            }
+            node.request(state, amount, containerItems);
+        }
+    }
+
+    /**
+     * Undo actions for changes made to the crafting tree, in the order they were made.
+     */
+    private static class UndoLog {
+        private final List<Runnable> actions = new ArrayList<>();
+
+        void revert() {
+            for (int i = actions.size() - 1; i >= 0; i--) {
+                actions.get(i).run();
+            }
+            actions.clear();
+        }
+
+        /**
+         * Keeps the changes, but still allows them to be undone if the enclosing speculative request is discarded.
+         */
+        void keep() {
+            var outer = CURRENT_UNDO_LOG.get();
+            if (outer != null) {
+                outer.actions.addAll(actions);
+            }
+            actions.clear();
+        }
+    }
+}
@@ -103,6 +103,19 @@ public static KeyCounter[] extractPatternInputs(
             ICraftingInventory sourceInv,
             Level level,
             KeyCounter expectedOutputs) {
+        return extractPatternInputs(details, sourceInv, level, expectedOutputs, 1);
+    }
+
+    /**
+     * Extracts the inputs of several copies of a pattern at once, combined for each input slot.
+     */
+    @Nullable
+    public static KeyCounter[] extractPatternInputs(
+            IPatternDetails details,
+            ICraftingInventory sourceInv,
+            Level level,
+            KeyCounter expectedOutputs,
+            long copies) {
 
         // Extract inputs into the container.
         var inputs = details.getInputs();
@@ -112,7 +125,7 @@ public static KeyCounter[] extractPatternInputs(
 
         for (int x = 0; x < inputs.length; x++) {
             var list = inputHolder[x] = new KeyCounter();
-            long remainingMultiplier = inputs[x].getMultiplier();
+            long remainingMultiplier = inputs[x].getMultiplier() * copies;
             for (var template : getValidItemTemplates(sourceInv, inputs[x], level)) {
                 long extracted = extractTemplates(sourceInv, template, remainingMultiplier);
                 list.add(template.key(), extracted * template.amount());
@@ -143,7 +156,7 @@ public static KeyCounter[] extractPatternInputs(
 
         // Add pattern outputs.
         for (var output : details.getOutputs()) {
-            expectedOutputs.add(output.what(), output.amount());
+            expectedOutputs.add(output.what(), output.amount() * copies);
         }
 
         return inputHolder;
@@ -33,6 +33,7 @@
 
 import appeng.api.config.Actionable;
 import appeng.api.config.PowerMultiplier;
+import appeng.api.crafting.IPatternDetails;
 import appeng.api.features.IPlayerRegistry;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.crafting.ICraftingLink;
@@ -51,6 +52,8 @@
 import appeng.crafting.inv.ListCraftingInventory;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.me.service.CraftingService;
+import appeng.me.service.TelemetryService;
+import appeng.me.service.helpers.WaitingForIndex;
 
 /**
  * Stores the crafting logic of a crafting CPU.
@@ -74,6 +77,11 @@ public class CraftingCpuLogic {
      * True if the CPU is currently trying to clear its inventory but is not able to.
      */
     private boolean cantStoreItems = false;
+    /**
+     * Index of the grid this CPU is part of, which is told about every key this CPU starts or stops waiting for.
+     */
+    @Nullable
+    private WaitingForIndex waitingForIndex;
 
     public CraftingCpuLogic(CraftingCPUCluster cluster) {
         this.cluster = cluster;
@@ -105,7 +113,8 @@ public ICraftingSubmitResult trySubmitJob(IGrid grid, ICraftingPlan plan, IActio
                 .orElse(null);
         var craftId = UUID.randomUUID();
         var linkCpu = new CraftingLink(CraftingCpuHelper.generateLinkData(craftId, requester == null, false), cluster);
-        this.job = new ExecutingCraftingJob(plan, this::postChange, linkCpu, playerId);
+        this.job = new ExecutingCraftingJob(plan, this::onWaitingForChange, linkCpu, playerId);
+        updateWaitingForIndex(true);
         cluster.updateOutput(plan.finalOutput());
         cluster.markDirty();
 
@@ -163,6 +172,11 @@ public void tickCraftingLogic(IEnergyService eg, CraftingService cc) {
         this.usedOps[2] = this.usedOps[1];
         this.usedOps[1] = this.usedOps[0];
         this.usedOps[0] = started - remainingOperations;
+
+        var grid = cluster.getGrid();
+        if (grid != null && this.usedOps[0] > 0) {
+            grid.getService(TelemetryService.class).record(TelemetryService.Metric.CRAFTING_PUSHES, this.usedOps[0]);
+        }
     }
 
     /**
@@ -177,6 +191,7 @@ public int executeCrafting(int maxPatterns, CraftingService craftingService, IEn
             return 0;
 
         var pushedPatterns = 0;
+        var expectedOutputs = new KeyCounter();
 
         var it = job.tasks.entrySet().iterator();
         taskLoop: while (it.hasNext()) {
@@ -187,28 +202,34 @@ public int executeCrafting(int maxPatterns, CraftingService craftingService, IEn
             }
 
             var details = task.getKey();
-            var expectedOutputs = new KeyCounter();
-            // Contains the inputs for the pattern.
+            // Contains the inputs for the pattern, which are kept for the next provider if a push fails.
             @Nullable
-            var craftingContainer = CraftingCpuHelper.extractPatternInputs(
-                    details, inventory, level, expectedOutputs);
+            PatternInputs inputs = null;
 
             // Try to push to each provider.
             for (var provider : craftingService.getProviders(details)) {
-                if (craftingContainer == null)
-                    break;
                 if (provider.isBusy())
                     continue;
 
-                var patternPower = CraftingCpuHelper.calculatePatternPower(craftingContainer);
-
-                if (energyService.extractAEPower(patternPower, Actionable.SIMULATE,
-                        PowerMultiplier.CONFIG) < patternPower - 0.01)
-                    break;
+                // Providers that accept batches get the inputs for as many copies as possible at once.
+                var maxCopies = (int) Math.min(task.getValue().value,
+                        Math.min(Math.max(1, provider.getMaxPatternBatchSize(details)), maxPatterns - pushedPatterns));
+                if (inputs != null && inputs.copies() > maxCopies) {
+                    CraftingCpuHelper.reinjectPatternInputs(inventory, inputs.container());
+                    inputs = null;
+                }
+                if (inputs == null) {
+                    inputs = extractPatternInputs(details, maxCopies, energyService, level, expectedOutputs);
+                    if (inputs == null)
+                        break;
+                }
 
-                if (provider.pushPattern(details, craftingContainer)) {
-                    energyService.extractAEPower(patternPower, Actionable.MODULATE, PowerMultiplier.CONFIG);
-                    pushedPatterns++;
+                var pushed = inputs.copies() > 1
+                        ? provider.pushPatterns(details, inputs.container(), inputs.copies())
+                        : provider.pushPattern(details, inputs.container());
+                if (pushed) {
+                    energyService.extractAEPower(inputs.power(), Actionable.MODULATE, PowerMultiplier.CONFIG);
+                    pushedPatterns += inputs.copies();
 
                     for (var expectedOutput : expectedOutputs) {
                         job.waitingFor.insert(expectedOutput.getKey(), expectedOutput.getLongValue(),
@@ -217,32 +238,61 @@ public int executeCrafting(int maxPatterns, CraftingService craftingService, IEn
 
                     cluster.markDirty();
 
-                    task.getValue().value--;
+                    task.getValue().value -= inputs.copies();
+                    inputs = null;
                     if (task.getValue().value <= 0) {
                         it.remove();
                         continue taskLoop;
                     }
 
-                    if (pushedPatterns == maxPatterns) {
+                    if (pushedPatterns >= maxPatterns) {
                         break taskLoop;
                     }
-
-                    // Prepare next inputs.
-                    expectedOutputs.reset();
-                    craftingContainer = CraftingCpuHelper.extractPatternInputs(details, inventory,
-                            level, expectedOutputs);
                 }
             }
 
             // Failed to push this pattern, reinject the inputs.
-            if (craftingContainer != null) {
-                CraftingCpuHelper.reinjectPatternInputs(inventory, craftingContainer);
+            if (inputs != null) {
+                CraftingCpuHelper.reinjectPatternInputs(inventory, inputs.container());
             }
         }
 
         return pushedPatterns;
     }
 
+    /**
+     * Extracts the inputs for as many copies of a pattern as possible in one pass, up to the given maximum. The number
+     * of copies is halved until both the inputs and the power to push them are available.
+     *
+     * @param expectedOutputs Receives the outputs expected from pushing the extracted copies.
+     * @return Null if not even a single copy can be pushed.
+     */
+    @Nullable
+    private PatternInputs extractPatternInputs(IPatternDetails details, int maxCopies, IEnergyService energyService,
+            Level level, KeyCounter expectedOutputs) {
+        for (var copies = maxCopies; copies >= 1; copies /= 2) {
+            expectedOutputs.clear();
+            var container = CraftingCpuHelper.extractPatternInputs(details, inventory, level, expectedOutputs,
+                    copies);
+            if (container == null)
+                continue;
+
+            var patternPower = CraftingCpuHelper.calculatePatternPower(container);
+            if (energyService.extractAEPower(patternPower, Actionable.SIMULATE,
+                    PowerMultiplier.CONFIG) >= patternPower - 0.01) {
+                return new PatternInputs(container, copies, patternPower);
+            }
+            CraftingCpuHelper.reinjectPatternInputs(inventory, container);
+        }
+        return null;
+    }
+
+    /**
+     * The inputs of one or more copies of a pattern, extracted from the CPU inventory.
+     */
+    private record PatternInputs(KeyCounter[] container, int copies, double power) {
+    }
+
     /**
      * Called by the CraftingService with an Integer.MAX_VALUE priority to inject items that are being waited for.
      *
@@ -321,7 +371,7 @@ private void finishJob(boolean success) {
 
         // TODO: log
 
-        // Clear waitingFor list and post all the relevant changes.
+        // Clear waitingFor list and post all the relevant changes. This also removes this CPU from the index.
         job.waitingFor.clear();
         // Notify opened menus of cancelled scheduled tasks.
         for (var entry : job.tasks.entrySet()) {
@@ -382,6 +432,42 @@ public void storeItems() {
         cluster.markDirty();
     }
 
+    private void onWaitingForChange(AEKey what) {
+        postChange(what);
+
+        // Changes made while the job is being created are indexed once it is set
+        var job = this.job;
+        if (waitingForIndex != null && job != null) {
+            waitingForIndex.setWaiting(this, what, job.waitingFor.list.get(what) > 0);
+        }
+    }
+
+    /**
+     * Sets the index that should track which keys this CPU is waiting for, and moves the current entries of this CPU
+     * from the previous index.
+     */
+    public void setWaitingForIndex(@Nullable WaitingForIndex index) {
+        if (waitingForIndex == index) {
+            return;
+        }
+        updateWaitingForIndex(false);
+        waitingForIndex = index;
+        updateWaitingForIndex(true);
+    }
+
+    @Nullable
+    public WaitingForIndex getWaitingForIndex() {
+        return waitingForIndex;
+    }
+
+    private void updateWaitingForIndex(boolean waiting) {
+        if (waitingForIndex != null && job != null) {
+            for (var entry : job.waitingFor.list) {
+                waitingForIndex.setWaiting(this, entry.getKey(), waiting);
+            }
+        }
+    }
+
     private void postChange(AEKey what) {
         for (var listener : listeners) {
             listener.accept(what);
@@ -408,7 +494,9 @@ public ElapsedTimeTracker getElapsedTimeTracker() {
     public void readFromNBT(CompoundTag data, HolderLookup.Provider registries) {
         this.inventory.readFromNBT(data.getList("inventory", 10), registries);
         if (data.contains("job")) {
-            this.job = new ExecutingCraftingJob(data.getCompound("job"), registries, this::postChange, this);
+            updateWaitingForIndex(false);
+            this.job = new ExecutingCraftingJob(data.getCompound("job"), registries, this::onWaitingForChange, this);
+            updateWaitingForIndex(true);
             if (this.job.finalOutput == null) {
                 finishJob(false);
             } else {
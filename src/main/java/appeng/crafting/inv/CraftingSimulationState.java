@@ -21,6 +21,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Iterables;
 
@@ -72,7 +73,7 @@ protected CraftingSimulationState() {
     protected abstract Iterable<AEKey> findFuzzyParent(AEKey input);
 
     private void cacheFuzzy(AEKey what) {
-        if (unmodifiedCache.findFuzzy(what, FuzzyMode.IGNORE_ALL).isEmpty()) {
+        if (!unmodifiedCache.containsFuzzy(what, FuzzyMode.IGNORE_ALL)) {
             boolean insertedAny = false;
 
             for (var keyToCache : findFuzzyParent(what)) {
@@ -156,6 +157,17 @@ public void ignore(AEKey stack) {
         modifiableCache.set(stack, 0);
     }
 
+    /**
+     * Adds the primary keys of all stacks whose amount this state changed, compared to its parent, to the given set.
+     */
+    public void collectModifiedPrimaryKeys(Set<Object> out) {
+        for (var entry : modifiableCache) {
+            if (entry.getLongValue() != unmodifiedCache.get(entry.getKey())) {
+                out.add(entry.getKey().getPrimaryKey());
+            }
+        }
+    }
+
     public void applyDiff(CraftingSimulationState parent) {
         // It's important to apply this here to ensure that the extract below doesn't make us count some stacks twice.
         for (var entry : requiredExtract) {
@@ -31,21 +31,34 @@
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.KeyCounter;
 import appeng.core.AEConfig;
+import appeng.me.service.StorageService;
+import appeng.me.storage.InventorySnapshot;
 
 /**
- * Currently, extracts the whole network contents when the job starts. Lazily extracting is unfortunately not possible
- * as long as the crafting simulation operates from a separate thread: any world access from this thread will deadlock
- * the server.
+ * Provides the network contents at the time the job starts. Lazily extracting is unfortunately not possible as long as
+ * the crafting simulation operates from a separate thread: any world access from this thread will deadlock the server.
+ * <p/>
+ * Unless extraction has to be simulated for every stack, this reads from an immutable snapshot of the grid's inventory
+ * instead of copying it.
  */
 public class NetworkCraftingSimulationState extends CraftingSimulationState {
+    @Nullable
+    private final InventorySnapshot snapshot;
     private final KeyCounter list = new KeyCounter();
 
     public NetworkCraftingSimulationState(IStorageService storage, @Nullable IActionSource src) {
         // Take care of the edge case where ICraftingSimulationRequester#getActionSource() returns null.
         if (src == null) {
+            this.snapshot = InventorySnapshot.EMPTY;
             return;
         }
 
+        if (!AEConfig.instance().isCraftingSimulatedExtraction() && storage instanceof StorageService storageService) {
+            this.snapshot = storageService.getInventorySnapshot();
+            return;
+        }
+
+        this.snapshot = null;
         for (var stack : storage.getCachedInventory()) {
             long networkAmount = AEConfig.instance().isCraftingSimulatedExtraction()
                     ? storage.getInventory().extract(stack.getKey(), stack.getLongValue(), Actionable.SIMULATE, src)
@@ -58,11 +71,15 @@ public NetworkCraftingSimulationState(IStorageService storage, @Nullable IAction
 
     @Override
     protected long simulateExtractParent(AEKey what, long amount) {
-        return Math.min(list.get(what), amount);
+        var available = snapshot != null ? snapshot.get(what) : list.get(what);
+        return Math.min(available, amount);
     }
 
     @Override
     protected Iterable<AEKey> findFuzzyParent(AEKey input) {
-        return Iterables.transform(list.findFuzzy(input, FuzzyMode.IGNORE_ALL), Map.Entry::getKey);
+        var matches = snapshot != null
+                ? snapshot.findFuzzy(input, FuzzyMode.IGNORE_ALL)
+                : list.findFuzzy(input, FuzzyMode.IGNORE_ALL);
+        return Iterables.transform(matches, Map.Entry::getKey);
     }
 }
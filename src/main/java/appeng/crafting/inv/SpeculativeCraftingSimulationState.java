@@ -0,0 +1,53 @@
+package appeng.crafting.inv;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+
+import appeng.api.stacks.AEKey;
+
+/**
+ * A child simulation state that is used to run part of a crafting calculation concurrently with its siblings, which
+ * share the same parent. Access to the parent is synchronized, and the primary keys of all stacks that were looked up
+ * in the parent are recorded. This allows the result to be validated against the changes made by the siblings once
+ * they are applied to the parent.
+ */
+public class SpeculativeCraftingSimulationState extends ChildCraftingSimulationState {
+    private final Object parentLock;
+    private final Set<Object> readPrimaryKeys = new HashSet<>();
+
+    public SpeculativeCraftingSimulationState(ICraftingInventory parent) {
+        super(parent);
+        this.parentLock = parent;
+    }
+
+    @Override
+    protected long simulateExtractParent(AEKey what, long amount) {
+        readPrimaryKeys.add(what.getPrimaryKey());
+        synchronized (parentLock) {
+            return super.simulateExtractParent(what, amount);
+        }
+    }
+
+    @Override
+    protected Iterable<AEKey> findFuzzyParent(AEKey input) {
+        readPrimaryKeys.add(input.getPrimaryKey());
+        synchronized (parentLock) {
+            // Siblings may cause the parent to cache more stacks once we release the lock, so we need a copy.
+            return Lists.newArrayList(super.findFuzzyParent(input));
+        }
+    }
+
+    /**
+     * @return True if any stack with one of the given primary keys was looked up in the parent.
+     */
+    public boolean hasReadAny(Set<Object> primaryKeys) {
+        for (var primaryKey : readPrimaryKeys) {
+            if (primaryKeys.contains(primaryKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -21,10 +21,11 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Stream;
 
 import com.google.common.base.Preconditions;
@@ -75,10 +76,10 @@ public class AECraftingPattern implements IPatternDetails, IMolecularAssemblerSu
     private final List<GenericStack> outputsArray;
     private final CraftingInput.Positioned positionedPattern;
     /**
-     * We cache results of isValid(...) calls for stacks that don't have NBT.
+     * We cache results of isValid(...) calls for stacks that don't have NBT. Crafting calculations call isValid from
+     * several threads at once, so the per-slot maps are concurrent and created atomically.
      */
-    @SuppressWarnings("unchecked")
-    private final Map<Item, Boolean>[] isValidCache = new Map[9];
+    private final AtomicReferenceArray<Map<Item, Boolean>> isValidCache = new AtomicReferenceArray<>(9);
 
     public AECraftingPattern(AEItemKey definition, Level level) {
         this.definition = definition;
@@ -307,7 +308,7 @@ private Boolean getTestResult(int slot, AEItemKey what) {
         if (what == null || what.hasComponents()) {
             return null;
         }
-        var cache = isValidCache[slot];
+        var cache = isValidCache.get(slot);
         if (cache == null) {
             return null;
         } else {
@@ -317,9 +318,10 @@ private Boolean getTestResult(int slot, AEItemKey what) {
 
     private void setTestResult(int slot, AEItemKey what, boolean result) {
         if (what != null && !what.hasComponents()) {
-            var cache = isValidCache[slot];
+            var cache = isValidCache.get(slot);
             if (cache == null) {
-                cache = isValidCache[slot] = new IdentityHashMap<>();
+                isValidCache.compareAndSet(slot, null, new ConcurrentHashMap<>());
+                cache = isValidCache.get(slot);
             }
             cache.put(what.getItem(), result);
         }
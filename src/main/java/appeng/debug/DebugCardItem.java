@@ -132,6 +132,8 @@ public InteractionResult onItemUseFirst(ItemStack stack, UseOnContext context) {
                 this.outputSecondaryMessage(player, "Grid Pivot Node", String.valueOf(center));
 
                 var tmc = (TickManagerService) g.getTickManager();
+                this.outputSecondaryMessage(player, "Tick Budget Overruns",
+                        tmc.getOverrunTicks() + " ticks, " + tmc.getDeferredNodeTicks() + " deferred node ticks");
                 for (var c : g.getMachineClasses()) {
                     int o = 0;
                     long totalAverageTime = 0;
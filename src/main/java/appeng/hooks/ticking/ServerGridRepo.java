@@ -21,7 +21,9 @@
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 
@@ -31,7 +33,10 @@
  * A class to hold data related to ticking networks.
  */
 class ServerGridRepo {
-    private final ObjectSet<Grid> networks = new ObjectOpenHashSet<>();
+    /**
+     * In the order the networks are ticked in.
+     */
+    private final ObjectLinkedOpenHashSet<Grid> networks = new ObjectLinkedOpenHashSet<>();
     private final ObjectSet<Grid> toAdd = new ObjectOpenHashSet<>();
     private final ObjectSet<Grid> toRemove = new ObjectOpenHashSet<>();
 
@@ -85,6 +90,33 @@ synchronized void updateNetworks() {
         this.toAdd.clear();
     }
 
+    /**
+     * If any network had to defer ticks, moves all networks up to and including the last network that ticked to the
+     * end, so that the networks that got no tick time are ticked first from now on. Networks that used up the budget
+     * thus move behind the ones they starved, and every network eventually ticks first.
+     *
+     * @param deferred Whether the network had to defer ticks in the current tick.
+     * @param ticked   Whether the network ticked any node in the current tick.
+     */
+    synchronized void rotatePastLastTicked(Predicate<Grid> deferred, Predicate<Grid> ticked) {
+        var anyDeferred = false;
+        Grid lastTicked = null;
+        for (var grid : this.networks) {
+            anyDeferred |= deferred.test(grid);
+            if (ticked.test(grid)) {
+                lastTicked = grid;
+            }
+        }
+
+        if (anyDeferred && lastTicked != null) {
+            Grid moved;
+            do {
+                moved = this.networks.first();
+                this.networks.addAndMoveToLast(moved);
+            } while (moved != lastTicked);
+        }
+    }
+
     /**
      * Get all registered {@link Grid}s
      */
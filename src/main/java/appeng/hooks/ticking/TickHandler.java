@@ -20,9 +20,7 @@
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -33,8 +31,6 @@
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.Multimap;
 
 import net.minecraft.CrashReport;
 import net.minecraft.ReportedException;
@@ -52,11 +48,11 @@
 import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
 import appeng.blockentity.AEBaseBlockEntity;
-import appeng.core.AEConfig;
 import appeng.core.AELog;
-import appeng.crafting.CraftingCalculation;
 import appeng.me.Grid;
 import appeng.me.GridNode;
+import appeng.me.service.TickManagerService;
+import appeng.spatial.SpatialStorageHelper;
 import appeng.util.ILevelRunnable;
 import appeng.util.Platform;
 
@@ -69,7 +65,6 @@ public class TickHandler {
 
     private static final TickHandler INSTANCE = new TickHandler();
     private final Queue<ILevelRunnable> serverQueue = new ArrayDeque<>();
-    private final Multimap<LevelAccessor, CraftingCalculation> craftingJobs = LinkedListMultimap.create();
     private final Map<LevelAccessor, Queue<ILevelRunnable>> callQueue = new HashMap<>();
     private final ServerBlockEntityRepo blockEntities = new ServerBlockEntityRepo();
     private final ServerGridRepo grids = new ServerGridRepo();
@@ -259,7 +254,6 @@ private void onServerLevelTickEnd(LevelTickEvent.Post event) {
         if (!(event.getLevel() instanceof ServerLevel level)) {
             return;
         }
-        this.simulateCraftingJobs(level);
         this.readyBlockEntities(level);
 
         // tick networks
@@ -280,6 +274,7 @@ private void onServerTickStart(ServerTickEvent.Pre event) {
         this.processQueueElementsProcessed = 0;
         this.processQueueElementsRemaining = 0;
         this.stopWatch.reset();
+        TickManagerService.resetGlobalTickBudget();
 
         // tick networks
         for (var g : this.grids.getNetworks()) {
@@ -305,6 +300,14 @@ private void onServerTickEnd(ServerTickEvent.Post event) {
             }
         }
 
+        // When the tick budget ran out, the grids that didn't get to tick are ticked first on the next tick
+        this.grids.rotatePastLastTicked(
+                g -> g.getTickManager() instanceof TickManagerService tickManager && tickManager.hasDeferredThisTick(),
+                g -> g.getTickManager() instanceof TickManagerService tickManager && tickManager.hasTickedThisTick());
+
+        // spatial transfers may span two levels, so they are continued along with the cross level queue
+        SpatialStorageHelper.getInstance().tickTransfers();
+
         // cross level queue.
         processQueueElementsRemaining += this.processQueue(this.serverQueue, null);
 
@@ -317,38 +320,6 @@ private void onServerTickEnd(ServerTickEvent.Post event) {
         tickCounter++;
     }
 
-    public void registerCraftingSimulation(Level level, CraftingCalculation craftingCalculation) {
-        Preconditions.checkArgument(!level.isClientSide, "Trying to register a crafting job for a client-level");
-
-        synchronized (this.craftingJobs) {
-            this.craftingJobs.put(level, craftingCalculation);
-        }
-    }
-
-    /**
-     * Simulates the current crafting requests before they user can submit them to be processed.
-     */
-    private void simulateCraftingJobs(LevelAccessor level) {
-        synchronized (this.craftingJobs) {
-            final Collection<CraftingCalculation> jobSet = this.craftingJobs.get(level);
-
-            if (!jobSet.isEmpty()) {
-                final int jobSize = jobSet.size();
-                final int microSecondsPerTick = AEConfig.instance().getCraftingCalculationTimePerTick() * 1000;
-                final int simTime = Math.max(1, microSecondsPerTick / jobSize);
-
-                final Iterator<CraftingCalculation> i = jobSet.iterator();
-
-                while (i.hasNext()) {
-                    final CraftingCalculation cj = i.next();
-                    if (!cj.simulateFor(simTime)) {
-                        i.remove();
-                    }
-                }
-            }
-        }
-    }
-
     /**
      * Ready the block entities in this level. server-side only.
      */
@@ -32,13 +32,17 @@
 import appeng.me.service.SpatialPylonService;
 import appeng.me.service.StatisticsService;
 import appeng.me.service.StorageService;
+import appeng.me.service.TelemetryService;
 import appeng.me.service.TickManagerService;
+import appeng.me.service.WirelessService;
 
 public final class InitGridServices {
     private InitGridServices() {
     }
 
     public static void init() {
+        // Registered first, so that other services can report to it, and it starts each tick before them
+        GridServices.register(TelemetryService.class, TelemetryService.class);
         GridServices.register(ITickManager.class, TickManagerService.class);
         GridServices.register(IPathingService.class, PathingService.class);
         GridServices.register(IEnergyService.class, EnergyService.class);
@@ -47,5 +51,6 @@ public static void init() {
         GridServices.register(ISpatialService.class, SpatialPylonService.class);
         GridServices.register(ICraftingService.class, CraftingService.class);
         GridServices.register(StatisticsService.class, StatisticsService.class);
+        GridServices.register(WirelessService.class, WirelessService.class);
     }
 }
@@ -31,6 +31,7 @@
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.TooltipFlag;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 
@@ -120,6 +121,14 @@ public boolean doSpatialTransition(ItemStack is, ServerLevel level, BlockPos min
 
         final BlockPos targetSize = new BlockPos(targetX, targetY, targetZ);
 
+        var helper = SpatialStorageHelper.getInstance();
+        // Running transfers must not overlap any part of the regions that are swapped
+        var region = BoundingBox.fromCorners(min.offset(1, 1, 1), max.offset(-1, -1, -1));
+        if (helper.getTransfer(level, region) != null) {
+            AELog.info("Failing spatial transition because the transfer area is still being swapped.");
+            return false;
+        }
+
         SpatialStoragePlotManager manager = SpatialStoragePlotManager.INSTANCE;
 
         SpatialStoragePlot plot = SpatialStoragePlotManager.INSTANCE.getPlot(this.getAllocatedPlotId(is));
@@ -131,6 +140,12 @@ public boolean doSpatialTransition(ItemStack is, ServerLevel level, BlockPos min
                         targetX, targetY, targetZ, plot.getSize());
                 return false;
             }
+            var plotRegion = BoundingBox.fromCorners(plot.getOrigin(),
+                    plot.getOrigin().offset(plot.getSize()).offset(-1, -1, -1));
+            if (helper.getTransfer(manager.getLevel(), plotRegion) != null) {
+                AELog.info("Failing spatial transition because the spatial storage plot is still being swapped.");
+                return false;
+            }
         } else {
             // Otherwise allocate a new one
             plot = manager.allocatePlot(targetSize, playerId);
@@ -146,7 +161,7 @@ public boolean doSpatialTransition(ItemStack is, ServerLevel level, BlockPos min
             BlockPos offset = plot.getOrigin();
 
             this.setStoredDimension(is, plot.getId(), plot.getSize());
-            SpatialStorageHelper.getInstance().swapRegions(level, min.getX() + 1, min.getY() + 1, min.getZ() + 1,
+            helper.swapRegions(level, min.getX() + 1, min.getY() + 1, min.getZ() + 1,
                     cellLevel,
                     offset.getX(), offset.getY(), offset.getZ(), targetX - 1, targetY - 1, targetZ - 1);
 
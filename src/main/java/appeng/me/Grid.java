@@ -59,6 +59,7 @@
 import appeng.core.AELog;
 import appeng.hooks.ticking.TickHandler;
 import appeng.me.service.P2PService;
+import appeng.me.service.TelemetryService;
 import appeng.parts.AEBasePart;
 import appeng.util.IDebugExportable;
 import appeng.util.JsonStreamUtil;
@@ -224,8 +225,13 @@ public void onServerStartTick() {
             return;
         }
 
+        var telemetry = getRecordingTelemetry();
         for (var gc : this.services.values()) {
+            var startTime = telemetry != null ? System.nanoTime() : 0;
             gc.onServerStartTick();
+            if (telemetry != null) {
+                telemetry.recordServiceTime(gc, System.nanoTime() - startTime);
+            }
         }
     }
 
@@ -234,8 +240,13 @@ public void onLevelStartTick(Level level) {
             return;
         }
 
+        var telemetry = getRecordingTelemetry();
         for (var gc : this.services.values()) {
+            var startTime = telemetry != null ? System.nanoTime() : 0;
             gc.onLevelStartTick(level);
+            if (telemetry != null) {
+                telemetry.recordServiceTime(gc, System.nanoTime() - startTime);
+            }
         }
     }
 
@@ -244,8 +255,13 @@ public void onLevelEndTick(Level level) {
             return;
         }
 
+        var telemetry = getRecordingTelemetry();
         for (var gc : this.services.values()) {
+            var startTime = telemetry != null ? System.nanoTime() : 0;
             gc.onLevelEndTick(level);
+            if (telemetry != null) {
+                telemetry.recordServiceTime(gc, System.nanoTime() - startTime);
+            }
         }
     }
 
@@ -254,9 +270,23 @@ public void onServerEndTick() {
             return;
         }
 
+        var telemetry = getRecordingTelemetry();
         for (var gc : this.services.values()) {
+            var startTime = telemetry != null ? System.nanoTime() : 0;
             gc.onServerEndTick();
+            if (telemetry != null) {
+                telemetry.recordServiceTime(gc, System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    @Nullable
+    private TelemetryService getRecordingTelemetry() {
+        if (TelemetryService.ENABLED && this.services.get(TelemetryService.class) instanceof TelemetryService telemetry
+                && telemetry.isRecording()) {
+            return telemetry;
         }
+        return null;
     }
 
     public void setImportantFlag(int i, boolean publicHasPower) {
@@ -315,6 +345,8 @@ private static String getServiceExportKey(Class<?> service) {
             return "p2pService";
         } else if (service == ICraftingService.class) {
             return "craftingService";
+        } else if (service == TelemetryService.class) {
+            return "telemetryService";
         } else {
             return service.getName();
         }
@@ -18,6 +18,7 @@
 
 package appeng.me;
 
+import java.util.List;
 import java.util.Objects;
 
 import com.google.common.base.Preconditions;
@@ -33,12 +34,13 @@
 import appeng.api.networking.IGridNodeListener;
 import appeng.api.networking.pathing.ChannelMode;
 import appeng.me.pathfinding.IPathItem;
+import appeng.me.service.PathingService;
 
 public class GridConnection implements IGridConnection, IPathItem {
 
     private int usedChannels = 0;
     private int lastUsedChannels = 0;
-    private Object visitorIterationNumber = null;
+    private long visitorIterationNumber;
     /**
      * Note that in grids with a controller, following this side will always lead down the closest path towards the
      * controller.
@@ -82,14 +84,13 @@ public Direction getDirection(IGridNode side) {
     @Override
     public void destroy() {
         // a connection was destroyed RE-PATH!! (this is not done immediately)
-        var p = this.sideA.getInternalGrid().getPathingService();
-        p.repath();
+        var p = (PathingService) this.sideA.getInternalGrid().getPathingService();
+        p.onConnectionRemoved(this);
 
         this.sideA.removeConnection(this);
         this.sideB.removeConnection(this);
 
-        this.sideA.validateGrid();
-        this.sideB.validateGrid();
+        GridSplitDetector.splitDisconnectedParts(List.of(this.sideA, this.sideB));
     }
 
     @Override
@@ -180,15 +181,18 @@ public void finalizeChannels() {
         }
     }
 
-    private int getLastUsedChannels() {
+    /**
+     * @return The channels counted by the current or last pathing calculation, which might not be finalized yet.
+     */
+    public int getLastUsedChannels() {
         return this.lastUsedChannels;
     }
 
-    Object getVisitorIterationNumber() {
+    long getVisitorIterationNumber() {
         return this.visitorIterationNumber;
     }
 
-    void setVisitorIterationNumber(Object visitorIterationNumber) {
+    void setVisitorIterationNumber(long visitorIterationNumber) {
         this.visitorIterationNumber = visitorIterationNumber;
     }
 
@@ -214,9 +218,9 @@ public static GridConnection create(IGridNode aNode, IGridNode bNode,
 
         mergeGrids(a, b);
 
-        // a connection was destroyed RE-PATH!!
-        var p = connection.sideA.getInternalGrid().getPathingService();
-        p.repath();
+        // a connection was created RE-PATH!!
+        var p = (PathingService) connection.sideA.getInternalGrid().getPathingService();
+        p.onConnectionAdded(connection);
 
         connection.sideA.addConnection(connection);
         connection.sideB.addConnection(connection);
@@ -21,7 +21,7 @@
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
@@ -66,6 +66,7 @@
 import appeng.api.util.AEColor;
 import appeng.core.AELog;
 import appeng.me.pathfinding.IPathItem;
+import appeng.me.service.PathingService;
 import appeng.util.IDebugExportable;
 import appeng.util.JsonStreamUtil;
 
@@ -84,6 +85,8 @@ public class GridNode implements IGridNode, IPathItem, IDebugExportable {
      * Indicates whether this node will be available for connections or will attempt to make connections.
      */
     private boolean ready;
+    private static long nextVisitorIterationNumber = 1;
+
     protected final List<GridConnection> connections = new ArrayList<>();
     // old power draw, used to diff
     private double previousDraw = 0.0;
@@ -95,7 +98,10 @@ public class GridNode implements IGridNode, IPathItem, IDebugExportable {
     private AEColor gridColor = AEColor.TRANSPARENT;
     private int owningPlayerId = -1;
     private Grid myGrid;
-    private Object visitorIterationNumber = null;
+    /**
+     * The last visit that reached this node. Every visit uses a new number from {@link #nextVisitorIterationNumber}.
+     */
+    private long visitorIterationNumber;
     // connection criteria
     private int usedChannels = 0;
     private int lastUsedChannels = 0;
@@ -171,18 +177,8 @@ boolean hasConnection(IGridNode otherSide) {
         return false;
     }
 
-    void validateGrid() {
-        if (!ready) {
-            // We're in the process of being destroyed
-            return;
-        }
-
-        var gsd = new GridSplitDetector(this.getInternalGrid().getPivot());
-        this.beginVisit(gsd);
-        if (!gsd.isPivotFound()) {
-            var gp = new GridPropagator(Grid.create(this));
-            this.beginVisit(gp);
-        }
+    boolean isReady() {
+        return ready;
     }
 
     public Grid getInternalGrid() {
@@ -195,37 +191,36 @@ public Grid getInternalGrid() {
 
     @Override
     public void beginVisit(IGridVisitor g) {
-        final Object tracker = new Object();
-
-        Deque<GridNode> nextRun = new ArrayDeque<>();
-        nextRun.add(this);
-
-        this.visitorIterationNumber = tracker;
-
-        if (g instanceof IGridConnectionVisitor gcv) {
-            final Deque<IGridConnection> nextConn = new ArrayDeque<>();
-
-            while (!nextRun.isEmpty()) {
-                while (!nextConn.isEmpty()) {
-                    gcv.visitConnection(nextConn.poll());
+        final long tracker = nextVisitorIterationNumber++;
+
+        // Nodes are visited in breadth-first order. The queue keeps all nodes reached so far, so each frontier is
+        // a range of it.
+        var queue = VisitQueue.acquire();
+        try {
+            queue.addNode(this);
+            this.visitorIterationNumber = tracker;
+
+            if (g instanceof IGridConnectionVisitor gcv) {
+                int runStart = 0;
+                int nextConn = 0;
+                while (runStart < queue.nodeCount) {
+                    while (nextConn < queue.connectionCount) {
+                        gcv.visitConnection(queue.connections[nextConn++]);
+                    }
+
+                    int runEnd = queue.nodeCount;
+                    for (int i = runStart; i < runEnd; i++) {
+                        queue.nodes[i].visitorConnection(tracker, g, queue);
+                    }
+                    runStart = runEnd;
                 }
-
-                final Iterable<GridNode> thisRun = nextRun;
-                nextRun = new ArrayDeque<>();
-
-                for (GridNode n : thisRun) {
-                    n.visitorConnection(tracker, g, nextRun, nextConn);
-                }
-            }
-        } else {
-            while (!nextRun.isEmpty()) {
-                var thisRun = nextRun;
-                nextRun = new ArrayDeque<>();
-
-                for (var n : thisRun) {
-                    n.visitorNode(tracker, g, nextRun);
+            } else {
+                for (int i = 0; i < queue.nodeCount; i++) {
+                    queue.nodes[i].visitorNode(tracker, g, queue);
                 }
             }
+        } finally {
+            queue.release();
         }
     }
 
@@ -315,17 +310,20 @@ public void destroy() {
         this.ready = false;
 
         boolean movedPivot = false;
+        var neighbors = new ArrayList<GridNode>(connections.size());
 
         // First pass: Remove the connection on the other side
         for (var connection : connections) {
             var otherSide = (GridNode) connection.getOtherSide(this);
 
-            // Moving the pivot closer means we potentially have to search fewer nodes
-            // when searching for a grid split. Especially if the grid hasn't really been split.
-            // In grids with a controller, side A of the connection will be closer to the controller
-            // By moving the pivot to side A, the controller will NOT receive a new grid, which
-            // is potentially beneficial by assuming the controller has a lot more connected
-            // nodes that are not disrupted by this node being destroyed.
+            // Release the channels routed through the connection while the routes are still intact.
+            // This also causes a repath later.
+            if (myGrid != null) {
+                ((PathingService) myGrid.getPathingService()).onConnectionRemoved(connection);
+            }
+
+            // In grids with a controller, side A of the connection will be closer to the controller.
+            // The pivot should not stay on a destroyed node.
             if (!movedPivot && connection.a() != this && myGrid != null) {
                 myGrid.setPivot((GridNode) connection.a());
                 movedPivot = true;
@@ -333,27 +331,19 @@ public void destroy() {
 
             // Ensure the other side holds no reference to this node anymore
             otherSide.removeConnection(connection);
+            neighbors.add(otherSide);
         }
 
-        // Second pass: Re-validate the grids of the previously connected, adjacent nodes
-        for (var connection : connections) {
-            var otherSide = (GridNode) connection.getOtherSide(this);
-
-            // If we were unable to move the pivot away from ourselves in the first pass
-            // just move it to the first eligible node, but only if we're the pivot
-            if (!movedPivot && myGrid != null && myGrid.getPivot() == this) {
-                myGrid.setPivot(otherSide);
-                movedPivot = true;
-            }
-
-            // Re-validating the grid will cause the actual grid split to occur if the previously adjacent nodes
-            // were only connected by this node.
-            otherSide.validateGrid();
-
-            // Cause a repath later. This is not done immediately.
-            otherSide.getInternalGrid().getPathingService().repath();
+        // If we were unable to move the pivot away from ourselves in the first pass
+        // just move it to the first eligible node, but only if we're the pivot
+        if (!movedPivot && myGrid != null && myGrid.getPivot() == this && !neighbors.isEmpty()) {
+            myGrid.setPivot(neighbors.getFirst());
         }
 
+        // Second pass: Split off the parts of the grid that were only connected through this node.
+        // Grids created by a split always path their channels from scratch.
+        GridSplitDetector.splitDisconnectedParts(neighbors);
+
         connections.clear();
 
         AELog.grid("Destroyed node %s in grid %s", this, this.myGrid);
@@ -516,16 +506,15 @@ public UUID getOwningPlayerProfileId() {
     protected void findInWorldConnections() {
     }
 
-    private void visitorConnection(Object tracker, IGridVisitor g, Deque<GridNode> nextRun,
-            Deque<IGridConnection> nextConnections) {
+    private void visitorConnection(long tracker, IGridVisitor g, VisitQueue queue) {
         if (g.visitNode(this)) {
-            for (IGridConnection gc : this.getConnections()) {
-                final GridNode gn = (GridNode) gc.getOtherSide(this);
-                final GridConnection gcc = (GridConnection) gc;
+            for (int i = 0; i < this.connections.size(); i++) {
+                var gc = this.connections.get(i);
+                var gn = (GridNode) gc.getOtherSide(this);
 
-                if (gcc.getVisitorIterationNumber() != tracker) {
-                    gcc.setVisitorIterationNumber(tracker);
-                    nextConnections.add(gc);
+                if (gc.getVisitorIterationNumber() != tracker) {
+                    gc.setVisitorIterationNumber(tracker);
+                    queue.addConnection(gc);
                 }
 
                 if (tracker == gn.visitorIterationNumber) {
@@ -534,15 +523,15 @@ private void visitorConnection(Object tracker, IGridVisitor g, Deque<GridNode> n
 
                 gn.visitorIterationNumber = tracker;
 
-                nextRun.add(gn);
+                queue.addNode(gn);
             }
         }
     }
 
-    private void visitorNode(Object tracker, IGridVisitor g, Deque<GridNode> nextRun) {
+    private void visitorNode(long tracker, IGridVisitor g, VisitQueue queue) {
         if (g.visitNode(this)) {
-            for (var gc : this.getConnections()) {
-                var gn = (GridNode) gc.getOtherSide(this);
+            for (int i = 0; i < this.connections.size(); i++) {
+                var gn = (GridNode) this.connections.get(i).getOtherSide(this);
 
                 if (tracker == gn.visitorIterationNumber) {
                     continue;
@@ -550,8 +539,50 @@ private void visitorNode(Object tracker, IGridVisitor g, Deque<GridNode> nextRun
 
                 gn.visitorIterationNumber = tracker;
 
-                nextRun.add(gn);
+                queue.addNode(gn);
+            }
+        }
+    }
+
+    /**
+     * The nodes and connections reached by a visit. Visitors may start other visits, so each running visit takes its
+     * own queue from a pool, and returns it when done. The arrays are kept, so visits of large grids don't allocate
+     * once the pool has warmed up.
+     */
+    private static final class VisitQueue {
+        private static final ThreadLocal<ArrayDeque<VisitQueue>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+        private GridNode[] nodes = new GridNode[64];
+        private int nodeCount;
+        private GridConnection[] connections = new GridConnection[64];
+        private int connectionCount;
+
+        static VisitQueue acquire() {
+            var queue = POOL.get().poll();
+            return queue != null ? queue : new VisitQueue();
+        }
+
+        void release() {
+            // Don't keep the nodes of the grid alive
+            Arrays.fill(nodes, 0, nodeCount, null);
+            Arrays.fill(connections, 0, connectionCount, null);
+            nodeCount = 0;
+            connectionCount = 0;
+            POOL.get().push(this);
+        }
+
+        void addNode(GridNode node) {
+            if (nodeCount == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodeCount * 2);
+            }
+            nodes[nodeCount++] = node;
+        }
+
+        void addConnection(GridConnection connection) {
+            if (connectionCount == connections.length) {
+                connections = Arrays.copyOf(connections, connectionCount * 2);
             }
+            connections[connectionCount++] = connection;
         }
     }
 
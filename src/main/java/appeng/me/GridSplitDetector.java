@@ -18,32 +18,175 @@
 
 package appeng.me;
 
-import appeng.api.networking.IGridNode;
-import appeng.api.networking.IGridVisitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
-class GridSplitDetector implements IGridVisitor {
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 
-    private final IGridNode pivot;
-    private boolean pivotFound;
+/**
+ * Detects whether removing connections split a grid, and moves the parts that were split off to new grids.
+ * <p/>
+ * The nodes that were on the other side of the removed connections are searched outward from in lock-step, one node
+ * per search at a time. Searches that meet are merged, and a search that runs out of nodes has found a part that is no
+ * longer connected to the others. Once only one search is left, the remaining nodes of the grid are known to be
+ * connected to it without visiting them. The work done is thus proportional to the size of the parts that are split
+ * off, not to the size of the grid, and when nothing was split, it is bounded by the size of the smallest loop around
+ * the removed connections.
+ */
+final class GridSplitDetector {
+    /**
+     * The search that first reached a node. Searches that met are tracked with {@link #parent}.
+     */
+    private final Reference2IntOpenHashMap<GridNode> searchOf = new Reference2IntOpenHashMap<>();
+    private final IntArrayList parent = new IntArrayList();
+    private final List<ArrayDeque<GridNode>> frontiers = new ArrayList<>();
+    private final List<List<GridNode>> visited = new ArrayList<>();
 
-    public GridSplitDetector(IGridNode pivot) {
-        this.pivot = pivot;
+    private GridSplitDetector() {
+        searchOf.defaultReturnValue(-1);
     }
 
-    @Override
-    public boolean visitNode(IGridNode n) {
-        if (n == this.pivot) {
-            this.setPivotFound(true);
+    /**
+     * Moves every part of the grid that is no longer connected to the others to its own grid.
+     *
+     * @param startNodes The nodes that were connected through the removed connections or node. Nodes that are being
+     *                   destroyed are ignored.
+     */
+    static void splitDisconnectedParts(Collection<GridNode> startNodes) {
+        var detector = new GridSplitDetector();
+        Grid grid = null;
+        for (var node : startNodes) {
+            if (!node.isReady() || node.getMyGrid() == null) {
+                // We're in the process of being destroyed
+                continue;
+            }
+            if (grid == null) {
+                grid = node.getMyGrid();
+            } else if (node.getMyGrid() != grid) {
+                continue;
+            }
+            detector.startSearch(node);
         }
 
-        return !this.isPivotFound();
+        if (detector.frontiers.size() > 1) {
+            detector.search();
+            detector.splitFinishedSearches();
+        }
+    }
+
+    private void startSearch(GridNode node) {
+        if (searchOf.containsKey(node)) {
+            return;
+        }
+        var search = parent.size();
+        parent.add(search);
+        searchOf.put(node, search);
+        var frontier = new ArrayDeque<GridNode>();
+        frontier.add(node);
+        frontiers.add(frontier);
+        var nodes = new ArrayList<GridNode>();
+        nodes.add(node);
+        visited.add(nodes);
     }
 
-    public boolean isPivotFound() {
-        return this.pivotFound;
+    private void search() {
+        int active = frontiers.size();
+        while (active > 1) {
+            for (int i = 0; i < frontiers.size() && active > 1; i++) {
+                if (find(i) != i || frontiers.get(i).isEmpty()) {
+                    continue;
+                }
+
+                int search = i;
+                var node = frontiers.get(search).poll();
+                for (var connection : node.connections) {
+                    var other = (GridNode) connection.getOtherSide(node);
+                    var otherSearch = searchOf.getInt(other);
+                    if (otherSearch == -1) {
+                        searchOf.put(other, search);
+                        visited.get(search).add(other);
+                        frontiers.get(search).add(other);
+                    } else {
+                        otherSearch = find(otherSearch);
+                        if (otherSearch != search) {
+                            // Both searches are in the same part, continue them as one
+                            search = merge(search, otherSearch);
+                            active--;
+                        }
+                    }
+                }
+
+                if (frontiers.get(search).isEmpty()) {
+                    // This search found all nodes of its part
+                    active--;
+                }
+            }
+        }
     }
 
-    private void setPivotFound(boolean pivotFound) {
-        this.pivotFound = pivotFound;
+    /**
+     * Creates new grids for the parts that were completely visited. If every search finished, the largest part stays
+     * in the current grid.
+     */
+    private void splitFinishedSearches() {
+        var finished = new ArrayList<List<GridNode>>();
+        boolean remainderStays = false;
+        for (int i = 0; i < frontiers.size(); i++) {
+            if (find(i) != i) {
+                continue;
+            }
+            if (frontiers.get(i).isEmpty()) {
+                finished.add(visited.get(i));
+            } else {
+                remainderStays = true;
+            }
+        }
+
+        if (!remainderStays) {
+            List<GridNode> largest = finished.getFirst();
+            for (var part : finished) {
+                if (part.size() > largest.size()) {
+                    largest = part;
+                }
+            }
+            finished.remove(largest);
+        }
+
+        for (var part : finished) {
+            var newGrid = Grid.create(part.getFirst());
+            for (var node : part) {
+                node.setGrid(newGrid);
+            }
+        }
+    }
+
+    /**
+     * @return The search that continues both given searches.
+     */
+    private int merge(int a, int b) {
+        // Keep the search that visited more nodes to move fewer of them
+        if (visited.get(a).size() < visited.get(b).size()) {
+            var tmp = a;
+            a = b;
+            b = tmp;
+        }
+        parent.set(b, a);
+        visited.get(a).addAll(visited.get(b));
+        visited.get(b).clear();
+        frontiers.get(a).addAll(frontiers.get(b));
+        frontiers.get(b).clear();
+        return a;
+    }
+
+    private int find(int search) {
+        while (parent.getInt(search) != search) {
+            var grandParent = parent.getInt(parent.getInt(search));
+            parent.set(search, grandParent);
+            search = grandParent;
+        }
+        return search;
     }
 }
@@ -244,6 +244,11 @@ public void getAvailableStacks(KeyCounter out) {
         }
     }
 
+    @Override
+    public boolean reportsExactChanges() {
+        return !this.hasVoidUpgrade;
+    }
+
     @Override
     public double getIdleDrain() {
         return this.cellType.getIdleDrain();
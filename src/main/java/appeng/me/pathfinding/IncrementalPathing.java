@@ -0,0 +1,319 @@
+package appeng.me.pathfinding;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.networking.GridFlags;
+import appeng.blockentity.networking.ControllerBlockEntity;
+import appeng.me.Grid;
+import appeng.me.GridConnection;
+import appeng.me.GridNode;
+
+/**
+ * Updates the channels of a grid with a controller after local changes to its topology, without recalculating the
+ * paths of the entire grid.
+ * <p/>
+ * This works on the tree of {@link IPathItem#getControllerRoute() controller routes} left behind by the last
+ * {@link PathingCalculation}. When a connection on a route is removed, the channels routed through it are released
+ * along the route to the controller right away, while the route still exists, and the part of the tree below it is
+ * remembered as cut off. When the changes are {@link #apply() applied}, the cut off parts and all nodes that joined the
+ * grid are pathed again, starting from the surrounding part of the grid, which keeps its channels.
+ * <p/>
+ * The result can differ from a full recalculation, i.e. a device might get its channel over a longer route, but the
+ * channel capacity of every path item is respected.
+ */
+public class IncrementalPathing {
+    private final Grid grid;
+    /**
+     * Nodes whose route to the controller was cut, along with the parts of the tree below them.
+     */
+    private final Set<GridNode> cutOffNodes = new HashSet<>();
+    /**
+     * Nodes that joined the grid, and don't have a route yet.
+     */
+    private final Set<GridNode> newNodes = new HashSet<>();
+    private final Set<GridConnection> newConnections = new HashSet<>();
+    /**
+     * Path items outside the cut off parts whose channel count was changed.
+     */
+    private final Set<IPathItem> changedItems = new HashSet<>();
+    private int releasedChannels;
+    private int releasedChannelsByBlocks;
+    /**
+     * Set if a change can't be applied incrementally.
+     */
+    private boolean needsFullRecalculation;
+
+    public IncrementalPathing(Grid grid) {
+        this.grid = grid;
+    }
+
+    public boolean hasChanges() {
+        return needsFullRecalculation || !cutOffNodes.isEmpty() || !newNodes.isEmpty() || !newConnections.isEmpty();
+    }
+
+    public void nodeAdded(GridNode node) {
+        newNodes.add(node);
+    }
+
+    public void nodeRemoved(GridNode node) {
+        // Its connections were already removed, or it moved to another grid along with all its connections
+        cutOffNodes.remove(node);
+        if (newNodes.remove(node)) {
+            return;
+        }
+
+        // The channels routed through the connections it was cut off by were already released, but the node and the
+        // connections to its children still count towards this grid until it is pathed again, which a node that left
+        // the grid never is. This is the case for destroyed nodes and for the parts of a grid that were split off.
+        releasedChannelsByBlocks += node.getUsedChannels();
+        for (var gc : node.getConnections()) {
+            if (gc.a() == node && !newConnections.contains(gc)) {
+                releasedChannelsByBlocks += ((GridConnection) gc).getLastUsedChannels();
+            }
+        }
+    }
+
+    public void connectionAdded(GridConnection connection) {
+        newConnections.add(connection);
+    }
+
+    /**
+     * Must be called before the connection is removed from its nodes.
+     */
+    public void connectionRemoved(GridConnection connection) {
+        if (newConnections.remove(connection)) {
+            // Was never part of a route
+            return;
+        }
+
+        var parent = (GridNode) connection.a();
+        var child = (GridNode) connection.b();
+        if (isController(parent) && isController(child)) {
+            needsFullRecalculation = true;
+            return;
+        }
+
+        var channels = connection.getLastUsedChannels();
+        if (channels > 0) {
+            releasedChannelsByBlocks += channels;
+            release(connection.getControllerRoute(), channels);
+        }
+
+        // Nodes that can't carry channels have no route of their own, but might lead to other nodes
+        if (child.getControllerRoute() == connection || child.hasFlag(GridFlags.CANNOT_CARRY)) {
+            cutOffNodes.add(child);
+        }
+    }
+
+    /**
+     * The node's own channel requirement changed, so its subtree has to be pathed again.
+     */
+    public void channelRequirementChanged(GridNode node) {
+        if (newNodes.contains(node) || isController(node)) {
+            return;
+        }
+
+        var route = node.getControllerRoute();
+        var channels = node.getUsedChannels();
+        if (route != null && channels > 0) {
+            release(route, channels);
+        }
+        cutOffNodes.add(node);
+    }
+
+    /**
+     * Releases channels along the route starting at the given path item.
+     */
+    private void release(@Nullable IPathItem start, int channels) {
+        var maxSteps = 2 * grid.size() + 2;
+        var pi = start;
+        for (int steps = 0; pi != null; steps++) {
+            if (pi instanceof GridNode node && (cutOffNodes.contains(node) || newNodes.contains(node))) {
+                // The channels above this point were already released when this part was cut off
+                return;
+            }
+            if (steps > maxSteps) {
+                // The routes don't form a tree anymore
+                needsFullRecalculation = true;
+                return;
+            }
+
+            pi.incrementChannelCount(-channels);
+            releasedChannelsByBlocks += channels;
+            changedItems.add(pi);
+            pi = pi.getControllerRoute();
+        }
+        releasedChannels += channels;
+    }
+
+    /**
+     * Paths the cut off parts of the grid and all new nodes, and finalizes the channels of all affected path items.
+     *
+     * @return The change to the grid's channel usage, or null if the paths of the grid must be fully recalculated
+     *         instead.
+     */
+    @Nullable
+    public Result apply() {
+        try {
+            return applyChanges();
+        } finally {
+            clear();
+        }
+    }
+
+    @Nullable
+    private Result applyChanges() {
+        if (needsFullRecalculation) {
+            return null;
+        }
+
+        var region = new HashSet<IPathItem>();
+        var regionNodes = new ArrayList<GridNode>();
+        var resetChannelsByBlocks = 0;
+
+        // Cut off parts first, since only they contributed to the channels of this grid
+        for (var node : cutOffNodes) {
+            if (node.getInternalGrid() == grid && !newNodes.contains(node)) {
+                resetChannelsByBlocks += collectRegion(node, region, regionNodes, true);
+            }
+        }
+        for (var node : newNodes) {
+            if (node.getInternalGrid() == grid) {
+                collectRegion(node, region, regionNodes, false);
+            }
+        }
+
+        // A new connection between two parts that keep their paths could lead to better paths anywhere
+        for (var connection : newConnections) {
+            if (!region.contains(connection) && ((GridNode) connection.a()).getInternalGrid() == grid) {
+                return null;
+            }
+        }
+
+        // Multiblocks share channels in ways only the full calculation handles, and pathing more than half of the
+        // grid gains nothing over pathing all of it.
+        if (regionNodes.size() > grid.size() / 2) {
+            return null;
+        }
+        for (var node : regionNodes) {
+            if (node.hasFlag(GridFlags.MULTIBLOCK) || isController(node)) {
+                return null;
+            }
+        }
+
+        var entryPoints = new LinkedHashMap<GridConnection, GridNode>();
+        for (var node : regionNodes) {
+            for (var gc : node.getConnections()) {
+                var otherSide = (GridNode) gc.getOtherSide(node);
+                if (!region.contains(otherSide)) {
+                    entryPoints.put((GridConnection) gc, otherSide);
+                }
+            }
+        }
+
+        for (var pathItem : region) {
+            pathItem.setControllerRoute(null);
+        }
+
+        var calculation = new PathingCalculation(region, entryPoints);
+        while (!calculation.isFinished()) {
+            calculation.step();
+        }
+
+        changedItems.addAll(region);
+        changedItems.addAll(entryPoints.keySet());
+        changedItems.addAll(calculation.getChangedItems());
+        for (var pathItem : changedItems) {
+            if (isInGrid(pathItem)) {
+                pathItem.finalizeChannels();
+            }
+        }
+
+        return new Result(
+                calculation.getChannelsInUse() - releasedChannels,
+                calculation.getChannelsByBlocks() - releasedChannelsByBlocks - resetChannelsByBlocks);
+    }
+
+    /**
+     * Collects the part of the tree below the given node, as well as all new nodes connected to it.
+     *
+     * @return The channel count of all collected path items that were pathed before.
+     */
+    private int collectRegion(GridNode root, Set<IPathItem> region, List<GridNode> regionNodes, boolean pathed) {
+        if (!region.add(root)) {
+            return 0;
+        }
+        regionNodes.add(root);
+        var channelsByBlocks = pathed ? root.getUsedChannels() : 0;
+
+        var queue = new ArrayDeque<GridNode>();
+        queue.add(root);
+        GridNode node;
+        while ((node = queue.poll()) != null) {
+            for (var gc : node.getConnections()) {
+                var connection = (GridConnection) gc;
+                var otherSide = (GridNode) connection.getOtherSide(node);
+                var isNewConnection = newConnections.contains(connection);
+                var isNewNode = newNodes.contains(otherSide);
+
+                // Connections leading towards the controller are part of the route of another node
+                if (!isNewNode && !isNewConnection && connection.a() != node) {
+                    continue;
+                }
+                if (region.add(connection) && pathed && !isNewConnection) {
+                    channelsByBlocks += connection.getLastUsedChannels();
+                }
+
+                var isChild = !isNewConnection && connection.a() == node
+                        && otherSide.getControllerRoute() == connection;
+                if ((isNewNode || isChild) && region.add(otherSide)) {
+                    regionNodes.add(otherSide);
+                    queue.add(otherSide);
+                    if (pathed && !isNewNode) {
+                        channelsByBlocks += otherSide.getUsedChannels();
+                    }
+                }
+            }
+        }
+
+        return channelsByBlocks;
+    }
+
+    private boolean isInGrid(IPathItem pathItem) {
+        if (pathItem instanceof GridNode node) {
+            return node.getInternalGrid() == grid;
+        } else if (pathItem instanceof GridConnection connection) {
+            return ((GridNode) connection.a()).getInternalGrid() == grid
+                    && connection.a().getConnections().contains(connection);
+        }
+        return false;
+    }
+
+    private static boolean isController(GridNode node) {
+        return node.getOwner() instanceof ControllerBlockEntity;
+    }
+
+    private void clear() {
+        cutOffNodes.clear();
+        newNodes.clear();
+        newConnections.clear();
+        changedItems.clear();
+        releasedChannels = 0;
+        releasedChannelsByBlocks = 0;
+        needsFullRecalculation = false;
+    }
+
+    /**
+     * @param channelsInUse    Change to the number of channels in use.
+     * @param channelsByBlocks Change to the sum of channels used by all path items.
+     */
+    public record Result(int channelsInUse, int channelsByBlocks) {
+    }
+}
@@ -21,8 +21,11 @@
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.jetbrains.annotations.Nullable;
+
 import appeng.api.networking.GridFlags;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.IGridMultiblock;
@@ -53,6 +56,15 @@ public class PathingCalculation {
      * Path items that are either in the queue, or have been processed already.
      */
     private final Set<IPathItem> visited = new HashSet<>();
+    /**
+     * If only part of the grid is being pathed, the path items in that part. All other path items keep their paths.
+     */
+    @Nullable
+    private final Set<IPathItem> region;
+    /**
+     * If only part of the grid is being pathed, all path items whose channel count was changed.
+     */
+    private final Set<IPathItem> changedItems = new HashSet<>();
     /**
      * Tracks the total number of used channels.
      */
@@ -66,6 +78,8 @@ public class PathingCalculation {
      * Create a new pathing calculation from the passed grid.
      */
     public PathingCalculation(IGrid grid) {
+        this.region = null;
+
         // Add every outgoing connection of the controllers (that doesn't point to another controller) to the list.
         for (var node : grid.getMachineNodes(ControllerBlockEntity.class)) {
             visited.add((IPathItem) node);
@@ -79,26 +93,48 @@ public PathingCalculation(IGrid grid) {
         }
     }
 
+    /**
+     * Create a calculation that only paths a region of the grid, and connects it to the paths of the rest of the grid.
+     *
+     * @param region      The path items to path. Their channel counts must have been reset.
+     * @param entryPoints The connections between the region and the rest of the grid, with the node outside the
+     *                    region they are entered from.
+     */
+    public PathingCalculation(Set<IPathItem> region, Map<GridConnection, GridNode> entryPoints) {
+        this.region = region;
+
+        for (var entry : entryPoints.entrySet()) {
+            var gc = entry.getKey();
+            var from = entry.getValue();
+            gc.setControllerRoute(from);
+            enqueue(gc, getQueueIndex(from));
+        }
+    }
+
     private void enqueue(IPathItem pathItem, int queueIndex) {
         visited.add(pathItem);
 
-        int possibleIndex;
+        int index = Math.max(getQueueIndex(pathItem), queueIndex);
+        queues[index].add(pathItem);
+    }
 
+    private static int getQueueIndex(IPathItem pathItem) {
         if (pathItem instanceof GridConnection) {
             // Grid connection does not have flags, allow any queue.
-            possibleIndex = 0;
+            return 0;
         } else if (pathItem.hasFlag(GridFlags.DENSE_CAPACITY)) {
             // Dense queue if possible.
-            possibleIndex = 0;
+            return 0;
         } else if (pathItem.hasFlag(GridFlags.PREFERRED)) {
             // Cable queue if possible.
-            possibleIndex = 1;
+            return 1;
         } else {
-            possibleIndex = 2;
+            return 2;
         }
+    }
 
-        int index = Math.max(possibleIndex, queueIndex);
-        queues[index].add(pathItem);
+    private boolean isVisited(IPathItem pathItem) {
+        return this.visited.contains(pathItem) || this.region != null && !this.region.contains(pathItem);
     }
 
     public void step() {
@@ -116,7 +152,7 @@ public void step() {
     private void processQueue(List<IPathItem> oldOpen, int queueIndex) {
         for (IPathItem i : oldOpen) {
             for (IPathItem pi : i.getPossibleOptions()) {
-                if (!this.visited.contains(pi)) {
+                if (!isVisited(pi)) {
                     // Set BFS parent.
                     pi.setControllerRoute(i);
 
@@ -178,6 +214,9 @@ private boolean tryUseChannel(IPathItem start) {
         while (pi != null) {
             channelsByBlocks++;
             pi.incrementChannelCount(1);
+            if (region != null) {
+                changedItems.add(pi);
+            }
             pi = pi.getControllerRoute();
         }
 
@@ -201,4 +240,11 @@ public int getChannelsInUse() {
     public int getChannelsByBlocks() {
         return channelsByBlocks;
     }
+
+    /**
+     * @return The path items whose channel count was changed, if only a region of the grid was pathed.
+     */
+    public Set<IPathItem> getChangedItems() {
+        return changedItems;
+    }
 }
@@ -26,10 +26,11 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
@@ -67,15 +68,18 @@
 import appeng.api.stacks.GenericStack;
 import appeng.api.storage.AEKeyFilter;
 import appeng.blockentity.crafting.CraftingBlockEntity;
+import appeng.core.AEConfig;
 import appeng.crafting.CraftingCalculation;
 import appeng.crafting.CraftingLink;
 import appeng.crafting.CraftingLinkNexus;
+import appeng.crafting.CraftingPlanCache;
 import appeng.crafting.execution.CraftingSubmitResult;
 import appeng.me.cluster.implementations.CraftingCPUCluster;
 import appeng.me.helpers.InterestManager;
 import appeng.me.helpers.StackWatcher;
 import appeng.me.service.helpers.CraftingServiceStorage;
 import appeng.me.service.helpers.NetworkCraftingProviders;
+import appeng.me.service.helpers.WaitingForIndex;
 
 public class CraftingService implements ICraftingService, IGridServiceProvider {
 
@@ -95,7 +99,11 @@ public class CraftingService implements ICraftingService, IGridServiceProvider {
             .comparingInt(CraftingCPUCluster::getCoProcessors)
             .thenComparingLong(CraftingCPUCluster::getAvailableStorage);
 
-    private static final ExecutorService CRAFTING_POOL;
+    /**
+     * Runs crafting calculations. Since they are CPU-bound, the number of threads is bounded by
+     * {@link AEConfig#getCraftingCalculationPoolSize()}, and further calculations are queued.
+     */
+    private static final ThreadPoolExecutor CRAFTING_POOL;
 
     static {
         final ThreadFactory factory = ar -> {
@@ -104,7 +112,8 @@ public class CraftingService implements ICraftingService, IGridServiceProvider {
             return crafting;
         };
 
-        CRAFTING_POOL = Executors.newCachedThreadPool(factory);
+        CRAFTING_POOL = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        CRAFTING_POOL.allowCoreThreadTimeOut(true);
 
         GridHelper.addGridServiceEventHandler(GridCraftingCpuChange.class, ICraftingService.class,
                 (service, event) -> {
@@ -113,9 +122,16 @@ public class CraftingService implements ICraftingService, IGridServiceProvider {
     }
 
     private final Set<CraftingCPUCluster> craftingCPUClusters = new HashSet<>();
+    private final WaitingForIndex waitingForIndex = new WaitingForIndex();
     private final Map<IGridNode, StackWatcher<ICraftingWatcherNode>> craftingWatchers = new HashMap<>();
     private final IGrid grid;
     private final NetworkCraftingProviders craftingProviders = new NetworkCraftingProviders();
+    /**
+     * Shared by the crafting calculations of this grid, and replaced when the pattern set version changes.
+     */
+    @Nullable
+    private CraftingPlanCache planCache;
+    private long planCacheVersion;
     private final Map<UUID, CraftingLinkNexus> craftingLinks = new HashMap<>();
     private final Multimap<AEKey, StackWatcher<ICraftingWatcherNode>> interests = HashMultimap.create();
     private final InterestManager<StackWatcher<ICraftingWatcherNode>> interestManager = new InterestManager<>(
@@ -238,12 +254,19 @@ public Set<AEKey> getCraftables(AEKeyFilter filter) {
     }
 
     private void updateCPUClusters() {
+        for (var cluster : this.craftingCPUClusters) {
+            // The cluster might already have moved to another grid
+            if (cluster.craftingLogic.getWaitingForIndex() == this.waitingForIndex) {
+                cluster.craftingLogic.setWaitingForIndex(null);
+            }
+        }
         this.craftingCPUClusters.clear();
 
         for (var blockEntity : this.grid.getMachines(CraftingBlockEntity.class)) {
             final CraftingCPUCluster cluster = blockEntity.getCluster();
             if (cluster != null) {
                 this.craftingCPUClusters.add(cluster);
+                cluster.craftingLogic.setWaitingForIndex(this.waitingForIndex);
 
                 ICraftingLink maybeLink = cluster.craftingLogic.getLastLink();
                 if (maybeLink != null) {
@@ -268,8 +291,8 @@ public void addLink(CraftingLink link) {
 
     public long insertIntoCpus(AEKey what, long amount, Actionable type) {
         long inserted = 0;
-        for (var cpu : this.craftingCPUClusters) {
-            inserted += cpu.craftingLogic.insert(what, amount - inserted, type);
+        for (var cpu : this.waitingForIndex.getWaitingCpus(what)) {
+            inserted += cpu.insert(what, amount - inserted, type);
         }
 
         return inserted;
@@ -286,6 +309,20 @@ public void refreshNodeCraftingProvider(IGridNode node) {
         this.craftingProviders.addProvider(node);
     }
 
+    /**
+     * @return The cache of crafting tree expansions shared by all crafting calculations in this grid. It reads from a
+     *         snapshot of the current patterns, so that calculations don't access the live pattern lists while they
+     *         run. Must be called from the server thread.
+     */
+    public CraftingPlanCache getPlanCache() {
+        var version = this.craftingProviders.getPatternSetVersion();
+        if (this.planCache == null || this.planCacheVersion != version) {
+            this.planCache = new CraftingPlanCache(this.craftingProviders.createSnapshot());
+            this.planCacheVersion = version;
+        }
+        return this.planCache;
+    }
+
     @Nullable
     @Override
     public AEKey getFuzzyCraftable(AEKey whatToCraft, AEKeyFilter filter) {
@@ -302,9 +339,21 @@ public Future<ICraftingPlan> beginCraftingCalculation(Level level, ICraftingSimu
         final CraftingCalculation job = new CraftingCalculation(level, grid, simRequester,
                 new GenericStack(what, amount), strategy);
 
+        resizeCraftingPool(AEConfig.instance().getCraftingCalculationPoolSize());
         return CRAFTING_POOL.submit(job::run);
     }
 
+    private static void resizeCraftingPool(int size) {
+        // The core size may never exceed the maximum size, so the order depends on the direction
+        if (size > CRAFTING_POOL.getMaximumPoolSize()) {
+            CRAFTING_POOL.setMaximumPoolSize(size);
+            CRAFTING_POOL.setCorePoolSize(size);
+        } else if (size < CRAFTING_POOL.getMaximumPoolSize()) {
+            CRAFTING_POOL.setCorePoolSize(size);
+            CRAFTING_POOL.setMaximumPoolSize(size);
+        }
+    }
+
     @Override
     public ICraftingSubmitResult submitJob(ICraftingPlan job, ICraftingRequester requestingMachine, ICraftingCPU target,
             boolean prioritizePower, IActionSource src) {
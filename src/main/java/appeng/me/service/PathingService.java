@@ -46,9 +46,12 @@
 import appeng.core.AELog;
 import appeng.core.stats.AdvancementTriggers;
 import appeng.me.Grid;
+import appeng.me.GridConnection;
+import appeng.me.GridNode;
 import appeng.me.pathfinding.AdHocChannelUpdater;
 import appeng.me.pathfinding.ChannelFinalizer;
 import appeng.me.pathfinding.ControllerValidator;
+import appeng.me.pathfinding.IncrementalPathing;
 import appeng.me.pathfinding.PathingCalculation;
 
 public class PathingService implements IPathingService, IGridServiceProvider {
@@ -63,6 +66,12 @@ public class PathingService implements IPathingService, IGridServiceProvider {
     }
 
     private PathingCalculation ongoingCalculation = null;
+    /**
+     * Collects changes to the grid to update its channels without a full recalculation. Only set while the channels
+     * were assigned from a controller, and are up to date otherwise.
+     */
+    @Nullable
+    private IncrementalPathing incrementalPathing;
     private final Set<ControllerBlockEntity> controllers = new HashSet<>();
     private final Set<IGridNode> nodesNeedingChannels = new HashSet<>();
     private final Set<IGridNode> cannotCarryCompressedNodes = new HashSet<>();
@@ -86,16 +95,37 @@ public class PathingService implements IPathingService, IGridServiceProvider {
     private boolean channelModeLocked;
     private ChannelMode channelMode = AEConfig.instance().getChannelMode();
 
-    public PathingService(IGrid g) {
+    private final TelemetryService telemetry;
+
+    public PathingService(IGrid g, TelemetryService telemetry) {
         this.grid = (Grid) g;
+        this.telemetry = telemetry;
     }
 
     @Override
     public void onServerEndTick() {
+        if (!telemetry.isRecording()) {
+            updatePathing();
+            return;
+        }
+
+        var startTime = System.nanoTime();
+        try {
+            updatePathing();
+        } finally {
+            telemetry.record(TelemetryService.Metric.PATHING_NANOS, System.nanoTime() - startTime);
+        }
+    }
+
+    private void updatePathing() {
         if (this.recalculateControllerNextTick) {
             this.updateControllerState();
         }
 
+        if (!this.reboot && this.incrementalPathing != null && this.incrementalPathing.hasChanges()) {
+            this.applyIncrementalPathing(this.incrementalPathing);
+        }
+
         if (this.reboot) {
             this.reboot = false;
 
@@ -153,6 +183,10 @@ public void onServerEndTick() {
 
                 this.booting = false;
                 this.setChannelPowerUsage(this.channelsByBlocks / 128.0);
+                if (this.controllerState == ControllerState.CONTROLLER_ONLINE
+                        && AEConfig.instance().isIncrementalChannelPathing()) {
+                    this.incrementalPathing = new IncrementalPathing(grid);
+                }
                 // Notify of channel changes AFTER we set booting to false, this ensures that any activeness check will
                 // properly return true.
                 this.grid.getPivot().beginVisit(new ChannelFinalizer());
@@ -163,6 +197,19 @@ public void onServerEndTick() {
         }
     }
 
+    private void applyIncrementalPathing(IncrementalPathing incrementalPathing) {
+        var result = incrementalPathing.apply();
+        if (result == null) {
+            this.repath();
+            return;
+        }
+
+        this.channelsInUse += result.channelsInUse();
+        this.channelsByBlocks += result.channelsByBlocks();
+        this.setChannelPowerUsage(this.channelsByBlocks / 128.0);
+        this.achievementPost();
+    }
+
     private void postBootingStatusChange() {
         this.grid.postEvent(new GridBootingStatusChange(this.booting));
         this.grid.notifyAllNodes(IGridNodeListener.State.GRID_BOOT);
@@ -170,9 +217,11 @@ private void postBootingStatusChange() {
 
     @Override
     public void removeNode(IGridNode gridNode) {
+        var isController = false;
         if (gridNode.getOwner() instanceof ControllerBlockEntity controller) {
             this.controllers.remove(controller);
             this.recalculateControllerNextTick = true;
+            isController = true;
         }
 
         if (gridNode.hasFlag(GridFlags.REQUIRE_CHANNEL)) {
@@ -183,18 +232,25 @@ public void removeNode(IGridNode gridNode) {
             this.cannotCarryCompressedNodes.remove(gridNode);
         }
 
-        this.repath();
+        if (this.incrementalPathing != null && !isController) {
+            this.incrementalPathing.nodeRemoved((GridNode) gridNode);
+        } else {
+            this.repath();
+        }
     }
 
     @Override
     public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
+        var previousChannelMode = this.channelMode;
         if (savedData != null) {
             restoreChannelMode(savedData);
         }
 
+        var isController = false;
         if (gridNode.getOwner() instanceof ControllerBlockEntity controller) {
             this.controllers.add(controller);
             this.recalculateControllerNextTick = true;
+            isController = true;
         }
 
         if (gridNode.hasFlag(GridFlags.REQUIRE_CHANNEL)) {
@@ -205,7 +261,33 @@ public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
             this.cannotCarryCompressedNodes.add(gridNode);
         }
 
-        this.repath();
+        if (this.incrementalPathing != null && !isController && previousChannelMode == this.channelMode) {
+            this.incrementalPathing.nodeAdded((GridNode) gridNode);
+        } else {
+            this.repath();
+        }
+    }
+
+    /**
+     * Called when a connection was added to the grid.
+     */
+    public void onConnectionAdded(GridConnection connection) {
+        if (this.incrementalPathing != null) {
+            this.incrementalPathing.connectionAdded(connection);
+        } else {
+            this.repath();
+        }
+    }
+
+    /**
+     * Called before a connection is removed from the grid, while the paths through it are still intact.
+     */
+    public void onConnectionRemoved(GridConnection connection) {
+        if (this.incrementalPathing != null) {
+            this.incrementalPathing.connectionRemoved(connection);
+        } else {
+            this.repath();
+        }
     }
 
     private void restoreChannelMode(CompoundTag savedData) {
@@ -326,7 +408,11 @@ private void updateNodReq(GridChannelRequirementChanged ev) {
             this.nodesNeedingChannels.remove(gridNode);
         }
 
-        this.repath();
+        if (this.incrementalPathing != null) {
+            this.incrementalPathing.channelRequirementChanged((GridNode) gridNode);
+        } else {
+            this.repath();
+        }
     }
 
     @Override
@@ -347,6 +433,7 @@ public void repath() {
 
         // clean up...
         this.ongoingCalculation = null;
+        this.incrementalPathing = null;
 
         this.channelsByBlocks = 0;
         this.reboot = true;
@@ -53,8 +53,11 @@
 import appeng.api.storage.IStorageMounts;
 import appeng.api.storage.IStorageProvider;
 import appeng.api.storage.MEStorage;
+import appeng.core.AEConfig;
 import appeng.me.helpers.InterestManager;
 import appeng.me.helpers.StackWatcher;
+import appeng.me.service.helpers.KeyChangeLog;
+import appeng.me.storage.InventorySnapshot;
 import appeng.me.storage.NetworkStorage;
 import appeng.util.JsonStreamUtil;
 
@@ -84,20 +87,48 @@ public class StorageService implements IStorageService, IGridServiceProvider {
      */
     private final Object2LongMap<AEKey> cachedAvailableAmounts = new Object2LongOpenHashMap<>();
     private boolean cachedStacksNeedUpdate = true;
+    /**
+     * Incremented whenever {@link #cachedAvailableStacks} changes.
+     */
+    private long cachedStacksVersion;
+    /**
+     * The last snapshot of the cached stacks, which is reused until {@link #cachedStacksVersion} changes.
+     */
+    private volatile InventorySnapshot inventorySnapshot = InventorySnapshot.EMPTY;
+    /**
+     * Ticks since the cached inventory was last fully rebuilt, when it is otherwise maintained incrementally.
+     */
+    private int ticksSinceFullUpdate;
     /**
      * Tracks the stack watcher associated with a given grid node. Needed to clean up watchers when the node leaves the
      * grid.
      */
     private final Map<IGridNode, StackWatcher<IStorageWatcherNode>> watchers = new IdentityHashMap<>();
 
+    /**
+     * Changes to the cached stacks, for open terminals. Only allocated while terminals {@linkplain #getChangeLog() ask
+     * for it}.
+     */
+    @Nullable
+    private KeyChangeLog changeLog;
+    /**
+     * Set when the change log was requested, so that it is dropped once no terminal uses it anymore.
+     */
+    private boolean changeLogRequested;
+
     private final StatsAccumulator inventoryRefreshStats = new StatsAccumulator();
+    private long fullInventoryRefreshes;
+    private final TelemetryService telemetry;
 
-    public StorageService() {
-        this.storage = new NetworkStorage();
+    public StorageService(TelemetryService telemetry) {
+        this.telemetry = telemetry;
+        this.storage = new NetworkStorage(telemetry);
     }
 
     @Override
     public void onServerEndTick() {
+        ticksSinceFullUpdate++;
+
         if (interestManager.isEmpty()) {
             // lazily rebuild cache list
             cachedStacksNeedUpdate = true;
@@ -105,6 +136,14 @@ public void onServerEndTick() {
             // we need to rebuild the cache every tick to notify listeners
             updateCachedStacks();
         }
+
+        if (changeLog != null) {
+            if (!changeLogRequested) {
+                // No terminal asked for the changes during this tick, so it was closed or moved to another grid
+                changeLog = null;
+            }
+            changeLogRequested = false;
+        }
     }
 
     private void updateCachedStacks() {
@@ -113,49 +152,117 @@ private void updateCachedStacks() {
         try {
             cachedStacksNeedUpdate = false;
 
-            // Update cache
-            var previousStacks = cachedAvailableStacks;
-            var currentStacks = cachedAvailableStacksBackBuffer;
-            cachedAvailableStacks = currentStacks;
-            cachedAvailableStacksBackBuffer = previousStacks;
+            if (!AEConfig.instance().isIncrementalInventoryCache()) {
+                // Stop recording changes, since they'd be stale by the time incremental updates are enabled again
+                storage.getChangeJournal().invalidate();
+                updateAllCachedStacks(false);
+            } else if (storage.getChangeJournal().isInvalidated()
+                    || ticksSinceFullUpdate >= AEConfig.instance().getInventoryCacheReconcileInterval()
+                    || !updateChangedCachedStacks()) {
+                updateAllCachedStacks(true);
+            }
+        } finally {
+            var elapsed = System.nanoTime() - time;
+            inventoryRefreshStats.add(elapsed);
+            telemetry.record(TelemetryService.Metric.STORAGE_REFRESH_NANOS, elapsed);
+        }
+    }
 
-            currentStacks.clear();
+    /**
+     * Rebuilds the cached stacks from the full content of the network storage.
+     *
+     * @param reconcile Also resynchronize the change journal of the network storage with its content.
+     */
+    private void updateAllCachedStacks(boolean reconcile) {
+        ticksSinceFullUpdate = 0;
+        fullInventoryRefreshes++;
+        cachedStacksVersion++;
+
+        // Update cache
+        var previousStacks = cachedAvailableStacks;
+        var currentStacks = cachedAvailableStacksBackBuffer;
+        cachedAvailableStacks = currentStacks;
+        cachedAvailableStacksBackBuffer = previousStacks;
+
+        currentStacks.clear();
+        if (reconcile) {
+            storage.reconcile(currentStacks);
+        } else {
             storage.getAvailableStacks(currentStacks);
+        }
 
-            // Post watcher update for currently available stacks
-            for (var entry : currentStacks) {
-                var what = entry.getKey();
-                var newAmount = entry.getLongValue();
-                if (newAmount != cachedAvailableAmounts.getLong(what)) {
-                    postWatcherUpdate(what, newAmount);
-                }
+        // Post watcher update for currently available stacks
+        currentStacks.forEach((what, newAmount) -> {
+            if (newAmount != cachedAvailableAmounts.getLong(what)) {
+                postWatcherUpdate(what, newAmount);
             }
-            // Post watcher update for removed stacks
-            for (var entry : cachedAvailableAmounts.object2LongEntrySet()) {
-                var what = entry.getKey();
-                var newAmount = currentStacks.get(what);
-                if (newAmount == 0) {
-                    postWatcherUpdate(what, newAmount);
-                }
+        });
+        // Post watcher update for removed stacks
+        for (var entry : cachedAvailableAmounts.object2LongEntrySet()) {
+            var what = entry.getKey();
+            var newAmount = currentStacks.get(what);
+            if (newAmount == 0) {
+                postWatcherUpdate(what, newAmount);
             }
+        }
 
-            // Update private amounts
-            cachedAvailableAmounts.clear();
-            for (var entry : currentStacks) {
-                cachedAvailableAmounts.put(entry.getKey(), entry.getLongValue());
+        // Update private amounts
+        cachedAvailableAmounts.clear();
+        currentStacks.forEach((what, amount) -> cachedAvailableAmounts.put(what, amount));
+    }
+
+    /**
+     * Applies the changes recorded by the network storage's change journal to the cached stacks.
+     *
+     * @return False if the recorded changes were inconsistent with the cached stacks, and a full update is required.
+     */
+    private boolean updateChangedCachedStacks() {
+        storage.pollChanges();
+
+        // Watchers might modify the storage while being notified, which is recorded in the next batch of changes
+        var consistent = true;
+        for (var entry : storage.getChangeJournal().drainChanges()) {
+            var delta = entry.getLongValue();
+            if (delta == 0) {
+                continue;
             }
-        } finally {
-            inventoryRefreshStats.add(System.nanoTime() - time);
+
+            var what = entry.getKey();
+            var newAmount = cachedAvailableAmounts.getLong(what) + delta;
+            cachedStacksVersion++;
+            if (newAmount < 0) {
+                // Some inventory reported more being removed than it ever reported being added
+                consistent = false;
+                newAmount = 0;
+            }
+
+            if (newAmount == 0) {
+                cachedAvailableAmounts.removeLong(what);
+                cachedAvailableStacks.removeKey(what);
+            } else {
+                cachedAvailableAmounts.put(what, newAmount);
+                cachedAvailableStacks.set(what, newAmount);
+            }
+            postWatcherUpdate(what, newAmount);
         }
+
+        return consistent;
     }
 
     private void postWatcherUpdate(AEKey what, long newAmount) {
+        if (changeLog != null) {
+            changeLog.record(what);
+        }
+        var notified = 0;
         for (var watcher : interestManager.get(what)) {
             watcher.getHost().onStackChange(what, newAmount);
+            notified++;
         }
         for (var watcher : interestManager.getAllStacksWatchers()) {
             watcher.getHost().onStackChange(what, newAmount);
+            notified++;
         }
+        telemetry.record(TelemetryService.Metric.WATCHER_NOTIFICATIONS, notified);
     }
 
     /**
@@ -201,6 +308,28 @@ public MEStorage getInventory() {
         return storage;
     }
 
+    /**
+     * The log is created on the first request, and dropped again after a tick in which nobody requested it. Consumers
+     * have to request it every tick to keep it alive, and resynchronize fully when they get a different log.
+     *
+     * @return The log of changes to the {@linkplain #getCachedInventory() cached inventory}, or null if it is disabled.
+     *         Changes are only recorded while the cached inventory is being updated.
+     */
+    @Nullable
+    public KeyChangeLog getChangeLog() {
+        var changeLogSize = AEConfig.instance().getTerminalChangeLogSize();
+        if (changeLogSize <= 0) {
+            changeLog = null;
+            return null;
+        }
+
+        if (changeLog == null) {
+            changeLog = new KeyChangeLog(changeLogSize);
+        }
+        changeLogRequested = true;
+        return changeLog;
+    }
+
     @Override
     public KeyCounter getCachedInventory() {
         if (cachedStacksNeedUpdate) {
@@ -209,6 +338,20 @@ public KeyCounter getCachedInventory() {
         return cachedAvailableStacks;
     }
 
+    /**
+     * Returns an immutable snapshot of the current {@linkplain #getCachedInventory() cached inventory}. The same
+     * snapshot is returned until the cached inventory changes. Must be called from the server thread.
+     */
+    public InventorySnapshot getInventorySnapshot() {
+        var cachedStacks = getCachedInventory();
+        var snapshot = inventorySnapshot;
+        if (snapshot.getVersion() != cachedStacksVersion) {
+            snapshot = InventorySnapshot.copyOf(cachedStacksVersion, cachedStacks);
+            inventorySnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
     @Override
     public void addGlobalStorageProvider(IStorageProvider provider) {
         var state = new ProviderState(provider);
@@ -252,6 +395,7 @@ public void refreshGlobalStorageProvider(IStorageProvider provider) {
     @Override
     public void invalidateCache() {
         cachedStacksNeedUpdate = true;
+        storage.getChangeJournal().invalidate();
     }
 
     /**
@@ -316,7 +460,8 @@ private void unmount(MEStorage inventory) {
     public void debugDump(JsonWriter writer, HolderLookup.Provider registries) throws IOException {
 
         JsonStreamUtil.writeProperties(Map.of(
-                "inventoryRefreshTime", JsonStreamUtil.toMap(inventoryRefreshStats)), writer);
+                "inventoryRefreshTime", JsonStreamUtil.toMap(inventoryRefreshStats),
+                "fullInventoryRefreshes", fullInventoryRefreshes), writer);
 
         writer.name("cachedAvailableStacks");
         writer.beginArray();
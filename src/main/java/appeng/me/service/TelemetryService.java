@@ -0,0 +1,217 @@
+package appeng.me.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.gson.stream.JsonWriter;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.HolderLookup;
+
+import appeng.api.networking.IGridService;
+import appeng.api.networking.IGridServiceProvider;
+import appeng.me.service.helpers.RollingSeries;
+
+/**
+ * Records what a grid did in each of the last {@link #WINDOW_TICKS} server ticks, to find out which grids and which
+ * of their services are expensive on a running server.
+ * <p/>
+ * Recording is toggled for all grids at once through {@link #ENABLED}, and the buffers are only allocated while it is
+ * enabled. Other services report to this service through {@link #record}, which does nothing while recording is off.
+ */
+public class TelemetryService implements IGridService, IGridServiceProvider {
+
+    public static boolean ENABLED = false;
+
+    public static final int WINDOW_TICKS = 200;
+
+    public enum Metric {
+        /**
+         * Time spent in the tick methods of all grid services.
+         */
+        TICK_NANOS,
+        /**
+         * Time spent updating the cached inventory of the storage service.
+         */
+        STORAGE_REFRESH_NANOS,
+        /**
+         * Time spent assigning channels.
+         */
+        PATHING_NANOS,
+        /**
+         * Patterns pushed to pattern providers by crafting CPUs.
+         */
+        CRAFTING_PUSHES,
+        /**
+         * Amount inserted into the network storage.
+         */
+        ITEMS_INSERTED,
+        /**
+         * Amount extracted from the network storage.
+         */
+        ITEMS_EXTRACTED,
+        /**
+         * Stack changes delivered to storage watchers.
+         */
+        WATCHER_NOTIFICATIONS;
+
+        private static final Metric[] VALUES = values();
+
+        public String getSerializedName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Nullable
+    private RollingSeries[] metrics;
+    /**
+     * Time spent in the tick methods of each grid service, by the class of the service.
+     */
+    private final Map<Class<?>, RollingSeries> serviceTimes = new LinkedHashMap<>();
+
+    @Override
+    public void onServerStartTick() {
+        if (!ENABLED) {
+            if (metrics != null) {
+                metrics = null;
+                serviceTimes.clear();
+            }
+            return;
+        }
+
+        if (metrics == null) {
+            metrics = new RollingSeries[Metric.VALUES.length];
+            for (int i = 0; i < metrics.length; i++) {
+                metrics[i] = new RollingSeries(WINDOW_TICKS);
+            }
+        } else {
+            for (var series : metrics) {
+                series.advance();
+            }
+            for (var series : serviceTimes.values()) {
+                series.advance();
+            }
+        }
+    }
+
+    /**
+     * @return True if values passed to this service are currently recorded. Callers can use this to skip measuring
+     *         time when it would be discarded anyway.
+     */
+    public boolean isRecording() {
+        return metrics != null;
+    }
+
+    public void record(Metric metric, long amount) {
+        if (metrics != null) {
+            metrics[metric.ordinal()].add(amount);
+        }
+    }
+
+    /**
+     * Records the time a grid service spent in one of its tick methods.
+     */
+    public void recordServiceTime(IGridServiceProvider service, long nanos) {
+        if (metrics != null) {
+            metrics[Metric.TICK_NANOS.ordinal()].add(nanos);
+            serviceTimes.computeIfAbsent(service.getClass(), c -> new RollingSeries(WINDOW_TICKS)).add(nanos);
+        }
+    }
+
+    /**
+     * @return The number of completed ticks that were recorded.
+     */
+    public int getRecordedTicks() {
+        return metrics != null ? metrics[0].size() : 0;
+    }
+
+    /**
+     * @return The average value of the metric per recorded tick.
+     */
+    public double getAverage(Metric metric) {
+        return metrics != null ? metrics[metric.ordinal()].getAverage() : 0;
+    }
+
+    public long getMax(Metric metric) {
+        return metrics != null ? metrics[metric.ordinal()].getMax() : 0;
+    }
+
+    /**
+     * @return The average tick time of each grid service in nanoseconds, by the simple name of the service class.
+     */
+    public Map<String, Double> getAverageServiceTimes() {
+        var result = new LinkedHashMap<String, Double>();
+        for (var entry : serviceTimes.entrySet()) {
+            result.put(entry.getKey().getSimpleName(), entry.getValue().getAverage());
+        }
+        return result;
+    }
+
+    /**
+     * Writes all recorded ticks as a JSON object, with the values of each series ordered from oldest to newest.
+     */
+    public void writeJson(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("ticks").value(getRecordedTicks());
+        writer.name("metrics");
+        writer.beginObject();
+        if (metrics != null) {
+            for (var metric : Metric.VALUES) {
+                writer.name(metric.getSerializedName());
+                writeSeries(writer, metrics[metric.ordinal()]);
+            }
+        }
+        writer.endObject();
+        writer.name("services");
+        writer.beginObject();
+        for (var entry : serviceTimes.entrySet()) {
+            writer.name(entry.getKey().getSimpleName());
+            writeSeries(writer, entry.getValue());
+        }
+        writer.endObject();
+        writer.endObject();
+    }
+
+    private static void writeSeries(JsonWriter writer, RollingSeries series) throws IOException {
+        writer.beginArray();
+        for (var value : series.toArray()) {
+            writer.value(value);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Writes all recorded ticks as CSV rows of grid serial, series name, ticks ago and value, without a header.
+     */
+    public void writeCsv(Writer writer, int gridSerial) throws IOException {
+        if (metrics != null) {
+            for (var metric : Metric.VALUES) {
+                writeSeries(writer, gridSerial, metric.getSerializedName(), metrics[metric.ordinal()]);
+            }
+        }
+        for (var entry : serviceTimes.entrySet()) {
+            writeSeries(writer, gridSerial, "service_nanos:" + entry.getKey().getSimpleName(), entry.getValue());
+        }
+    }
+
+    private static void writeSeries(Writer writer, int gridSerial, String name, RollingSeries series)
+            throws IOException {
+        for (int ticksAgo = series.size(); ticksAgo >= 1; ticksAgo--) {
+            writer.write(gridSerial + "," + name + "," + ticksAgo + "," + series.get(ticksAgo) + "\n");
+        }
+    }
+
+    @Override
+    public void debugDump(JsonWriter writer, HolderLookup.Provider registries) throws IOException {
+        writer.name("recordedTicks").value(getRecordedTicks());
+        if (metrics != null) {
+            for (var metric : Metric.VALUES) {
+                writer.name(metric.getSerializedName()).value(getAverage(metric));
+            }
+        }
+    }
+}
@@ -22,11 +22,9 @@
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Iterators;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -40,8 +38,10 @@
 import appeng.api.networking.ticking.IGridTickable;
 import appeng.api.networking.ticking.ITickManager;
 import appeng.api.networking.ticking.TickRateModulation;
+import appeng.core.AEConfig;
 import appeng.me.GridNode;
 import appeng.me.service.helpers.TickTracker;
+import appeng.me.service.helpers.TickWheel;
 
 public class TickManagerService implements ITickManager, IGridServiceProvider {
 
@@ -50,24 +50,48 @@ public class TickManagerService implements ITickManager, IGridServiceProvider {
     private static final int TICK_RATE_SPEED_UP_FACTOR = 2;
     private static final int TICK_RATE_SLOW_DOWN_FACTOR = 1;
 
-    private final Map<IGridNode, TickTracker> alertable = new HashMap<>();
-    private final Map<IGridNode, TickTracker> sleeping = new HashMap<>();
-    private final Map<IGridNode, TickTracker> awake = new HashMap<>();
-    private final Map<Level, PriorityQueue<TickTracker>> upcomingTicks = new HashMap<>();
+    /**
+     * Time spent ticking nodes of all grids in the current server tick, in nanoseconds.
+     */
+    private static long globalTickTime;
+
+    /**
+     * All tickable nodes, whether they are awake or sleeping.
+     */
+    private final Map<IGridNode, TickTracker> trackers = new HashMap<>();
+    private final Map<Level, TickWheel> upcomingTicks = new HashMap<>();
 
-    private PriorityQueue<TickTracker> currentlyTickingQueue = null;
+    private TickWheel currentlyTickingQueue = null;
 
     private long currentTick = 0;
     private final Stopwatch stopWatch = Stopwatch.createUnstarted();
+    /**
+     * Time spent ticking nodes of this grid in the current server tick, in nanoseconds.
+     */
+    private long tickTime;
+    private boolean deferredThisTick;
+    private boolean tickedThisTick;
+    private long overrunTicks;
+    private long deferredNodeTicks;
     @Nullable
     private IGridNode currentlyTicking;
 
     public TickManagerService() {
     }
 
+    /**
+     * Starts measuring the time spent ticking the nodes of all grids against the global tick budget.
+     */
+    public static void resetGlobalTickBudget() {
+        globalTickTime = 0;
+    }
+
     @Override
     public void onServerStartTick() {
         this.currentTick++;
+        this.tickTime = 0;
+        this.deferredThisTick = false;
+        this.tickedThisTick = false;
     }
 
     @Override
@@ -102,24 +126,33 @@ private void tickLevelQueue(@Nullable Level level) {
         }
     }
 
-    private void tickQueue(PriorityQueue<TickTracker> queue) {
-        TickTracker tt;
-
-        while (!queue.isEmpty()) {
-            // Peek and stop once it reaches a TickTracker running at a later tick
-            tt = queue.peek();
-            if (tt.getNextTick() > this.currentTick) {
+    private void tickQueue(TickWheel queue) {
+        queue.advanceTo(this.currentTick);
+
+        var gridBudget = AEConfig.instance().getGridTickBudgetMicros() * 1000L;
+        var globalBudget = AEConfig.instance().getGlobalGridTickBudgetMicros() * 1000L;
+        var measureTime = MONITORING_ENABLED || gridBudget > 0 || globalBudget > 0;
+
+        while (queue.getDueCount() > 0) {
+            var overBudget = (gridBudget > 0 && this.tickTime >= gridBudget)
+                    || (globalBudget > 0 && globalTickTime >= globalBudget);
+            if (overBudget) {
+                // The remaining nodes stay due, and will be the first to tick on the next tick
+                if (!this.deferredThisTick) {
+                    this.deferredThisTick = true;
+                    this.overrunTicks++;
+                }
+                this.deferredNodeTicks += queue.getDueCount();
                 break;
             }
 
-            if (queue.poll() != tt) {
-                throw new IllegalStateException();
-            }
+            var tt = queue.pollDue();
+            this.tickedThisTick = true;
             var diff = (int) (this.currentTick - tt.getLastTick());
             currentlyTicking = tt.getNode();
             TickRateModulation mod;
             try {
-                mod = this.unsafeTickingRequest(tt, diff);
+                mod = this.unsafeTickingRequest(tt, diff, measureTime);
             } finally {
                 currentlyTicking = null;
             }
@@ -141,9 +174,9 @@ private void tickQueue(PriorityQueue<TickTracker> queue) {
                 sleepDevice(tt.getNode());
             } else {
                 // Note that the node _may_ have been removed entirely from the grid in its own tick
-                if (this.awake.containsKey(tt.getNode())) {
+                if (tt.isAwake()) {
                     // Queue already known, no need to use addToQueue() to resolve it again.
-                    queue.add(tt);
+                    queue.schedule(tt);
                 }
             }
         }
@@ -153,12 +186,13 @@ private void tickQueue(PriorityQueue<TickTracker> queue) {
     public void removeNode(IGridNode gridNode) {
         var tickable = gridNode.getService(IGridTickable.class);
         if (tickable != null) {
-            this.alertable.remove(gridNode);
-            this.sleeping.remove(gridNode);
+            var tt = this.trackers.remove(gridNode);
 
             // Also remove the tracker from the queue to not tick it again.
-            var tt = this.awake.remove(gridNode);
-            this.removeFromQueue(gridNode, tt);
+            if (tt != null && tt.isAwake()) {
+                tt.setAwake(false);
+                this.removeFromQueue(gridNode, tt);
+            }
         }
     }
 
@@ -172,12 +206,10 @@ public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
 
             var tt = new TickTracker(tr, gridNode, tickable, this.currentTick);
 
-            this.alertable.put(gridNode, tt);
+            this.trackers.put(gridNode, tt);
 
-            if (tr.isSleeping()) {
-                this.sleeping.put(gridNode, tt);
-            } else {
-                this.awake.put(gridNode, tt);
+            if (!tr.isSleeping()) {
+                tt.setAwake(true);
                 this.addToQueue(gridNode, tt);
             }
         }
@@ -193,23 +225,19 @@ public boolean alertDevice(IGridNode node) {
             return false;
         }
 
-        var tt = this.alertable.get(node);
+        var tt = this.trackers.get(node);
         if (tt == null) {
-            if (this.sleeping.containsKey(node) || this.awake.containsKey(node)) {
-                throw new IllegalArgumentException("Trying to alert a node that isn't alertable");
-            }
             return false;
         }
 
         // set to awake, this is for sanity.
-        this.sleeping.remove(node);
-        this.awake.put(node, tt);
+        tt.setAwake(true);
 
         // configure sort.
         tt.setTickOnNextTick();
 
         // prevent dupes and tick build up.
-        this.updateQueuePosition(node, tt);
+        this.addToQueue(node, tt);
 
         return true;
     }
@@ -224,10 +252,10 @@ public boolean sleepDevice(IGridNode node) {
             return false;
         }
 
-        var tracker = awake.remove(node);
-        if (tracker != null) {
+        var tracker = trackers.get(node);
+        if (tracker != null && tracker.isAwake()) {
+            tracker.setAwake(false);
             tracker.setCurrentRate(tracker.getRequest().maxTickRate());
-            sleeping.put(node, tracker);
             removeFromQueue(node, tracker);
             return true;
         }
@@ -245,11 +273,10 @@ public boolean wakeDevice(IGridNode node) {
             return false;
         }
 
-        if (this.sleeping.containsKey(node)) {
-            final TickTracker tt = this.sleeping.get(node);
-            this.sleeping.remove(node);
-            this.awake.put(node, tt);
-            this.updateQueuePosition(node, tt);
+        var tt = this.trackers.get(node);
+        if (tt != null && !tt.isAwake()) {
+            tt.setAwake(true);
+            this.addToQueue(node, tt);
 
             return true;
         }
@@ -257,6 +284,35 @@ public boolean wakeDevice(IGridNode node) {
         return false;
     }
 
+    /**
+     * @return True if nodes of this grid that were due had to be deferred to a later tick in the current tick, because
+     *         the grid or all grids used up their tick budget.
+     */
+    public boolean hasDeferredThisTick() {
+        return deferredThisTick;
+    }
+
+    /**
+     * @return True if any node of this grid was ticked in the current tick.
+     */
+    public boolean hasTickedThisTick() {
+        return tickedThisTick;
+    }
+
+    /**
+     * @return The number of ticks in which this grid used up its tick budget and deferred nodes to a later tick.
+     */
+    public long getOverrunTicks() {
+        return overrunTicks;
+    }
+
+    /**
+     * @return The total number of node ticks that were deferred to a later tick because of the tick budget.
+     */
+    public long getDeferredNodeTicks() {
+        return deferredNodeTicks;
+    }
+
     /**
      * Reports the average time for a gridnode
      * <p>
@@ -303,12 +359,7 @@ public long getMaximumTime(IGridNode node) {
     }
 
     private LongSummaryStatistics getStatistics(IGridNode node) {
-        TickTracker tt = this.awake.get(node);
-
-        if (tt == null) {
-            tt = this.sleeping.get(node);
-        }
-
+        var tt = this.trackers.get(node);
         if (tt == null) {
             return null;
         }
@@ -319,18 +370,25 @@ private LongSummaryStatistics getStatistics(IGridNode node) {
     /**
      * null as level could be used for virtual nodes.
      */
-    private PriorityQueue<TickTracker> getQueue(@Nullable Level level) {
-        return this.upcomingTicks.computeIfAbsent(level, (key) -> new PriorityQueue<>());
+    private TickWheel getQueue(@Nullable Level level) {
+        // A new queue has not ticked on the current tick yet
+        return this.upcomingTicks.computeIfAbsent(level, (key) -> new TickWheel(this.currentTick - 1));
     }
 
+    /**
+     * Adds the tracker to the queue, or moves it to its new position if it is already queued.
+     */
     private void addToQueue(IGridNode node, TickTracker tt) {
         var queue = getQueue(node.getLevel());
-        queue.add(tt);
+        queue.schedule(tt);
     }
 
     private void removeFromQueue(IGridNode node, TickTracker tt) {
         var level = node.getLevel();
-        var queue = getQueue(level);
+        var queue = this.upcomingTicks.get(level);
+        if (queue == null) {
+            return;
+        }
         queue.remove(tt);
 
         // Make sure we don't cleanup a queue we are iterating over,
@@ -340,20 +398,15 @@ private void removeFromQueue(IGridNode node, TickTracker tt) {
         }
     }
 
-    private void updateQueuePosition(IGridNode node, TickTracker tt) {
-        this.removeFromQueue(node, tt);
-        this.addToQueue(node, tt);
-    }
-
     /**
      * Helper method to handle exceptions and report them without polluting the queue loop.
      * <p>
-     * Also tracks time statistics.
+     * Also tracks time statistics and the time used from the tick budget.
      */
-    private TickRateModulation unsafeTickingRequest(TickTracker tt, int diff) {
+    private TickRateModulation unsafeTickingRequest(TickTracker tt, int diff, boolean measureTime) {
         try {
-            // Shortcut to immediately return when monitoring is disabled.
-            if (!MONITORING_ENABLED) {
+            // Shortcut to immediately return when neither monitoring nor a tick budget is enabled.
+            if (!measureTime) {
                 return tt.getGridTickable().tickingRequest(tt.getNode(), diff);
             }
 
@@ -363,7 +416,11 @@ private TickRateModulation unsafeTickingRequest(TickTracker tt, int diff) {
 
             stopWatch.stop();
             var elapsedTime = stopWatch.elapsed(TimeUnit.NANOSECONDS);
-            tt.getStatistics().accept(elapsedTime);
+            if (MONITORING_ENABLED) {
+                tt.getStatistics().accept(elapsedTime);
+            }
+            this.tickTime += elapsedTime;
+            globalTickTime += elapsedTime;
 
             return mod;
         } catch (Throwable t) {
@@ -376,35 +433,27 @@ private TickRateModulation unsafeTickingRequest(TickTracker tt, int diff) {
     }
 
     /**
-     * This method is slow and only for debugging purposes.
+     * This method is only for debugging purposes.
      */
     public NodeStatus getStatus(IGridNode node) {
-        var sleepingTracker = sleeping.get(node);
-        var awakeTracker = awake.get(node);
-        var alertableTracker = alertable.get(node);
+        var tracker = trackers.get(node);
+        var awake = tracker != null && tracker.isAwake();
 
         // Also check if the node is _really_ queued for ticking. If it's awake
         // and not queued, this indicates a bug.
         boolean isQueued = false;
         var tickQueue = upcomingTicks.get(node.getLevel());
-        if (awakeTracker != null && tickQueue != null) {
-            isQueued = Iterators.contains(tickQueue.iterator(), awakeTracker);
+        if (awake && tickQueue != null) {
+            isQueued = tickQueue.contains(tracker);
         }
 
         // Get the tick-request stats
-        var tracker = awakeTracker;
-        if (tracker == null) {
-            tracker = alertableTracker;
-        }
-        if (tracker == null) {
-            tracker = sleepingTracker;
-        }
         var currentRate = tracker != null ? tracker.getCurrentRate() : 0;
         var lastTick = tracker != null ? tracker.getLastTick() : 0;
         return new NodeStatus(
-                alertableTracker != null,
-                sleepingTracker != null,
-                awakeTracker != null,
+                tracker != null,
+                tracker != null && !awake,
+                awake,
                 isQueued,
                 currentRate,
                 currentTick - lastTick);
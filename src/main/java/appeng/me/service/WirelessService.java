@@ -0,0 +1,128 @@
+package appeng.me.service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.Level;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import appeng.api.networking.IGridNode;
+import appeng.api.networking.IGridService;
+import appeng.api.networking.IGridServiceProvider;
+import appeng.blockentity.networking.WirelessAccessPointBlockEntity;
+
+/**
+ * Indexes the wireless access points of a grid by the area they cover, so that wireless terminals only have to check
+ * the access points that may be in range of the player, instead of all access points on the grid.
+ * <p/>
+ * The horizontal plane of each level is divided into square cells, and every access point is listed in all cells its
+ * range overlaps. Looking up the access points near a position is thus a single map lookup. Whether an access point
+ * is active is not indexed, since that changes often and is cheap to check.
+ */
+public class WirelessService implements IGridService, IGridServiceProvider {
+    /**
+     * Cells are 128 blocks wide.
+     */
+    private static final int CELL_BITS = 7;
+
+    private final Map<Level, Long2ObjectMap<List<WirelessAccessPointBlockEntity>>> cells = new IdentityHashMap<>();
+    private final Map<WirelessAccessPointBlockEntity, Coverage> coverage = new IdentityHashMap<>();
+
+    @Override
+    public void addNode(IGridNode gridNode, @Nullable CompoundTag savedData) {
+        if (gridNode.getOwner() instanceof WirelessAccessPointBlockEntity accessPoint) {
+            updateAccessPoint(accessPoint);
+        }
+    }
+
+    @Override
+    public void removeNode(IGridNode gridNode) {
+        if (gridNode.getOwner() instanceof WirelessAccessPointBlockEntity accessPoint) {
+            var previous = coverage.remove(accessPoint);
+            if (previous != null) {
+                unindex(accessPoint, previous);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the access point after its range changed.
+     */
+    public void updateAccessPoint(WirelessAccessPointBlockEntity accessPoint) {
+        var level = accessPoint.getLevel();
+        if (level == null) {
+            return;
+        }
+
+        var current = new Coverage(level, accessPoint.getBlockPos().immutable(), accessPoint.getRange());
+        var previous = coverage.put(accessPoint, current);
+        if (current.equals(previous)) {
+            return;
+        }
+
+        if (previous != null) {
+            unindex(accessPoint, previous);
+        }
+        var levelCells = cells.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>());
+        current.forEachCell(cell -> levelCells.computeIfAbsent(cell, c -> new ArrayList<>()).add(accessPoint));
+    }
+
+    /**
+     * @return The access points whose range may include the given position. The list must not be modified.
+     */
+    public List<WirelessAccessPointBlockEntity> getAccessPointsNear(Level level, double x, double z) {
+        var levelCells = cells.get(level);
+        if (levelCells == null) {
+            return List.of();
+        }
+        var accessPoints = levelCells.get(cellKey(toCell(x), toCell(z)));
+        return accessPoints != null ? accessPoints : List.of();
+    }
+
+    private void unindex(WirelessAccessPointBlockEntity accessPoint, Coverage previous) {
+        var levelCells = cells.get(previous.level());
+        if (levelCells == null) {
+            return;
+        }
+        previous.forEachCell(cell -> {
+            var accessPoints = levelCells.get(cell);
+            if (accessPoints != null && accessPoints.remove(accessPoint) && accessPoints.isEmpty()) {
+                levelCells.remove(cell);
+            }
+        });
+        if (levelCells.isEmpty()) {
+            cells.remove(previous.level());
+        }
+    }
+
+    private static int toCell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_BITS;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private record Coverage(Level level, BlockPos pos, double range) {
+        void forEachCell(LongConsumer consumer) {
+            int minX = toCell(pos.getX() - range);
+            int maxX = toCell(pos.getX() + range);
+            int minZ = toCell(pos.getZ() - range);
+            int maxZ = toCell(pos.getZ() + range);
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    consumer.accept(cellKey(x, z));
+                }
+            }
+        }
+    }
+}
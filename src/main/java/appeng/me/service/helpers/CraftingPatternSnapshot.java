@@ -0,0 +1,57 @@
+package appeng.me.service.helpers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.AEKeyFilter;
+import appeng.crafting.CraftingPlanCache;
+
+/**
+ * An immutable copy of the patterns and emitable stacks of a grid at one pattern set version. Crafting calculations
+ * read from it while they run on their own threads, while the server thread keeps changing the live pattern lists.
+ */
+public final class CraftingPatternSnapshot implements CraftingPlanCache.PatternLookup {
+    private final Map<AEKey, List<IPatternDetails>> patterns;
+    private final Set<AEKey> emitableItems;
+    /**
+     * The outputs of all patterns, only used for fuzzy lookups. Its fuzzy index must be built before the snapshot is
+     * shared, since building it lazily from several threads at once would corrupt it.
+     */
+    private final KeyCounter craftableItems;
+
+    CraftingPatternSnapshot(Map<AEKey, List<IPatternDetails>> patterns, Set<AEKey> emitableItems,
+            KeyCounter craftableItems) {
+        this.patterns = Map.copyOf(patterns);
+        this.emitableItems = Set.copyOf(emitableItems);
+        this.craftableItems = craftableItems;
+    }
+
+    @Override
+    public Collection<IPatternDetails> getCraftingFor(AEKey whatToCraft) {
+        return this.patterns.getOrDefault(whatToCraft, List.of());
+    }
+
+    @Nullable
+    @Override
+    public AEKey getFuzzyCraftable(AEKey whatToCraft, AEKeyFilter filter) {
+        for (var fuzzy : this.craftableItems.findFuzzy(whatToCraft, FuzzyMode.IGNORE_ALL)) {
+            if (filter.matches(fuzzy.getKey())) {
+                return fuzzy.getKey();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canEmitFor(AEKey what) {
+        return this.emitableItems.contains(what);
+    }
+}
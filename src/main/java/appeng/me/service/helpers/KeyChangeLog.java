@@ -0,0 +1,57 @@
+package appeng.me.service.helpers;
+
+import java.util.function.Consumer;
+
+import appeng.api.stacks.AEKey;
+
+/**
+ * A bounded log of the keys whose amount in a grid's cached inventory changed, in the order the changes happened.
+ * <p/>
+ * Every recorded change increments the version of the log. Consumers remember the version they have last seen and ask
+ * for the keys changed since then. Only the most recent changes are kept in a ring buffer, so a consumer that falls
+ * behind by more than the capacity of the log has to fully resynchronize instead.
+ */
+public final class KeyChangeLog {
+    private final AEKey[] entries;
+    private final int mask;
+    /**
+     * The version after the most recent change, which is also the total number of changes recorded.
+     */
+    private long version;
+
+    /**
+     * @param capacity The number of changes to keep. Rounded up to the next power of two.
+     */
+    public KeyChangeLog(int capacity) {
+        var size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new AEKey[size];
+        this.mask = size - 1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void record(AEKey what) {
+        entries[(int) (version & mask)] = what;
+        version++;
+    }
+
+    /**
+     * Passes the keys that changed since the given version to the consumer, oldest first. A key may be passed more than
+     * once.
+     *
+     * @return False if some of the changes since the given version are no longer available, in which case the consumer
+     *         is not called at all.
+     */
+    public boolean getChangesSince(long sinceVersion, Consumer<AEKey> consumer) {
+        if (sinceVersion > version || version - sinceVersion > entries.length) {
+            return false;
+        }
+
+        for (var v = sinceVersion; v < version; v++) {
+            consumer.accept(entries[(int) (v & mask)]);
+        }
+        return true;
+    }
+}
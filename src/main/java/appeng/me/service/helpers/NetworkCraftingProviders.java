@@ -36,6 +36,10 @@ public class NetworkCraftingProviders {
      */
     private final KeyCounter craftableItemsList = new KeyCounter();
     private final Map<AEKey, Integer> emitableItems = new HashMap<>();
+    /**
+     * Incremented whenever a provider is added or removed, i.e. whenever the available patterns may have changed.
+     */
+    private long patternSetVersion;
 
     public void addProvider(IGridNode node) {
         var provider = node.getService(ICraftingProvider.class);
@@ -46,6 +50,7 @@ public void addProvider(IGridNode node) {
             var state = new ProviderState(provider);
             state.mount(this);
             craftingProviders.put(node, state);
+            patternSetVersion++;
         }
     }
 
@@ -55,10 +60,30 @@ public void removeProvider(IGridNode node) {
             var state = craftingProviders.remove(node);
             if (state != null) {
                 state.unmount(this);
+                patternSetVersion++;
             }
         }
     }
 
+    public long getPatternSetVersion() {
+        return patternSetVersion;
+    }
+
+    /**
+     * Copies the current patterns and emitable stacks, so that crafting calculations can read them from other threads.
+     */
+    public CraftingPatternSnapshot createSnapshot() {
+        var patterns = new HashMap<AEKey, List<IPatternDetails>>(this.craftableItems.size());
+        for (var entry : this.craftableItems.entrySet()) {
+            patterns.put(entry.getKey(), entry.getValue().getSortedPatterns());
+        }
+        var craftables = new KeyCounter();
+        craftables.addAll(this.craftableItemsList);
+        // The snapshot is searched from several threads at once, so the lazily built fuzzy index must exist already
+        craftables.buildFuzzyIndex();
+        return new CraftingPatternSnapshot(patterns, this.emitableItems.keySet(), craftables);
+    }
+
     public Set<AEKey> getCraftables(AEKeyFilter filter) {
         var result = new HashSet<AEKey>();
 
@@ -196,6 +221,7 @@ private void sortPatterns() {
                     .map(PatternInfo::pattern)
                     .distinct()
                     .toList();
+            needsSorting = false;
         }
 
         private List<IPatternDetails> getSortedPatterns() {
@@ -0,0 +1,93 @@
+package appeng.me.service.helpers;
+
+/**
+ * A fixed number of per-tick values in a ring buffer. Values are added to the current tick until {@link #advance()}
+ * completes it, and the oldest completed tick is overwritten once the buffer is full.
+ */
+public final class RollingSeries {
+    private final long[] values;
+    /**
+     * The slot of the current tick.
+     */
+    private int head;
+    /**
+     * The number of completed ticks that are still in the buffer.
+     */
+    private int completed;
+
+    /**
+     * @param capacity The number of completed ticks to keep.
+     */
+    public RollingSeries(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        // One additional slot for the current tick
+        this.values = new long[capacity + 1];
+    }
+
+    /**
+     * Adds to the value of the current tick.
+     */
+    public void add(long amount) {
+        values[head] += amount;
+    }
+
+    /**
+     * Completes the current tick and starts a new one at zero.
+     */
+    public void advance() {
+        head = (head + 1) % values.length;
+        values[head] = 0;
+        if (completed < values.length - 1) {
+            completed++;
+        }
+    }
+
+    /**
+     * @return The number of completed ticks in the buffer.
+     */
+    public int size() {
+        return completed;
+    }
+
+    /**
+     * @param ticksAgo 1 for the last completed tick, up to {@link #size()} for the oldest.
+     */
+    public long get(int ticksAgo) {
+        if (ticksAgo < 1 || ticksAgo > completed) {
+            throw new IndexOutOfBoundsException(ticksAgo);
+        }
+        return values[Math.floorMod(head - ticksAgo, values.length)];
+    }
+
+    public double getAverage() {
+        if (completed == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 1; i <= completed; i++) {
+            sum += get(i);
+        }
+        return sum / (double) completed;
+    }
+
+    public long getMax() {
+        long max = 0;
+        for (int i = 1; i <= completed; i++) {
+            max = Math.max(max, get(i));
+        }
+        return max;
+    }
+
+    /**
+     * @return The completed ticks, oldest first.
+     */
+    public long[] toArray() {
+        var result = new long[completed];
+        for (int i = 0; i < completed; i++) {
+            result[i] = get(completed - i);
+        }
+        return result;
+    }
+}
@@ -20,6 +20,8 @@
 
 import java.util.LongSummaryStatistics;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.CrashReportCategory;
 import net.minecraft.util.Mth;
 
@@ -36,6 +38,14 @@ public class TickTracker implements Comparable<TickTracker> {
 
     private long lastTick;
     private int currentRate;
+    private boolean awake;
+
+    // Position of this tracker in its TickWheel
+    int wheelSlot = TickWheel.NOT_SCHEDULED;
+    @Nullable
+    TickTracker prevInSlot;
+    @Nullable
+    TickTracker nextInSlot;
 
     public TickTracker(TickingRequest req, IGridNode node, IGridTickable gt, long currentTick) {
         this.request = req;
@@ -100,6 +110,14 @@ public void setLastTick(long lastTick) {
         this.lastTick = lastTick;
     }
 
+    public boolean isAwake() {
+        return this.awake;
+    }
+
+    public void setAwake(boolean awake) {
+        this.awake = awake;
+    }
+
     public IGridNode getNode() {
         return this.node;
     }
@@ -0,0 +1,193 @@
+package appeng.me.service.helpers;
+
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Schedules {@link TickTracker} by their {@link TickTracker#getNextTick() next tick} using a hierarchical timing wheel,
+ * so that scheduling, rescheduling and removing a tracker take constant time regardless of how many trackers are
+ * scheduled.
+ * <p/>
+ * The first level of the wheel has one slot per tick, and every further level has one slot per full revolution of the
+ * level below it. Whenever a level completes a revolution, the trackers in the next slot of the level above are
+ * distributed onto the lower levels again. Trackers are linked into their slot directly, and can only be scheduled in
+ * one wheel at a time.
+ * <p/>
+ * Trackers that are due are handed out in the same order a {@link PriorityQueue} of all trackers would use, and
+ * trackers that become due while the due trackers are being processed are handed out in the same pass.
+ */
+public final class TickWheel {
+    static final int NOT_SCHEDULED = -1;
+    private static final int DUE = -2;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    /**
+     * Trackers that are due later than this are scheduled for the last slot of the wheel and will be scheduled again
+     * once that slot is reached.
+     */
+    private static final long MAX_DELAY = 1L << (SLOT_BITS * LEVELS);
+
+    private final TickTracker[] slots = new TickTracker[SLOTS * LEVELS];
+    private final PriorityQueue<TickTracker> due = new PriorityQueue<>();
+    private int scheduledInSlots;
+
+    /**
+     * The last tick that was processed. Trackers whose next tick is not after this are due.
+     */
+    private long now;
+
+    /**
+     * @param lastProcessedTick Trackers that are due on or before this tick will be due right away.
+     */
+    public TickWheel(long lastProcessedTick) {
+        this.now = lastProcessedTick;
+    }
+
+    /**
+     * Schedules the tracker for its next tick, or reschedules it if it was already scheduled.
+     */
+    public void schedule(TickTracker tracker) {
+        remove(tracker);
+
+        var nextTick = tracker.getNextTick();
+        if (nextTick <= now) {
+            tracker.wheelSlot = DUE;
+            due.add(tracker);
+        } else {
+            link(tracker, getSlot(nextTick));
+        }
+    }
+
+    /**
+     * @return True if the tracker was scheduled.
+     */
+    public boolean remove(TickTracker tracker) {
+        var slot = tracker.wheelSlot;
+        if (slot == NOT_SCHEDULED) {
+            return false;
+        } else if (slot == DUE) {
+            due.remove(tracker);
+            tracker.wheelSlot = NOT_SCHEDULED;
+        } else {
+            unlink(tracker);
+        }
+        return true;
+    }
+
+    public boolean contains(TickTracker tracker) {
+        return tracker.wheelSlot != NOT_SCHEDULED;
+    }
+
+    /**
+     * @return The number of trackers that are due, but were not handed out yet.
+     */
+    public int getDueCount() {
+        return due.size();
+    }
+
+    public boolean isEmpty() {
+        return scheduledInSlots == 0 && due.isEmpty();
+    }
+
+    /**
+     * Makes all trackers that are scheduled on or before the given tick due.
+     */
+    public void advanceTo(long tick) {
+        if (tick - now >= MAX_DELAY) {
+            // Don't step through every tick after a long pause, just schedule everything again
+            var trackers = new ArrayList<TickTracker>(scheduledInSlots);
+            for (int slot = 0; slot < slots.length; slot++) {
+                for (var tracker = slots[slot]; tracker != null; tracker = tracker.nextInSlot) {
+                    trackers.add(tracker);
+                }
+            }
+            now = tick;
+            for (var tracker : trackers) {
+                schedule(tracker);
+            }
+            return;
+        }
+
+        while (now < tick) {
+            now++;
+            // Higher levels first, since they might move trackers into slots of lower levels that are due now
+            for (int level = LEVELS - 1; level > 0; level--) {
+                var levelShift = SLOT_BITS * level;
+                if ((now & ((1L << levelShift) - 1)) == 0) {
+                    rescheduleSlot(level * SLOTS + (int) ((now >>> levelShift) & SLOT_MASK));
+                }
+            }
+            rescheduleSlot((int) (now & SLOT_MASK));
+        }
+    }
+
+    /**
+     * Removes the next due tracker, in order of their next tick.
+     */
+    @Nullable
+    public TickTracker pollDue() {
+        var tracker = due.poll();
+        if (tracker != null) {
+            tracker.wheelSlot = NOT_SCHEDULED;
+        }
+        return tracker;
+    }
+
+    private void rescheduleSlot(int slot) {
+        var tracker = slots[slot];
+        while (tracker != null) {
+            var next = tracker.nextInSlot;
+            schedule(tracker);
+            tracker = next;
+        }
+    }
+
+    private int getSlot(long nextTick) {
+        var delay = nextTick - now;
+        if (delay >= MAX_DELAY) {
+            delay = MAX_DELAY - 1;
+            nextTick = now + delay;
+        }
+
+        int level = 0;
+        while (delay >= SLOTS) {
+            delay >>>= SLOT_BITS;
+            level++;
+        }
+        return level * SLOTS + (int) ((nextTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private void link(TickTracker tracker, int slot) {
+        var head = slots[slot];
+        tracker.wheelSlot = slot;
+        tracker.prevInSlot = null;
+        tracker.nextInSlot = head;
+        if (head != null) {
+            head.prevInSlot = tracker;
+        }
+        slots[slot] = tracker;
+        scheduledInSlots++;
+    }
+
+    private void unlink(TickTracker tracker) {
+        var prev = tracker.prevInSlot;
+        var next = tracker.nextInSlot;
+        if (prev == null) {
+            slots[tracker.wheelSlot] = next;
+        } else {
+            prev.nextInSlot = next;
+        }
+        if (next != null) {
+            next.prevInSlot = prev;
+        }
+        tracker.prevInSlot = null;
+        tracker.nextInSlot = null;
+        tracker.wheelSlot = NOT_SCHEDULED;
+        scheduledInSlots--;
+    }
+}
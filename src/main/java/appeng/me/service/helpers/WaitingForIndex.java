@@ -0,0 +1,45 @@
+package appeng.me.service.helpers;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import appeng.api.stacks.AEKey;
+import appeng.crafting.execution.CraftingCpuLogic;
+
+/**
+ * Maps every key to the crafting CPUs of a grid that are currently waiting for it, so that stacks entering the grid
+ * only have to be offered to the CPUs that can actually accept them.
+ * <p/>
+ * The CPUs keep the index up to date themselves whenever the amount they are waiting for changes between zero and a
+ * positive amount.
+ */
+public final class WaitingForIndex {
+    private final Map<AEKey, Set<CraftingCpuLogic>> cpusByKey = new HashMap<>();
+
+    public void setWaiting(CraftingCpuLogic cpu, AEKey what, boolean waiting) {
+        if (waiting) {
+            cpusByKey.computeIfAbsent(what, k -> new LinkedHashSet<>()).add(cpu);
+        } else {
+            var cpus = cpusByKey.get(what);
+            if (cpus != null && cpus.remove(cpu) && cpus.isEmpty()) {
+                cpusByKey.remove(what);
+            }
+        }
+    }
+
+    /**
+     * @return A copy of the CPUs waiting for the given key, which stays valid while inserting into them changes the
+     *         index.
+     */
+    public List<CraftingCpuLogic> getWaitingCpus(AEKey what) {
+        var cpus = cpusByKey.get(what);
+        return cpus != null ? List.copyOf(cpus) : List.of();
+    }
+
+    public boolean isEmpty() {
+        return cpusByKey.isEmpty();
+    }
+}
@@ -12,6 +12,7 @@
 import appeng.api.stacks.AEKeyType;
 import appeng.api.stacks.KeyCounter;
 import appeng.api.storage.MEStorage;
+import appeng.core.AEConfig;
 import appeng.core.localization.GuiText;
 
 /**
@@ -24,6 +25,12 @@ public class CompositeStorage implements MEStorage, ITickingMonitor {
 
     private boolean forceCacheRebuild = true;
 
+    /**
+     * Set when the storages were replaced, in which case the cache can't rely on the change tracking of the previous
+     * storages.
+     */
+    private boolean storagesChanged = true;
+
     public CompositeStorage(Map<AEKeyType, MEStorage> storages) {
         this.storages = storages;
         this.cache = new InventoryCache();
@@ -31,6 +38,7 @@ public CompositeStorage(Map<AEKeyType, MEStorage> storages) {
 
     public void setStorages(Map<AEKeyType, MEStorage> storages) {
         this.storages = Objects.requireNonNull(storages);
+        this.storagesChanged = true;
     }
 
     @Override
@@ -85,9 +93,12 @@ public Component getDescription() {
     @Override
     public TickRateModulation onTick() {
         forceCacheRebuild = false;
-        boolean changed = this.cache.update();
+        boolean changed = this.cache.update(AEConfig.instance().getStorageBusScanSlotsPerTick());
         if (changed) {
             return TickRateModulation.URGENT;
+        } else if (this.cache.isScanInProgress()) {
+            // Keep the rate until all slots of large inventories were looked at once
+            return TickRateModulation.SAME;
         } else {
             return TickRateModulation.SLOWER;
         }
@@ -97,7 +108,8 @@ public TickRateModulation onTick() {
     public void getAvailableStacks(KeyCounter out) {
         if (forceCacheRebuild) {
             forceCacheRebuild = false;
-            cache.update();
+            // Only pick up the slots we changed ourselves, scanning for other changes is left to the tick
+            cache.update(0);
         }
         this.cache.getAvailableKeys(out);
     }
@@ -106,7 +118,31 @@ private class InventoryCache {
         private KeyCounter frontBuffer = new KeyCounter();
         private KeyCounter backBuffer = new KeyCounter();
 
-        public boolean update() {
+        private boolean scanInProgress;
+
+        /**
+         * External inventories are updated through their {@link ExternalInventoryCache}, which only rescans up to the
+         * given number of slots. The combined list is only rebuilt if one of the storages changed.
+         */
+        public boolean update(int maxScannedSlots) {
+            boolean externalChanged = storagesChanged;
+            boolean onlyExternal = true;
+            storagesChanged = false;
+            scanInProgress = false;
+            for (var storage : storages.values()) {
+                if (storage instanceof ExternalStorageFacade facade) {
+                    var inventoryCache = facade.getInventoryCache();
+                    externalChanged |= inventoryCache.update(maxScannedSlots);
+                    scanInProgress |= inventoryCache.isScanInProgress();
+                } else {
+                    onlyExternal = false;
+                }
+            }
+
+            if (onlyExternal && !externalChanged) {
+                return false;
+            }
+
             // Flip back & front buffer and start building a new list
             var tmp = backBuffer;
             backBuffer = frontBuffer;
@@ -115,7 +151,11 @@ public boolean update() {
 
             // Rebuild the front buffer
             for (var storage : storages.values()) {
-                storage.getAvailableStacks(frontBuffer);
+                if (storage instanceof ExternalStorageFacade facade) {
+                    facade.getInventoryCache().getAvailableItems(frontBuffer);
+                } else {
+                    storage.getAvailableStacks(frontBuffer);
+                }
             }
 
             boolean changed = false;
@@ -138,6 +178,10 @@ public boolean update() {
             return changed;
         }
 
+        public boolean isScanInProgress() {
+            return scanInProgress;
+        }
+
         public void getAvailableKeys(KeyCounter out) {
             out.addAll(frontBuffer);
         }
@@ -18,16 +18,24 @@
 
 package appeng.me.storage;
 
+import org.jetbrains.annotations.Nullable;
+
 import appeng.api.config.Actionable;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.stacks.AEKey;
 import appeng.api.storage.cells.CellState;
 import appeng.api.storage.cells.StorageCell;
 
-public class DriveWatcher extends MEInventoryHandler {
+public class DriveWatcher extends MEInventoryHandler implements IJournaledStorage {
 
     private CellState oldStatus = CellState.EMPTY;
     private final Runnable activityCallback;
+    @Nullable
+    private StorageChangeJournal changeJournal;
+    /**
+     * True while the cell is modified through this watcher, which reports those changes itself.
+     */
+    private boolean modifying;
 
     public DriveWatcher(StorageCell i, Runnable activityCallback) {
         super(i);
@@ -43,11 +51,45 @@ public StorageCell getCell() {
         return (StorageCell) getDelegate();
     }
 
+    @Override
+    public void setChangeJournal(@Nullable StorageChangeJournal changeJournal) {
+        this.changeJournal = changeJournal;
+    }
+
+    /**
+     * Called whenever the content of the cell has changed. Changes that were not made through this watcher, for example
+     * through {@link appeng.api.implementations.blockentities.IChestOrDrive#getOriginalCellInventory}, can't be
+     * expressed as a delta, so only the keys the cell now holds are reported.
+     */
+    public void onCellContentChanged() {
+        if (!modifying && changeJournal != null) {
+            changeJournal.recordUnknownChange(this, getAvailableStacks());
+        }
+    }
+
     @Override
     public long insert(AEKey what, long amount, Actionable mode, IActionSource source) {
-        var inserted = super.insert(what, amount, mode, source);
+        var storedBefore = needsStoredBefore(mode) ? getStoredAmount(what, source) : 0;
+
+        long inserted;
+        modifying = true;
+        try {
+            inserted = super.insert(what, amount, mode, source);
+        } finally {
+            modifying = false;
+        }
 
         if (mode == Actionable.MODULATE && inserted > 0) {
+            if (changeJournal != null) {
+                if (getCell().reportsExactChanges()) {
+                    changeJournal.recordChange(what, inserted);
+                    changeJournal.recordHeld(this, what, true);
+                } else {
+                    // The cell might void some of the inserted amount, so we can't rely on the returned amount
+                    recordStoredAmount(what, storedBefore, source);
+                }
+            }
+
             var newStatus = this.getStatus();
 
             if (newStatus != this.oldStatus) {
@@ -61,7 +103,27 @@ public long insert(AEKey what, long amount, Actionable mode, IActionSource sourc
 
     @Override
     public long extract(AEKey what, long amount, Actionable mode, IActionSource source) {
-        var extracted = super.extract(what, amount, mode, source);
+        var storedBefore = needsStoredBefore(mode) ? getStoredAmount(what, source) : 0;
+
+        long extracted;
+        modifying = true;
+        try {
+            extracted = super.extract(what, amount, mode, source);
+        } finally {
+            modifying = false;
+        }
+
+        if (mode == Actionable.MODULATE && changeJournal != null) {
+            if (getCell().reportsExactChanges()) {
+                changeJournal.recordChange(what, -extracted);
+                // Getting less than was asked for means that the cell ran out
+                if (extracted < amount && canExtract(what)) {
+                    changeJournal.recordHeld(this, what, false);
+                }
+            } else if (extracted > 0) {
+                recordStoredAmount(what, storedBefore, source);
+            }
+        }
 
         if (mode == Actionable.MODULATE && extracted > 0) {
             var newStatus = this.getStatus();
@@ -74,4 +136,28 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
 
         return extracted;
     }
+
+    /**
+     * @return True if the change to the content has to be measured by querying the cell before and after the
+     *         operation, because it can't be derived from the returned amount.
+     */
+    private boolean needsStoredBefore(Actionable mode) {
+        return mode == Actionable.MODULATE && changeJournal != null && !changeJournal.isInvalidated()
+                && !getCell().reportsExactChanges();
+    }
+
+    /**
+     * Records the change to the stored amount of a cell that doesn't report its changes exactly.
+     */
+    private void recordStoredAmount(AEKey what, long storedBefore, IActionSource source) {
+        var storedAfter = getStoredAmount(what, source);
+        if (!changeJournal.isInvalidated()) {
+            changeJournal.recordChange(what, storedAfter - storedBefore);
+        }
+        changeJournal.recordHeld(this, what, storedAfter > 0);
+    }
+
+    private long getStoredAmount(AEKey what, IActionSource source) {
+        return getCell().extract(what, Long.MAX_VALUE, Actionable.SIMULATE, source);
+    }
 }
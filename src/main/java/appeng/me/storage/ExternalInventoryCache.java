@@ -1,15 +1,34 @@
 package appeng.me.storage;
 
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.BitSet;
+import java.util.Objects;
 
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.GenericStack;
 import appeng.api.stacks.KeyCounter;
 
+/**
+ * Caches the available stacks in the slots of an external inventory, so that changes can be found without rescanning
+ * every slot of large inventories each tick.
+ * <p/>
+ * Slots that were changed through the {@link ExternalStorageFacade} itself are marked dirty and updated right away.
+ * Changes made by others can only be found by scanning the slots, which is spread over several updates for inventories
+ * with more slots than are scanned per update.
+ */
 class ExternalInventoryCache {
     private GenericStack[] cached = new GenericStack[0];
+    private final KeyCounter available = new KeyCounter();
+    private final BitSet dirtySlots = new BitSet();
+    private boolean allSlotsDirty = true;
+    /**
+     * The next slot to scan for changes made by others.
+     */
+    private int scanPosition;
+    /**
+     * True while a scan of all slots is spread over several updates.
+     */
+    private boolean scanInProgress;
     private final ExternalStorageFacade facade;
 
     private ExternalInventoryCache(ExternalStorageFacade facade) {
@@ -21,35 +40,73 @@ public static ExternalInventoryCache of(ExternalStorageFacade facade) {
     }
 
     public void getAvailableItems(KeyCounter out) {
-        for (GenericStack stack : cached) {
-            out.add(stack.what(), stack.amount());
-        }
+        out.addAll(available);
+    }
+
+    public void markSlotDirty(int slot) {
+        dirtySlots.set(slot);
+    }
+
+    public void markAllSlotsDirty() {
+        allSlotsDirty = true;
+    }
+
+    public boolean isScanInProgress() {
+        return scanInProgress;
     }
 
-    public Set<AEKey> update() {
-        var changes = new HashSet<AEKey>();
+    /**
+     * Updates all dirty slots, and scans the given number of further slots for changes made by others.
+     *
+     * @return True if the available stacks changed.
+     */
+    public boolean update(int maxScannedSlots) {
         final int slots = this.facade.getSlots();
+        var changed = resize(slots);
 
-        // Make room for new slots
-        if (slots > this.cached.length) {
-            this.cached = Arrays.copyOf(this.cached, slots);
+        if (allSlotsDirty || maxScannedSlots >= slots) {
+            allSlotsDirty = false;
+            dirtySlots.clear();
+            for (int slot = 0; slot < slots; slot++) {
+                changed |= updateSlot(slot);
+            }
+            scanPosition = 0;
+            scanInProgress = false;
+            return changed;
         }
 
-        for (int slot = 0; slot < slots; slot++) {
-            // Save the old stuff
-            var oldGenericStack = this.cached[slot];
-            var newGenericStack = facade.getStackInSlot(slot);
+        for (int slot = dirtySlots.nextSetBit(0); slot >= 0 && slot < slots; slot = dirtySlots.nextSetBit(slot + 1)) {
+            changed |= updateSlot(slot);
+        }
+        dirtySlots.clear();
 
-            this.handlePossibleSlotChanges(slot, oldGenericStack, newGenericStack, changes);
+        // Continue scanning where the last update stopped
+        for (int i = 0; i < maxScannedSlots; i++) {
+            if (scanPosition >= slots) {
+                scanPosition = 0;
+            }
+            changed |= updateSlot(scanPosition++);
+        }
+        if (maxScannedSlots > 0) {
+            scanInProgress = scanPosition < slots;
         }
 
-        // Handle cases where the number of slots actually is lower now than before
-        if (slots < this.cached.length) {
-            for (int slot = slots; slot < this.cached.length; slot++) {
-                final GenericStack aeStack = this.cached[slot];
+        return changed;
+    }
+
+    private boolean resize(int slots) {
+        var changed = false;
 
-                if (aeStack != null) {
-                    changes.add(aeStack.what());
+        // Make room for new slots
+        if (slots > this.cached.length) {
+            this.cached = Arrays.copyOf(this.cached, slots);
+        } else if (slots < this.cached.length) {
+            // Handle cases where the number of slots actually is lower now than before
+            for (int slot = slots; slot < this.cached.length; slot++) {
+                var stack = this.cached[slot];
+                if (stack != null) {
+                    remove(stack);
+                    changed = true;
                 }
             }
 
@@ -57,38 +114,31 @@ public Set<AEKey> update() {
             this.cached = Arrays.copyOf(this.cached, slots);
         }
 
-        return changes;
-    }
-
-    private void handlePossibleSlotChanges(int slot, GenericStack oldStack, GenericStack newStack, Set<AEKey> changes) {
-        if (oldStack != null && newStack != null && oldStack.what().equals(newStack.what())) {
-            handleAmountChanged(slot, oldStack, newStack, changes);
-        } else {
-            handleItemChanged(slot, oldStack, newStack, changes);
-        }
+        return changed;
     }
 
-    private void handleAmountChanged(int slot, GenericStack oldStack, GenericStack newStack, Set<AEKey> changes) {
-        // Still the same item, but amount might have changed
-        if (newStack.amount() != oldStack.amount()) {
-            this.cached[slot] = newStack;
-            changes.add(newStack.what());
+    private boolean updateSlot(int slot) {
+        var oldStack = this.cached[slot];
+        var newStack = facade.getAvailableStackInSlot(slot);
+        if (Objects.equals(oldStack, newStack)) {
+            return false;
         }
-    }
 
-    private void handleItemChanged(int slot, GenericStack oldStack, GenericStack newStack, Set<AEKey> changes) {
-        // Completely different item
         this.cached[slot] = newStack;
-
-        // If we had a stack previously in this slot, notify the network about its disappearance
         if (oldStack != null) {
-            changes.add(oldStack.what());
+            remove(oldStack);
         }
-
-        // Notify the network about the new stack
         if (newStack != null) {
-            changes.add(newStack.what());
+            available.add(newStack.what(), newStack.amount());
         }
+        return true;
     }
 
+    private void remove(GenericStack stack) {
+        AEKey what = stack.what();
+        available.remove(what, stack.amount());
+        if (available.get(what) == 0) {
+            available.removeKey(what);
+        }
+    }
 }
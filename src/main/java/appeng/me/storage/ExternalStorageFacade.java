@@ -38,6 +38,9 @@ public abstract class ExternalStorageFacade implements MEStorage {
 
     protected boolean extractableOnly;
 
+    @Nullable
+    private ExternalInventoryCache inventoryCache;
+
     public void setChangeListener(@Nullable Runnable listener) {
         this.changeListener = listener;
     }
@@ -47,6 +50,13 @@ public void setChangeListener(@Nullable Runnable listener) {
     @Nullable
     public abstract GenericStack getStackInSlot(int slot);
 
+    /**
+     * @return The stack in the given slot, or null if it is empty or cannot be extracted while
+     *         {@link #setExtractableOnly extractable only} is enabled.
+     */
+    @Nullable
+    protected abstract GenericStack getAvailableStackInSlot(int slot);
+
     public abstract AEKeyType getKeyType();
 
     @Override
@@ -71,6 +81,39 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
         return extracted;
     }
 
+    @Override
+    public void getAvailableStacks(KeyCounter out) {
+        for (int i = 0; i < getSlots(); i++) {
+            var stack = getAvailableStackInSlot(i);
+            if (stack != null) {
+                out.add(stack.what(), stack.amount());
+            }
+        }
+    }
+
+    /**
+     * The cache is created on first use and from then on updated for every slot this facade inserts into or extracts
+     * from.
+     */
+    ExternalInventoryCache getInventoryCache() {
+        if (inventoryCache == null) {
+            inventoryCache = ExternalInventoryCache.of(this);
+        }
+        return inventoryCache;
+    }
+
+    protected void onSlotChanged(int slot) {
+        if (inventoryCache != null) {
+            inventoryCache.markSlotDirty(slot);
+        }
+    }
+
+    protected void onAllSlotsChanged() {
+        if (inventoryCache != null) {
+            inventoryCache.markAllSlotsDirty();
+        }
+    }
+
     @Override
     public Component getDescription() {
         return GuiText.ExternalStorage.text(AEKeyType.fluids().getDescription());
@@ -91,7 +134,10 @@ public static ExternalStorageFacade of(IItemHandler handler) {
     }
 
     public void setExtractableOnly(boolean extractableOnly) {
-        this.extractableOnly = extractableOnly;
+        if (this.extractableOnly != extractableOnly) {
+            this.extractableOnly = extractableOnly;
+            onAllSlotsChanged();
+        }
     }
 
     private static class ItemHandlerFacade extends ExternalStorageFacade {
@@ -131,7 +177,11 @@ public int insertExternal(AEKey what, int amount, Actionable mode) {
 
             // This uses a brute force approach and tries to jam it in every slot the inventory exposes.
             for (int i = 0; i < slotCount && !remaining.isEmpty(); i++) {
-                remaining = handler.insertItem(i, remaining, simulate);
+                var next = handler.insertItem(i, remaining, simulate);
+                if (!simulate && (next != remaining || next.getCount() != remaining.getCount())) {
+                    onSlotChanged(i);
+                }
+                remaining = next;
             }
 
             // At this point, we still have some items left...
@@ -210,6 +260,10 @@ public int extractExternal(AEKey what, int amount, Actionable mode) {
                     }
                 } while (!simulate && !extracted.isEmpty() && remainingCurrentSlot > 0);
 
+                if (!simulate && remainingCurrentSlot < Math.min(remainingSize, stackSizeCurrentSlot)) {
+                    onSlotChanged(i);
+                }
+
                 remainingSize -= stackSizeCurrentSlot - remainingCurrentSlot;
 
                 // Done?
@@ -238,25 +292,24 @@ public boolean containsAnyFuzzy(Set<AEKey> keys) {
             return false;
         }
 
+        @Nullable
         @Override
-        public void getAvailableStacks(KeyCounter out) {
-            for (int i = 0; i < handler.getSlots(); i++) {
-                // Skip resources that cannot be extracted if that filter was enabled
-                var stack = handler.getStackInSlot(i);
-                if (stack.isEmpty()) {
-                    continue;
-                }
+        protected GenericStack getAvailableStackInSlot(int slot) {
+            var stack = handler.getStackInSlot(slot);
+            if (stack.isEmpty()) {
+                return null;
+            }
 
-                if (extractableOnly) {
-                    if (handler.extractItem(i, 1, true).isEmpty()) {
-                        if (handler.extractItem(i, stack.getCount(), true).isEmpty()) {
-                            continue;
-                        }
+            // Skip resources that cannot be extracted if that filter was enabled
+            if (extractableOnly) {
+                if (handler.extractItem(slot, 1, true).isEmpty()) {
+                    if (handler.extractItem(slot, stack.getCount(), true).isEmpty()) {
+                        return null;
                     }
                 }
-
-                out.add(AEItemKey.of(stack), stack.getCount());
             }
+
+            return new GenericStack(AEItemKey.of(stack), stack.getCount());
         }
     }
 
@@ -289,7 +342,12 @@ protected int insertExternal(AEKey what, int amount, Actionable mode) {
                 return 0;
             }
 
-            return handler.fill(fluidKey.toStack(amount), mode.getFluidAction());
+            var filled = handler.fill(fluidKey.toStack(amount), mode.getFluidAction());
+            if (filled > 0 && mode == Actionable.MODULATE) {
+                // The handler does not tell us which tanks were filled
+                onAllSlotsChanged();
+            }
+            return filled;
         }
 
         @Override
@@ -307,6 +365,9 @@ public int extractExternal(AEKey what, int amount, Actionable mode) {
                 return 0;
             }
 
+            if (mode == Actionable.MODULATE) {
+                onAllSlotsChanged();
+            }
             return gathered.getAmount();
         }
 
@@ -323,23 +384,22 @@ public boolean containsAnyFuzzy(Set<AEKey> keys) {
             return false;
         }
 
+        @Nullable
         @Override
-        public void getAvailableStacks(KeyCounter out) {
-            for (int i = 0; i < handler.getTanks(); i++) {
-                // Skip resources that cannot be extracted if that filter was enabled
-                var stack = handler.getFluidInTank(i);
-                if (stack.isEmpty()) {
-                    continue;
-                }
+        protected GenericStack getAvailableStackInSlot(int slot) {
+            var stack = handler.getFluidInTank(slot);
+            if (stack.isEmpty()) {
+                return null;
+            }
 
-                if (extractableOnly) {
-                    if (handler.drain(stack, IFluidHandler.FluidAction.SIMULATE).isEmpty()) {
-                        continue;
-                    }
+            // Skip resources that cannot be extracted if that filter was enabled
+            if (extractableOnly) {
+                if (handler.drain(stack, IFluidHandler.FluidAction.SIMULATE).isEmpty()) {
+                    return null;
                 }
-
-                out.add(AEFluidKey.of(stack), stack.getAmount());
             }
+
+            return new GenericStack(AEFluidKey.of(stack), stack.getAmount());
         }
     }
 }
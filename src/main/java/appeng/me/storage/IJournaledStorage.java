@@ -0,0 +1,21 @@
+package appeng.me.storage;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.storage.MEStorage;
+
+/**
+ * Implemented by {@link MEStorage} which report each change to their available stacks to a
+ * {@link StorageChangeJournal}. Changes made through their own insert and extract methods are reported as deltas, any
+ * other change through {@link StorageChangeJournal#recordUnknownChange}.
+ * <p/>
+ * When mounted into a {@link NetworkStorage}, such inventories no longer need to be polled for their content when the
+ * network's cached inventory is updated.
+ */
+public interface IJournaledStorage {
+    /**
+     * Sets the journal that changes to the available stacks of this inventory must be reported to, or null to stop
+     * reporting changes.
+     */
+    void setChangeJournal(@Nullable StorageChangeJournal journal);
+}
@@ -0,0 +1,73 @@
+package appeng.me.storage;
+
+import java.util.Collection;
+import java.util.function.ObjLongConsumer;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+
+/**
+ * An immutable copy of the cached inventory of a grid, which can be read from any thread.
+ * <p/>
+ * Snapshots of the same grid are versioned: a snapshot with a higher version reflects a later state of the inventory,
+ * and two snapshots with the same version have the same content.
+ */
+public final class InventorySnapshot {
+    public static final InventorySnapshot EMPTY = new InventorySnapshot(-1, new KeyCounter());
+
+    private final long version;
+    private final KeyCounter stacks;
+    /**
+     * Set once the fuzzy index of {@link #stacks} was built. Most snapshots are never searched, so it is only built
+     * by the first search.
+     */
+    private volatile boolean fuzzyIndexBuilt;
+
+    private InventorySnapshot(long version, KeyCounter stacks) {
+        this.version = version;
+        this.stacks = stacks;
+    }
+
+    public static InventorySnapshot copyOf(long version, KeyCounter stacks) {
+        var copy = new KeyCounter();
+        copy.addAll(stacks);
+        copy.removeZeros();
+        return new InventorySnapshot(version, copy);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long get(AEKey what) {
+        return stacks.get(what);
+    }
+
+    public Collection<Object2LongMap.Entry<AEKey>> findFuzzy(AEKey what, FuzzyMode fuzzy) {
+        if (!fuzzyIndexBuilt) {
+            // Building the index modifies the counter, which isn't safe while other threads are searching it
+            synchronized (this) {
+                if (!fuzzyIndexBuilt) {
+                    stacks.buildFuzzyIndex();
+                    fuzzyIndexBuilt = true;
+                }
+            }
+        }
+        return stacks.findFuzzy(what, fuzzy);
+    }
+
+    public void forEach(ObjLongConsumer<? super AEKey> consumer) {
+        stacks.forEach(consumer);
+    }
+
+    public int size() {
+        return stacks.size();
+    }
+
+    public boolean isEmpty() {
+        return stacks.isEmpty();
+    }
+}
@@ -22,7 +22,9 @@
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 
@@ -32,12 +34,15 @@
 
 import net.minecraft.network.chat.Component;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
 import appeng.api.config.Actionable;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.stacks.AEKey;
 import appeng.api.stacks.KeyCounter;
 import appeng.api.storage.MEStorage;
 import appeng.core.localization.GuiText;
+import appeng.me.service.TelemetryService;
 
 /**
  * Manages all available {@link MEStorage} on the network.
@@ -53,14 +58,44 @@ public class NetworkStorage implements MEStorage {
 
     private final NavigableMap<Integer, List<MEStorage>> priorityInventory;
     private final List<MEStorage> secondPassInventories = new ArrayList<>();
+    /**
+     * Receives the changes of all mounted inventories, either reported directly by {@link IJournaledStorage} or found
+     * by {@link #pollChanges() polling} the remaining inventories.
+     */
+    private final StorageChangeJournal changeJournal;
+    /**
+     * Tracks which of the mounted inventories hold each key, to only ask those when extracting.
+     */
+    private final StorageRoutingIndex routingIndex = new StorageRoutingIndex();
+    /**
+     * The last known content of mounted inventories that do not implement {@link IJournaledStorage}.
+     */
+    private final Map<MEStorage, PolledInventory> polledInventories = new IdentityHashMap<>();
+    /**
+     * How often each inventory is mounted. An inventory stays attached to the change journal until its last mount is
+     * removed.
+     */
+    private final Reference2IntOpenHashMap<MEStorage> mountCounts = new Reference2IntOpenHashMap<>();
     private int myPass = 0;
     // Queued mount/unmount operations that occurred while an insert/extract was ongoing
     // Is only non-null if something is queued
     @Nullable
     private List<QueuedOperation> queuedOperations;
 
+    /**
+     * Receives the amounts that were inserted and extracted. Null if not tracked.
+     */
+    @Nullable
+    private final TelemetryService telemetry;
+
     public NetworkStorage() {
+        this(null);
+    }
+
+    public NetworkStorage(@Nullable TelemetryService telemetry) {
         this.priorityInventory = new TreeMap<>(PRIORITY_SORTER);
+        this.changeJournal = new StorageChangeJournal(routingIndex);
+        this.telemetry = telemetry;
     }
 
     public void mount(int priority, MEStorage inventory) {
@@ -72,6 +107,18 @@ public void mount(int priority, MEStorage inventory) {
         } else {
             this.priorityInventory.computeIfAbsent(priority, k -> new ArrayList<>())
                     .add(inventory);
+            mountCounts.addTo(inventory, 1);
+
+            if (inventory instanceof IJournaledStorage journaledStorage) {
+                journaledStorage.setChangeJournal(changeJournal);
+                var content = inventory.getAvailableStacks();
+                changeJournal.recordAdded(content);
+                routingIndex.mount(priority, inventory, content);
+            } else {
+                // The content will be recorded as added the next time changes are polled
+                polledInventories.put(inventory, new PolledInventory());
+                routingIndex.mount(priority, inventory, null);
+            }
         }
     }
 
@@ -82,13 +129,44 @@ public void unmount(MEStorage inventory) {
             }
             queuedOperations.add(new UnmountOperation(inventory));
         } else {
+            var removedMounts = 0;
             var prioIt = this.priorityInventory.entrySet().iterator();
             while (prioIt.hasNext()) {
                 var prioEntry = prioIt.next();
 
                 var inventories = prioEntry.getValue();
-                if (inventories.remove(inventory) && inventories.isEmpty()) {
-                    prioIt.remove();
+                if (inventories.remove(inventory)) {
+                    removedMounts++;
+                    routingIndex.unmount(inventory, prioEntry.getKey());
+                    if (inventories.isEmpty()) {
+                        prioIt.remove();
+                    }
+                }
+            }
+
+            if (removedMounts > 0) {
+                var remainingMounts = mountCounts.addTo(inventory, -removedMounts) - removedMounts;
+                var lastMount = remainingMounts <= 0;
+                if (lastMount) {
+                    mountCounts.removeInt(inventory);
+                }
+
+                if (inventory instanceof IJournaledStorage journaledStorage) {
+                    // Since the inventory reported all of its changes, its current content is what each mount
+                    // contributed
+                    var content = inventory.getAvailableStacks();
+                    for (int i = 0; i < removedMounts; i++) {
+                        changeJournal.recordRemoved(content);
+                    }
+                    // The remaining mounts still need the inventory to report its changes
+                    if (lastMount) {
+                        journaledStorage.setChangeJournal(null);
+                    }
+                } else if (lastMount) {
+                    var polled = polledInventories.remove(inventory);
+                    if (polled != null) {
+                        changeJournal.recordRemoved(polled.snapshot);
+                    }
                 }
             }
         }
@@ -145,6 +223,10 @@ public long insert(AEKey what, long amount, Actionable type, IActionSource src)
 
         flushQueuedOperations();
 
+        if (telemetry != null && type == Actionable.MODULATE) {
+            telemetry.record(TelemetryService.Metric.ITEMS_INSERTED, amount - remaining);
+        }
+
         return amount - remaining;
     }
 
@@ -213,16 +295,31 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
 
         this.mountsInUse = true;
         try {
-            for (var invList : this.priorityInventory.descendingMap().values()) {
-                var ii = invList.iterator();
-                while (ii.hasNext() && extracted < amount) {
-                    var inv = ii.next();
+            if (routingIndex.isUsable()) {
+                // Skip the inventories that are known not to hold the key, but otherwise keep the same order
+                for (var mount : routingIndex.getExtractionCandidates(what)) {
+                    if (extracted >= amount) {
+                        break;
+                    }
 
-                    if (isQueuedForRemoval(inv)) {
+                    if (isQueuedForRemoval(mount.inventory)) {
                         continue;
                     }
 
-                    extracted += inv.extract(what, amount - extracted, mode, source);
+                    extracted += mount.inventory.extract(what, amount - extracted, mode, source);
+                }
+            } else {
+                for (var invList : this.priorityInventory.descendingMap().values()) {
+                    var ii = invList.iterator();
+                    while (ii.hasNext() && extracted < amount) {
+                        var inv = ii.next();
+
+                        if (isQueuedForRemoval(inv)) {
+                            continue;
+                        }
+
+                        extracted += inv.extract(what, amount - extracted, mode, source);
+                    }
                 }
             }
         } finally {
@@ -233,6 +330,10 @@ public long extract(AEKey what, long amount, Actionable mode, IActionSource sour
 
         flushQueuedOperations();
 
+        if (telemetry != null && mode == Actionable.MODULATE) {
+            telemetry.record(TelemetryService.Metric.ITEMS_EXTRACTED, extracted);
+        }
+
         return extracted;
     }
 
@@ -251,6 +352,59 @@ public void getAvailableStacks(KeyCounter out) {
         this.surface(Actionable.SIMULATE);
     }
 
+    /**
+     * The journal of changes to the available stacks of this storage. Only the inventories that do not report their
+     * own changes need to be {@link #pollChanges() polled} for the journal to be complete.
+     */
+    public StorageChangeJournal getChangeJournal() {
+        return changeJournal;
+    }
+
+    /**
+     * Queries the available stacks of all mounted inventories that do not report their own changes, and records the
+     * differences to their last known content in the {@link #getChangeJournal() change journal}.
+     */
+    public void pollChanges() {
+        if (changeJournal.isInvalidated() || diveIteration(Actionable.SIMULATE)) {
+            return;
+        }
+
+        for (var entry : this.polledInventories.entrySet()) {
+            entry.getValue().poll(entry.getKey(), changeJournal);
+        }
+
+        this.surface(Actionable.SIMULATE);
+    }
+
+    /**
+     * Like {@link #getAvailableStacks(KeyCounter)}, but also resynchronizes the {@link #getChangeJournal() change
+     * journal} with the current content, making it valid again.
+     */
+    public void reconcile(KeyCounter out) {
+        if (diveIteration(Actionable.SIMULATE)) {
+            return;
+        }
+
+        changeJournal.reset();
+
+        for (var i : this.priorityInventory.values()) {
+            for (var j : i) {
+                var polled = this.polledInventories.get(j);
+                if (polled != null) {
+                    polled.refresh(j);
+                    out.addAll(polled.snapshot);
+                } else {
+                    // Also correct any drift of the routing index
+                    var content = j.getAvailableStacks();
+                    routingIndex.reindex(j, content);
+                    out.addAll(content);
+                }
+            }
+        }
+
+        this.surface(Actionable.SIMULATE);
+    }
+
     private boolean diveIteration(Actionable type) {
         var cDepth = this.getDepth(type);
         if (cDepth.isEmpty()) {
@@ -269,6 +423,36 @@ public Component getDescription() {
         return GuiText.MENetworkStorage.text();
     }
 
+    /**
+     * Tracks the last known content of an inventory that has to be polled for changes.
+     */
+    private static class PolledInventory {
+        private KeyCounter snapshot = new KeyCounter();
+        private KeyCounter scratch = new KeyCounter();
+
+        private void poll(MEStorage inventory, StorageChangeJournal journal) {
+            var previous = this.snapshot;
+            var current = this.scratch;
+            current.clear();
+            inventory.getAvailableStacks(current);
+
+            current.forEach((what, amount) -> journal.recordChange(what, amount - previous.get(what)));
+            previous.forEach((what, amount) -> {
+                if (current.get(what) == 0) {
+                    journal.recordChange(what, -amount);
+                }
+            });
+
+            this.snapshot = current;
+            this.scratch = previous;
+        }
+
+        private void refresh(MEStorage inventory) {
+            this.snapshot.clear();
+            inventory.getAvailableStacks(this.snapshot);
+        }
+    }
+
     sealed interface QueuedOperation permits MountOperation, UnmountOperation {
     }
 
@@ -0,0 +1,129 @@
+package appeng.me.storage;
+
+import org.jetbrains.annotations.Nullable;
+
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+/**
+ * Collects the net changes to the available stacks of all inventories mounted into a {@link NetworkStorage}, so that
+ * the network's cached inventory can be updated without querying every mounted inventory.
+ * <p/>
+ * Changes are only recorded while the journal is valid. Whenever a change cannot be expressed as a delta, the journal
+ * is {@link #invalidate() invalidated}, and it stays invalid until the owner performs a full rescan and calls
+ * {@link #reset()}.
+ * <p/>
+ * Independently of that, inventories also report which keys they still hold, which is used to route extractions.
+ */
+public final class StorageChangeJournal {
+    /**
+     * When more changes than this were recorded in one batch, we drop the backing table instead of clearing it, to
+     * avoid clearing a large, mostly empty table on every subsequent batch.
+     */
+    private static final int COMPACT_THRESHOLD = 4096;
+
+    private KeyCounter changes = new KeyCounter();
+    /**
+     * The changes returned by the last call to {@link #drainChanges()}.
+     */
+    private KeyCounter drained = new KeyCounter();
+
+    private boolean invalidated = true;
+
+    @Nullable
+    private final StorageRoutingIndex routingIndex;
+
+    StorageChangeJournal(@Nullable StorageRoutingIndex routingIndex) {
+        this.routingIndex = routingIndex;
+    }
+
+    public void recordChange(AEKey what, long delta) {
+        if (!invalidated && delta != 0) {
+            changes.add(what, delta);
+        }
+    }
+
+    /**
+     * Reports whether an inventory still holds some of a key after it has changed. Unlike the other methods, this has
+     * to be called even while the journal is invalidated.
+     */
+    public void recordHeld(MEStorage inventory, AEKey what, boolean held) {
+        if (routingIndex != null) {
+            routingIndex.setHeld(inventory, what, held);
+        }
+    }
+
+    /**
+     * Reports that an inventory has changed in a way that can't be expressed as a delta. This invalidates the journal,
+     * but still updates which keys the inventory holds.
+     *
+     * @param content The current content of the inventory.
+     */
+    public void recordUnknownChange(MEStorage inventory, KeyCounter content) {
+        invalidate();
+        if (routingIndex != null) {
+            routingIndex.reindex(inventory, content);
+        }
+    }
+
+    /**
+     * Records the given stacks as having been added.
+     */
+    public void recordAdded(KeyCounter stacks) {
+        if (!invalidated) {
+            changes.addAll(stacks);
+        }
+    }
+
+    /**
+     * Records the given stacks as having been removed.
+     */
+    public void recordRemoved(KeyCounter stacks) {
+        if (!invalidated) {
+            changes.removeAll(stacks);
+        }
+    }
+
+    /**
+     * Discards all recorded changes and stops recording until the next {@link #reset()}.
+     */
+    public void invalidate() {
+        invalidated = true;
+        changes = clear(changes);
+    }
+
+    public boolean isInvalidated() {
+        return invalidated;
+    }
+
+    /**
+     * Marks the journal as valid again after a full rescan and discards all changes recorded so far.
+     */
+    public void reset() {
+        invalidated = false;
+        changes = clear(changes);
+    }
+
+    /**
+     * Returns the net changes recorded since the last call and starts recording into a new batch. Changes recorded
+     * while the caller is still processing the returned batch will be part of the next batch.
+     *
+     * @return The recorded net changes, which may contain entries whose net change is zero. Only valid until the next
+     *         call to this method.
+     */
+    public KeyCounter drainChanges() {
+        var result = changes;
+        changes = clear(drained);
+        drained = result;
+        return result;
+    }
+
+    private static KeyCounter clear(KeyCounter counter) {
+        if (counter.size() > COMPACT_THRESHOLD) {
+            return new KeyCounter();
+        }
+        counter.clear();
+        return counter;
+    }
+}
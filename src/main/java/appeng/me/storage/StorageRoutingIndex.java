@@ -0,0 +1,292 @@
+package appeng.me.storage;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+/**
+ * Remembers which of the inventories mounted into a {@link NetworkStorage} hold each key, so that extracting a key only
+ * has to ask the inventories that can actually provide it.
+ * <p/>
+ * Only inventories implementing {@link IJournaledStorage} are indexed, since they report every change to their content
+ * through the {@link StorageChangeJournal}. All other inventories are always asked.
+ * <p/>
+ * The inventories are kept in arrays sorted in extraction order, which are replaced instead of modified. Extractions
+ * can iterate over them directly, even though the inventories report changes to the index while they are extracted
+ * from.
+ */
+final class StorageRoutingIndex {
+    /**
+     * The order in which {@link NetworkStorage#extract} visits inventories: lowest priority first, and in the order
+     * they were mounted within the same priority.
+     */
+    private static final Comparator<Mount> EXTRACTION_ORDER = Comparator.comparingInt(Mount::getPriority)
+            .thenComparingLong(m -> m.order);
+
+    private static final Mount[] NO_MOUNTS = new Mount[0];
+
+    private final Map<MEStorage, Mount> mounts = new IdentityHashMap<>();
+    /**
+     * The indexed inventories that hold each key.
+     */
+    private final Map<AEKey, Mount[]> holders = new HashMap<>();
+    /**
+     * The inventories that are not indexed.
+     */
+    private Mount[] unindexed = NO_MOUNTS;
+    /**
+     * The holders of a key merged with the {@link #unindexed} inventories. Only used while there are unindexed
+     * inventories, and cached until either of them changes.
+     */
+    private final Map<AEKey, Mount[]> mergedCandidates = new HashMap<>();
+    private long nextOrder;
+    /**
+     * How many more mounts there are than mounted inventories. The index can't represent an inventory that is mounted
+     * more than once, so it is not usable until the additional mounts are gone.
+     */
+    private int duplicateMounts;
+
+    /**
+     * @param content The current content of the inventory if it reports its changes, otherwise null.
+     */
+    void mount(int priority, MEStorage inventory, @Nullable KeyCounter content) {
+        var existing = mounts.get(inventory);
+        if (existing != null) {
+            existing.priorities.add(priority);
+            duplicateMounts++;
+            return;
+        }
+
+        var mount = new Mount(inventory, priority, nextOrder++, content != null ? new ObjectOpenHashSet<>() : null);
+        mounts.put(inventory, mount);
+        if (content != null) {
+            addHoldings(mount, content);
+        } else {
+            addUnindexed(mount);
+        }
+    }
+
+    /**
+     * Removes one mount of an inventory at the given priority.
+     */
+    void unmount(MEStorage inventory, int priority) {
+        var mount = mounts.get(inventory);
+        if (mount == null || !mount.priorities.contains(priority)) {
+            return;
+        }
+
+        // Remove it while it is still sorted by its current priority
+        removeFromIndex(mount);
+        mount.priorities.rem(priority);
+
+        if (mount.priorities.isEmpty()) {
+            mounts.remove(inventory);
+        } else {
+            // The inventory is still mounted, possibly at another priority
+            duplicateMounts--;
+            if (mount.heldKeys != null) {
+                for (var what : mount.heldKeys) {
+                    addHolder(what, mount);
+                }
+            } else {
+                addUnindexed(mount);
+            }
+        }
+    }
+
+    /**
+     * Replaces the indexed content of an inventory.
+     */
+    void reindex(MEStorage inventory, KeyCounter content) {
+        var mount = mounts.get(inventory);
+        if (mount == null || mount.heldKeys == null) {
+            return;
+        }
+
+        removeFromIndex(mount);
+        mount.heldKeys.clear();
+        addHoldings(mount, content);
+    }
+
+    void setHeld(MEStorage inventory, AEKey what, boolean held) {
+        var mount = mounts.get(inventory);
+        if (mount == null || mount.heldKeys == null) {
+            return;
+        }
+
+        if (held) {
+            if (mount.heldKeys.add(what)) {
+                addHolder(what, mount);
+            }
+        } else if (mount.heldKeys.remove(what)) {
+            removeHolder(what, mount);
+        }
+    }
+
+    boolean isUsable() {
+        return duplicateMounts == 0;
+    }
+
+    /**
+     * @return The inventories that may provide the given key, in the order they should be asked. The array is shared
+     *         and must not be modified.
+     */
+    Mount[] getExtractionCandidates(AEKey what) {
+        var held = holders.get(what);
+        if (held == null) {
+            return unindexed;
+        }
+        if (unindexed.length == 0) {
+            return held;
+        }
+
+        var merged = mergedCandidates.get(what);
+        if (merged == null) {
+            merged = merge(held, unindexed);
+            mergedCandidates.put(what, merged);
+        }
+        return merged;
+    }
+
+    private void addHoldings(Mount mount, KeyCounter content) {
+        content.forEach((what, amount) -> {
+            if (amount > 0 && mount.heldKeys.add(what)) {
+                addHolder(what, mount);
+            }
+        });
+    }
+
+    /**
+     * Removes the inventory from the index, without forgetting the keys it holds.
+     */
+    private void removeFromIndex(Mount mount) {
+        if (mount.heldKeys != null) {
+            for (var what : mount.heldKeys) {
+                removeHolder(what, mount);
+            }
+        } else {
+            unindexed = without(unindexed, mount);
+            mergedCandidates.clear();
+        }
+    }
+
+    private void addUnindexed(Mount mount) {
+        unindexed = with(unindexed, mount);
+        mergedCandidates.clear();
+    }
+
+    private void addHolder(AEKey what, Mount mount) {
+        var held = holders.get(what);
+        holders.put(what, held != null ? with(held, mount) : new Mount[] { mount });
+        if (unindexed.length > 0) {
+            mergedCandidates.remove(what);
+        }
+    }
+
+    private void removeHolder(AEKey what, Mount mount) {
+        var held = holders.get(what);
+        if (held == null) {
+            return;
+        }
+
+        var remaining = without(held, mount);
+        if (remaining.length == 0) {
+            holders.remove(what);
+        } else {
+            holders.put(what, remaining);
+        }
+        if (unindexed.length > 0) {
+            mergedCandidates.remove(what);
+        }
+    }
+
+    /**
+     * @return A copy of the sorted mounts with the given mount inserted at its place in extraction order.
+     */
+    private static Mount[] with(Mount[] mounts, Mount mount) {
+        var index = Arrays.binarySearch(mounts, mount, EXTRACTION_ORDER);
+        if (index >= 0) {
+            return mounts;
+        }
+        index = -index - 1;
+
+        var result = new Mount[mounts.length + 1];
+        System.arraycopy(mounts, 0, result, 0, index);
+        result[index] = mount;
+        System.arraycopy(mounts, index, result, index + 1, mounts.length - index);
+        return result;
+    }
+
+    /**
+     * @return A copy of the mounts without the given mount, or the same array if it didn't contain the mount.
+     */
+    private static Mount[] without(Mount[] mounts, Mount mount) {
+        for (int i = 0; i < mounts.length; i++) {
+            if (mounts[i] == mount) {
+                if (mounts.length == 1) {
+                    return NO_MOUNTS;
+                }
+                var result = new Mount[mounts.length - 1];
+                System.arraycopy(mounts, 0, result, 0, i);
+                System.arraycopy(mounts, i + 1, result, i, mounts.length - i - 1);
+                return result;
+            }
+        }
+        return mounts;
+    }
+
+    private static Mount[] merge(Mount[] first, Mount[] second) {
+        var result = new Mount[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < first.length && j < second.length) {
+            result[k++] = EXTRACTION_ORDER.compare(first[i], second[j]) <= 0 ? first[i++] : second[j++];
+        }
+        while (i < first.length) {
+            result[k++] = first[i++];
+        }
+        while (j < second.length) {
+            result[k++] = second[j++];
+        }
+        return result;
+    }
+
+    static final class Mount {
+        final MEStorage inventory;
+        final long order;
+        /**
+         * The priorities the inventory is mounted at. This only contains more than one priority while it is mounted
+         * more than once.
+         */
+        private final IntArrayList priorities = new IntArrayList(1);
+        /**
+         * The keys this inventory holds, or null if it is not indexed.
+         */
+        @Nullable
+        final Set<AEKey> heldKeys;
+
+        private Mount(MEStorage inventory, int priority, long order, @Nullable Set<AEKey> heldKeys) {
+            this.inventory = inventory;
+            this.order = order;
+            this.heldKeys = heldKeys;
+            this.priorities.add(priority);
+        }
+
+        int getPriority() {
+            return priorities.getInt(0);
+        }
+    }
+}
@@ -53,6 +53,11 @@ public class SpatialIOPortMenu extends AEBaseMenu {
     public int ySize;
     @GuiSync(33)
     public int zSize;
+    /**
+     * The progress of the transfer started by the port in percent, or -1 if none is running.
+     */
+    @GuiSync(34)
+    public int transferProgress = -1;
 
     public SpatialIOPortMenu(int id, Inventory ip, SpatialIOPortBlockEntity spatialIOPort) {
         super(TYPE, id, ip, spatialIOPort);
@@ -71,7 +76,11 @@ public void broadcastChanges() {
         if (isServerSide()) {
             this.delay++;
 
-            var gridNode = ((SpatialIOPortBlockEntity) getBlockEntity()).getGridNode();
+            var spatialIOPort = (SpatialIOPortBlockEntity) getBlockEntity();
+            var progress = spatialIOPort.getTransferProgress();
+            this.transferProgress = progress < 0 ? -1 : (int) (progress * 100);
+
+            var gridNode = spatialIOPort.getGridNode();
             var grid = gridNode != null ? gridNode.getGrid() : null;
 
             if (this.delay > 15 && grid != null) {
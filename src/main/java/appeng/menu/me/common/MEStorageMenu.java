@@ -63,6 +63,7 @@
 import appeng.api.storage.ITerminalHost;
 import appeng.api.storage.MEStorage;
 import appeng.api.storage.StorageHelper;
+import appeng.api.storage.SupplierStorage;
 import appeng.api.storage.cells.IBasicCellItem;
 import appeng.api.util.IConfigManager;
 import appeng.api.util.IConfigurableObject;
@@ -77,6 +78,8 @@
 import appeng.core.network.serverbound.MEInteractionPacket;
 import appeng.helpers.InventoryAction;
 import appeng.me.helpers.ActionHostEnergySource;
+import appeng.me.service.StorageService;
+import appeng.me.service.helpers.KeyChangeLog;
 import appeng.menu.AEBaseMenu;
 import appeng.menu.SlotSemantics;
 import appeng.menu.ToolboxMenu;
@@ -151,6 +154,13 @@ public class MEStorageMenu extends AEBaseMenu
      */
     private Set<AEKey> previousCraftables = Collections.emptySet();
     private KeyCounter previousAvailableStacks = new KeyCounter();
+    /**
+     * When this menu shows a grid's inventory, the change log of that grid, and the version of it that was last sent to
+     * the client. Null when the inventory is compared against {@link #previousAvailableStacks} instead.
+     */
+    @Nullable
+    private KeyChangeLog syncedChangeLog;
+    private long syncedChangeLogVersion;
 
     public MEStorageMenu(MenuType<?> menuType, int id, Inventory ip, ITerminalHost host) {
         this(menuType, id, ip, host, true);
@@ -251,23 +261,36 @@ public void broadcastChanges() {
             }
 
             var craftables = getCraftablesFromGrid();
-            var availableStacks = storage.getAvailableStacks();
+            var gridStorage = getShownGridStorage();
+            var changeLog = gridStorage != null ? gridStorage.getChangeLog() : null;
+            // The change log is only updated together with the grid's cached inventory
+            var availableStacks = changeLog != null ? gridStorage.getCachedInventory() : storage.getAvailableStacks();
 
             // This is currently not supported/backed by any network service
             var requestables = new KeyCounter();
 
             try {
+                // Available changes
+                if (changeLog != null) {
+                    addChangesFromLog(changeLog, availableStacks, craftables);
+                } else {
+                    if (syncedChangeLog != null) {
+                        // The previous stacks are the grid's cached inventory, which we must not modify
+                        syncedChangeLog = null;
+                        resetClientInventory(craftables);
+                        previousAvailableStacks = new KeyCounter();
+                    }
+                    previousAvailableStacks.removeAll(availableStacks);
+                    previousAvailableStacks.removeZeros();
+                    previousAvailableStacks.forEach((what, amount) -> updateHelper.addChange(what));
+                }
+
                 // Craftables
                 // Newly craftable
                 Sets.difference(previousCraftables, craftables).forEach(updateHelper::addChange);
                 // No longer craftable
                 Sets.difference(craftables, previousCraftables).forEach(updateHelper::addChange);
 
-                // Available changes
-                previousAvailableStacks.removeAll(availableStacks);
-                previousAvailableStacks.removeZeros();
-                previousAvailableStacks.keySet().forEach(updateHelper::addChange);
-
                 if (updateHelper.hasChanges()) {
                     var builder = MEInventoryUpdatePacket
                             .builder(containerId, updateHelper.isFullUpdate(), getPlayer().registryAccess());
@@ -305,6 +328,51 @@ protected boolean showsCraftables() {
         return true;
     }
 
+    /**
+     * Queues the keys that changed in the grid's inventory since the last update, or all keys if the changes since
+     * then are not available.
+     */
+    private void addChangesFromLog(KeyChangeLog changeLog, KeyCounter availableStacks, Set<AEKey> craftables) {
+        if (changeLog != syncedChangeLog
+                || !changeLog.getChangesSince(syncedChangeLogVersion, updateHelper::addChange)) {
+            // Either a different grid, or we fell too far behind
+            resetClientInventory(craftables);
+            availableStacks.forEach((what, amount) -> updateHelper.addChange(what));
+        }
+        syncedChangeLog = changeLog;
+        syncedChangeLogVersion = changeLog.getVersion();
+    }
+
+    /**
+     * Prepares a full update that replaces everything the client currently knows. The caller has to queue all
+     * available stacks.
+     */
+    private void resetClientInventory(Set<AEKey> craftables) {
+        updateHelper.reset();
+        craftables.forEach(updateHelper::addChange);
+    }
+
+    /**
+     * @return The storage service of the grid, if this menu shows exactly that grid's inventory.
+     */
+    @Nullable
+    private StorageService getShownGridStorage() {
+        if (!(storage instanceof SupplierStorage supplierStorage)) {
+            return null;
+        }
+
+        var hostNode = getGridNode();
+        if (hostNode == null || !hostNode.isActive()) {
+            return null;
+        }
+
+        if (hostNode.getGrid().getStorageService() instanceof StorageService storageService
+                && supplierStorage.getSuppliedStorage() == storageService.getInventory()) {
+            return storageService;
+        }
+        return null;
+    }
+
     private Set<AEKey> getCraftablesFromGrid() {
         IGridNode hostNode = getGridNode();
         // Wireless terminals do not directly expose the target grid (even though they have one)
@@ -710,7 +778,8 @@ public boolean hasIngredient(Ingredient ingredient, Object2IntOpenHashMap<Object
     }
 
     /**
-     * @return The stacks available in the storage as determined the last time this menu was ticked.
+     * @return The stacks available in the storage as determined the last time this menu was ticked. For menus showing a
+     *         grid's inventory, this is the grid's cached inventory, which must not be modified.
      */
     protected final KeyCounter getPreviousAvailableStacks() {
         Preconditions.checkState(isServerSide());
@@ -26,6 +26,7 @@
 import appeng.server.subcommands.GridsCommand;
 import appeng.server.subcommands.SetupTestWorldCommand;
 import appeng.server.subcommands.SpatialStorageCommand;
+import appeng.server.subcommands.TelemetryCommand;
 import appeng.server.subcommands.TestMeteoritesCommand;
 import appeng.server.subcommands.TickMonitoring;
 
@@ -36,6 +37,7 @@ public enum Commands {
     CHANNEL_MODE(4, "channelmode", new ChannelModeCommand()),
     TICK_MONITORING(4, "tickmonitor", new TickMonitoring()),
     GRIDS(4, "grids", new GridsCommand()),
+    TELEMETRY(4, "telemetry", new TelemetryCommand()),
 
     // Testing
     COMPASS(4, "compass", new TestCompassCommand(), true),
@@ -0,0 +1,173 @@
+package appeng.server.subcommands;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Locale;
+
+import com.google.gson.stream.JsonWriter;
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+
+import appeng.hooks.ticking.TickHandler;
+import appeng.me.Grid;
+import appeng.me.service.TelemetryService;
+import appeng.me.service.TelemetryService.Metric;
+import appeng.server.ISubCommand;
+
+/**
+ * Controls and reports the per-tick metrics recorded by {@link TelemetryService}.
+ */
+public class TelemetryCommand implements ISubCommand {
+    private static final Logger LOG = LoggerFactory.getLogger(TelemetryCommand.class);
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSourceStack> builder) {
+        builder.then(Commands.literal("enable").executes(ctx -> {
+            TelemetryService.ENABLED = true;
+            ctx.getSource().sendSuccess(() -> Component.literal("Recording grid telemetry for the last "
+                    + TelemetryService.WINDOW_TICKS + " ticks"), true);
+            return 1;
+        }));
+        builder.then(Commands.literal("disable").executes(ctx -> {
+            TelemetryService.ENABLED = false;
+            ctx.getSource().sendSuccess(() -> Component.literal("Stopped recording grid telemetry"), true);
+            return 1;
+        }));
+        builder.then(Commands.literal("top").executes(ctx -> {
+            showTop(ctx.getSource(), 10);
+            return 1;
+        }).then(Commands.argument("count", IntegerArgumentType.integer(1)).executes(ctx -> {
+            showTop(ctx.getSource(), ctx.getArgument("count", Integer.class));
+            return 1;
+        })));
+        builder.then(Commands.literal("grid")
+                .then(Commands.argument("gridSerial", IntegerArgumentType.integer()).executes(ctx -> {
+                    showGrid(ctx.getSource(), findGrid(ctx.getArgument("gridSerial", Integer.class)));
+                    return 1;
+                })));
+        builder.then(Commands.literal("dump")
+                .then(Commands.literal("json").executes(ctx -> {
+                    dumpJson(ctx.getSource());
+                    return 1;
+                }))
+                .then(Commands.literal("csv").executes(ctx -> {
+                    dumpCsv(ctx.getSource());
+                    return 1;
+                })));
+    }
+
+    @Override
+    public void call(MinecraftServer srv, CommandContext<CommandSourceStack> data,
+            CommandSourceStack sender) {
+        sender.sendSystemMessage(Component.literal("Grid telemetry is "
+                + (TelemetryService.ENABLED ? "enabled" : "disabled")
+                + ". Use enable, disable, top [count], grid <serial> or dump json|csv."));
+    }
+
+    private static void showTop(CommandSourceStack source, int count) {
+        var grids = TickHandler.instance().getGridList().stream()
+                .filter(grid -> getTelemetry(grid).getRecordedTicks() > 0)
+                .sorted(Comparator.comparingDouble((Grid grid) -> getTelemetry(grid).getAverage(Metric.TICK_NANOS))
+                        .reversed())
+                .limit(count)
+                .toList();
+
+        if (grids.isEmpty()) {
+            source.sendSystemMessage(Component.literal("No grid telemetry has been recorded"));
+            return;
+        }
+
+        for (var grid : grids) {
+            var telemetry = getTelemetry(grid);
+            source.sendSystemMessage(Component.literal(String.format(Locale.ROOT,
+                    "%s: %d nodes, %.1f us/t avg, %.1f us max",
+                    grid, grid.size(), telemetry.getAverage(Metric.TICK_NANOS) / 1000,
+                    telemetry.getMax(Metric.TICK_NANOS) / 1000.0)));
+        }
+    }
+
+    private static void showGrid(CommandSourceStack source, Grid grid) {
+        var telemetry = getTelemetry(grid);
+        source.sendSystemMessage(Component.literal(grid + " over " + telemetry.getRecordedTicks() + " ticks:"));
+        for (var metric : Metric.values()) {
+            source.sendSystemMessage(Component.literal(String.format(Locale.ROOT, "  %s: %.1f avg, %d max",
+                    metric.getSerializedName(), telemetry.getAverage(metric), telemetry.getMax(metric))));
+        }
+        for (var entry : telemetry.getAverageServiceTimes().entrySet()) {
+            source.sendSystemMessage(Component.literal(String.format(Locale.ROOT, "  %s: %.1f us/t avg",
+                    entry.getKey(), entry.getValue() / 1000)));
+        }
+    }
+
+    private static void dumpJson(CommandSourceStack source) {
+        var targetPath = Paths.get("ae2_telemetry.json");
+        try (var writer = new JsonWriter(Files.newBufferedWriter(targetPath, StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("windowTicks").value(TelemetryService.WINDOW_TICKS);
+            writer.name("grids");
+            writer.beginArray();
+            for (var grid : TickHandler.instance().getGridList()) {
+                var telemetry = getTelemetry(grid);
+                if (telemetry.getRecordedTicks() > 0) {
+                    writer.beginObject();
+                    writer.name("serial").value(grid.getSerialNumber());
+                    writer.name("nodes").value(grid.size());
+                    writer.name("telemetry");
+                    telemetry.writeJson(writer);
+                    writer.endObject();
+                }
+            }
+            writer.endArray();
+            writer.endObject();
+        } catch (IOException e) {
+            LOG.error("Failed to write grid telemetry.", e);
+            source.sendFailure(Component.literal("Failed to write grid telemetry: " + e));
+            return;
+        }
+        source.sendSystemMessage(Component.literal("Wrote grid telemetry to " + targetPath.toAbsolutePath()));
+    }
+
+    private static void dumpCsv(CommandSourceStack source) {
+        var targetPath = Paths.get("ae2_telemetry.csv");
+        try (var writer = Files.newBufferedWriter(targetPath, StandardCharsets.UTF_8)) {
+            writer.write("grid,series,ticks_ago,value\n");
+            for (var grid : TickHandler.instance().getGridList()) {
+                getTelemetry(grid).writeCsv(writer, grid.getSerialNumber());
+            }
+        } catch (IOException e) {
+            LOG.error("Failed to write grid telemetry.", e);
+            source.sendFailure(Component.literal("Failed to write grid telemetry: " + e));
+            return;
+        }
+        source.sendSystemMessage(Component.literal("Wrote grid telemetry to " + targetPath.toAbsolutePath()));
+    }
+
+    private static Grid findGrid(int gridSerial) throws CommandSyntaxException {
+        for (var grid : TickHandler.instance().getGridList()) {
+            if (grid.getSerialNumber() == gridSerial) {
+                return grid;
+            }
+        }
+        throw new SimpleCommandExceptionType(new LiteralMessage("No such grid found")).create();
+    }
+
+    private static TelemetryService getTelemetry(Grid grid) {
+        return grid.getService(TelemetryService.class);
+    }
+}
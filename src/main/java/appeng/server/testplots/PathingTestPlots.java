@@ -0,0 +1,143 @@
+package appeng.server.testplots;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestSequence;
+
+import appeng.api.networking.IGrid;
+import appeng.api.parts.PartHelper;
+import appeng.api.util.AEColor;
+import appeng.core.definitions.AEBlocks;
+import appeng.core.definitions.AEParts;
+import appeng.server.testworld.PlotBuilder;
+import appeng.server.testworld.PlotTestHelper;
+
+@TestPlotClass
+public final class PathingTestPlots {
+    private static final BlockPos CONTROLLER = BlockPos.ZERO;
+    private static final BlockPos TRUNK_START = new BlockPos(1, 0, 0);
+
+    private PathingTestPlots() {
+    }
+
+    /**
+     * Changes the topology of a tree-shaped grid in ways that are handled by incremental pathing, and checks after
+     * each change that a full recalculation of the paths assigns the same channels. Since every device has only a
+     * single route to the controller in a tree, both have to agree exactly.
+     */
+    @TestPlot("incremental_pathing_matches_full_repath")
+    public static void incrementalPathingMatchesFullRepath(PlotBuilder plot) {
+        plot.block(CONTROLLER, AEBlocks.CONTROLLER);
+        plot.creativeEnergyCell("1 -1 0");
+        plot.cable("[1,6] 0 0");
+        plot.cable("2 0 [1,3]").part(Direction.UP, AEParts.TERMINAL);
+        plot.cable("5 0 [1,3]").part(Direction.UP, AEParts.TERMINAL);
+
+        plot.test(helper -> {
+            var sequence = helper.startSequence();
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "initial");
+
+            // Remove a device
+            sequence.thenExecute(() -> helper.destroyBlock(new BlockPos(5, 0, 3)));
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "device removed");
+
+            // Add it again
+            sequence.thenExecute(() -> placeTerminal(helper, new BlockPos(5, 0, 3)));
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "device added");
+
+            // Split off the end of the trunk along with one of the branches
+            sequence.thenExecute(() -> helper.destroyBlock(new BlockPos(4, 0, 0)));
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "grid split");
+
+            // Join the parts again
+            sequence.thenExecute(() -> placeCable(helper, new BlockPos(4, 0, 0)));
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "grids joined");
+
+            // Switch to ad-hoc and back
+            sequence.thenExecute(() -> helper.destroyBlock(CONTROLLER));
+            thenCompareWithFullRepath(sequence, helper, TRUNK_START, "controller removed");
+            sequence.thenExecute(() -> helper.setBlock(CONTROLLER, AEBlocks.CONTROLLER.block()));
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "controller added");
+
+            // Incremental pathing has to resume after the controller came back
+            sequence.thenExecute(() -> helper.destroyBlock(new BlockPos(2, 0, 3)));
+            thenCompareWithFullRepath(sequence, helper, CONTROLLER, "device removed after controller switch");
+
+            sequence.thenSucceed();
+        });
+    }
+
+    private static void placeCable(PlotTestHelper helper, BlockPos pos) {
+        PartHelper.setPart(helper.getLevel(), helper.absolutePos(pos), null, null,
+                AEParts.SMART_CABLE.item(AEColor.TRANSPARENT));
+    }
+
+    private static void placeTerminal(PlotTestHelper helper, BlockPos pos) {
+        placeCable(helper, pos);
+        PartHelper.setPart(helper.getLevel(), helper.absolutePos(pos), Direction.UP, null,
+                AEParts.TERMINAL.get());
+    }
+
+    /**
+     * Waits for the channels of the grid at the given position to be assigned, records them, and then checks that a
+     * full recalculation results in the same channels.
+     */
+    private static void thenCompareWithFullRepath(GameTestSequence sequence, PlotTestHelper helper, BlockPos pos,
+            String step) {
+        var beforeRepath = new ChannelSnapshot[1];
+        sequence.thenIdle(2)
+                .thenWaitUntil(() -> checkPathed(helper, pos))
+                .thenExecute(() -> {
+                    var grid = helper.getGrid(pos);
+                    beforeRepath[0] = ChannelSnapshot.of(grid);
+                    grid.getPathingService().repath();
+                })
+                .thenIdle(1)
+                .thenWaitUntil(() -> checkPathed(helper, pos))
+                .thenExecute(() -> {
+                    var afterRepath = ChannelSnapshot.of(helper.getGrid(pos));
+                    helper.check(beforeRepath[0].equals(afterRepath),
+                            step + ": " + beforeRepath[0].describeDifference(afterRepath), pos);
+                });
+    }
+
+    private static void checkPathed(PlotTestHelper helper, BlockPos pos) {
+        helper.check(!helper.getGrid(pos).getPathingService().isNetworkBooting(), "grid is still booting", pos);
+    }
+
+    /**
+     * The channels used by a grid and each of its nodes and connections.
+     */
+    private record ChannelSnapshot(int channelsInUse, double channelPowerUsage, Map<Object, Integer> usedChannels) {
+        static ChannelSnapshot of(IGrid grid) {
+            var usedChannels = new HashMap<Object, Integer>();
+            for (var node : grid.getNodes()) {
+                usedChannels.put(node, node.getUsedChannels());
+                for (var connection : node.getConnections()) {
+                    usedChannels.put(connection, connection.getUsedChannels());
+                }
+            }
+            return new ChannelSnapshot(grid.getPathingService().getUsedChannels(),
+                    grid.getEnergyService().getChannelPowerUsage(), usedChannels);
+        }
+
+        String describeDifference(ChannelSnapshot fullRepath) {
+            var differingItems = 0;
+            for (var entry : usedChannels.entrySet()) {
+                if (!Objects.equals(entry.getValue(), fullRepath.usedChannels.get(entry.getKey()))) {
+                    differingItems++;
+                }
+            }
+            return String.format(Locale.ROOT,
+                    "incremental pathing used %d channels (%.3f AE/t) while a full repath used %d (%.3f AE/t), "
+                            + "%d of %d path items have different channels",
+                    channelsInUse, channelPowerUsage, fullRepath.channelsInUse, fullRepath.channelPowerUsage,
+                    differingItems, usedChannels.size());
+        }
+    }
+}
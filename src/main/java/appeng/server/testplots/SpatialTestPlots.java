@@ -11,12 +11,15 @@
 import net.minecraft.world.phys.Vec3;
 
 import appeng.api.implementations.items.ISpatialStorageCell;
+import appeng.api.stacks.AEItemKey;
 import appeng.blockentity.spatial.SpatialIOPortBlockEntity;
 import appeng.core.definitions.AEBlocks;
 import appeng.core.definitions.AEItems;
 import appeng.server.testworld.PlotBuilder;
 import appeng.server.testworld.PlotTestHelper;
+import appeng.spatial.SpatialStorageHelper;
 import appeng.spatial.SpatialStoragePlotManager;
+import appeng.spatial.SpatialTransfer;
 
 @TestPlotClass
 public final class SpatialTestPlots {
@@ -156,6 +159,135 @@ public static void storeAndRetrieveEntities(PlotBuilder plot) {
         });
     }
 
+    /**
+     * Tests that a transfer spread over several ticks leaves block entities working in place until it completes, and
+     * that they end up back in place with their content after swapping back. Entities are held outside of the level
+     * while the transfer runs.
+     */
+    @TestPlot("spatial_multi_tick_transfer")
+    public static void multiTickTransfer(PlotBuilder plot) {
+        var chestPos = new BlockPos(5, 5, 5);
+        var stonePos = new BlockPos(15, 3, 15);
+        var ioPortPos = new BlockPos(-1, 0, 0);
+        var buttonPos = buildLargeSpatialSetup(plot, ioPortPos, chestPos, stonePos);
+
+        plot.test(helper -> {
+            var spatial = SpatialStorageHelper.getInstance();
+            var absoluteChestPos = helper.absolutePos(chestPos);
+            helper.startSequence()
+                    // Swap a single chunk column per tick
+                    .thenExecute(() -> {
+                        spatial.setTransferTickBudgetOverride(1000);
+                        helper.killAllEntities();
+                        helper.spawn(EntityType.CHICKEN, stonePos.above());
+                    })
+                    .thenIdle(5)
+                    .thenExecute(() -> helper.pressButton(buttonPos))
+                    .thenWaitUntil(() -> {
+                        var transfer = spatial.getTransfer(helper.getLevel(), absoluteChestPos);
+                        helper.check(transfer != null && transfer.getProgress() > 0, "transfer is not running");
+                        var port = (SpatialIOPortBlockEntity) helper.getBlockEntity(ioPortPos);
+                        helper.check(port.getTransferProgress() > 0, "port doesn't report the progress", ioPortPos);
+                        // The chest is still in place and working while the transfer runs
+                        assertChestContent(helper, chestPos, 5);
+                        // The chicken doesn't wander around the partially swapped region
+                        helper.assertEntityNotPresent(EntityType.CHICKEN);
+                    })
+                    .thenWaitUntil(() -> {
+                        helper.check(spatial.getTransfer(helper.getLevel(), absoluteChestPos) == null,
+                                "transfer is still running");
+                        helper.assertBlockNotPresent(AEBlocks.SKY_STONE_CHEST.block(), chestPos);
+                        helper.assertBlockNotPresent(Blocks.STONE, stonePos);
+                        helper.assertEntityNotPresent(EntityType.CHICKEN);
+                        var port = (SpatialIOPortBlockEntity) helper.getBlockEntity(ioPortPos);
+                        helper.check(port.getTransferProgress() < 0, "port still reports a transfer", ioPortPos);
+                    })
+                    .thenExecute(() -> {
+                        // Swap the cell back to the input slot and trigger a transition
+                        var port = (SpatialIOPortBlockEntity) helper.getBlockEntity(ioPortPos);
+                        var cell = port.getInternalInventory().extractItem(1, 1, false);
+                        helper.check(AEItems.SPATIAL_CELL128.is(cell), "no spatial cell in output slot", ioPortPos);
+                        insertCell(helper, ioPortPos, cell);
+                    })
+                    // Wait for button to reset
+                    .thenIdle(25)
+                    .thenExecute(() -> helper.pressButton(buttonPos))
+                    .thenWaitUntil(() -> {
+                        helper.check(spatial.getTransfer(helper.getLevel(), absoluteChestPos) == null,
+                                "transfer is still running");
+                        helper.assertBlockPresent(Blocks.STONE, stonePos);
+                        assertChestContent(helper, chestPos, 5);
+                        helper.assertEntitiesPresent(EntityType.CHICKEN, stonePos.above(), 1, 1);
+                    })
+                    .thenExecute(() -> spatial.setTransferTickBudgetOverride(-1))
+                    .thenSucceed();
+        });
+    }
+
+    /**
+     * Tests that rolling back a transfer that is spread over several ticks restores the blocks and block entities of
+     * the region.
+     */
+    @TestPlot("spatial_transfer_rollback")
+    public static void transferRollback(PlotBuilder plot) {
+        var chestPos = new BlockPos(5, 5, 5);
+        var stonePos = new BlockPos(15, 3, 15);
+        var ioPortPos = new BlockPos(-1, 0, 0);
+        var buttonPos = buildLargeSpatialSetup(plot, ioPortPos, chestPos, stonePos);
+
+        plot.test(helper -> {
+            var spatial = SpatialStorageHelper.getInstance();
+            var absoluteChestPos = helper.absolutePos(chestPos);
+            helper.startSequence()
+                    .thenExecute(() -> spatial.setTransferTickBudgetOverride(1000))
+                    .thenIdle(5)
+                    .thenExecute(() -> helper.pressButton(buttonPos))
+                    .thenWaitUntil(() -> {
+                        var transfer = spatial.getTransfer(helper.getLevel(), absoluteChestPos);
+                        helper.check(transfer != null && transfer.getProgress() > 0, "transfer is not running");
+                        transfer.rollback();
+                        helper.check(transfer.getState() == SpatialTransfer.State.ROLLED_BACK,
+                                "transfer was not rolled back");
+                    })
+                    .thenExecute(() -> {
+                        spatial.setTransferTickBudgetOverride(-1);
+                        helper.check(spatial.getTransfer(helper.getLevel(), absoluteChestPos) == null,
+                                "transfer is still registered");
+                        helper.assertBlockPresent(Blocks.STONE, stonePos);
+                        assertChestContent(helper, chestPos, 5);
+                    })
+                    .thenSucceed();
+        });
+    }
+
+    /**
+     * Builds a spatial containment structure that spans several chunk columns, with a chest holding 5 diamonds and a
+     * stone block inside.
+     *
+     * @return The position of the button that triggers the spatial IO port.
+     */
+    private static BlockPos buildLargeSpatialSetup(PlotBuilder plot, BlockPos ioPortPos, BlockPos chestPos,
+            BlockPos stonePos) {
+        plot.creativeEnergyCell("0 0 0");
+        plot.block("[1,20] 0 0", AEBlocks.SPATIAL_PYLON);
+        plot.block("0 [1,20] 0", AEBlocks.SPATIAL_PYLON);
+        plot.block("0 0 [1,20]", AEBlocks.SPATIAL_PYLON);
+        plot.blockEntity(ioPortPos, AEBlocks.SPATIAL_IO_PORT, port -> {
+            port.getInternalInventory().insertItem(0, AEItems.SPATIAL_CELL128.stack(), false);
+        });
+        plot.blockEntity(chestPos, AEBlocks.SKY_STONE_CHEST, chest -> {
+            chest.getInternalInventory().insertItem(0, new ItemStack(Items.DIAMOND, 5), false);
+        });
+        plot.block(stonePos, Blocks.STONE);
+        return plot.buttonOn(ioPortPos, Direction.WEST);
+    }
+
+    private static void assertChestContent(PlotTestHelper helper, BlockPos chestPos, long diamonds) {
+        helper.assertBlockPresent(AEBlocks.SKY_STONE_CHEST.block(), chestPos);
+        var content = helper.countContainerContentAt(chestPos);
+        helper.check(content.get(AEItemKey.of(Items.DIAMOND)) == diamonds, "chest lost its content", chestPos);
+    }
+
     private static ItemStack getCellFromSpatialIoPortOutput(PlotTestHelper helper, BlockPos ioPortPos) {
         var spatialIoPort = (SpatialIOPortBlockEntity) helper.getBlockEntity(ioPortPos);
         var cell = spatialIoPort.getInternalInventory().extractItem(1, 1, false);
@@ -20,6 +20,10 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
@@ -27,6 +31,7 @@
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ThreadedLevelLightEngine;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -34,11 +39,17 @@
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.lighting.LevelLightEngine;
 import net.minecraft.world.ticks.LevelChunkTicks;
+import net.minecraft.world.ticks.LevelTicks;
 import net.minecraft.world.ticks.ScheduledTick;
+import net.minecraft.world.ticks.TickContainerAccess;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
 import appeng.api.ids.AETags;
 import appeng.api.movable.BlockEntityMoveStrategies;
@@ -60,10 +71,14 @@ public class CachedPlane {
     private final LevelChunk[][] myChunks;
     private final Column[][] myColumns;
     private final List<BlockEntityMoveRecord> blockEntities = new ArrayList<>();
-    private final List<ScheduledTick<Block>> ticks = new ArrayList<>();
     private final ServerLevel level;
     private final List<BlockPos> updates = new ArrayList<>();
     private final BlockState matrixBlockState;
+    /**
+     * Positions relative to this plane that hold block entities in this plane or the destination plane, and are thus
+     * only swapped by {@link #completeSwap}.
+     */
+    private final LongList deferredPositions = new LongArrayList();
 
     public CachedPlane(ServerLevel level, int minX, int minY, int minZ, int maxX,
             int maxY, int maxZ) {
@@ -108,139 +123,338 @@ public CachedPlane(ServerLevel level, int minX, int minY, int minZ, int maxX,
 
         for (int cx = 0; cx < this.cx_size; cx++) {
             for (int cz = 0; cz < this.cz_size; cz++) {
-                final LevelChunk c = level.getChunk(minCX + cx, minCZ + cz);
-                this.myChunks[cx][cz] = c;
-
-                // Make a copy of the BE list in the chunk. This allows us to immediately remove BE's we're moving.
-                var rawBlockEntities = new ArrayList<>(c.getBlockEntities().entrySet());
-                for (var entry : rawBlockEntities) {
-                    var blockEntity = entry.getValue();
-
-                    var pos = blockEntity.getBlockPos();
-                    if (pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY
-                            && pos.getZ() >= minZ && pos.getZ() <= maxZ) {
-
-                        // If the block entities containing block is blacklisted, it will be skipped
-                        // automatically later, so we have to avoid removing it here
-                        if (blockEntity.getBlockState().is(AETags.SPATIAL_BLACKLIST)) {
-                            continue;
-                        }
-
-                        var strategy = BlockEntityMoveStrategies.get(blockEntity);
-                        var savedData = strategy.beginMove(blockEntity, level.registryAccess());
-                        var section = c.getSection(c.getSectionIndex(entry.getKey().getY()));
-
-                        // Coordinate within the section
-                        int sx = entry.getKey().getX() & (LevelChunkSection.SECTION_WIDTH - 1);
-                        int sy = entry.getKey().getY() & (LevelChunkSection.SECTION_HEIGHT - 1);
-                        int sz = entry.getKey().getZ() & (LevelChunkSection.SECTION_WIDTH - 1);
-                        var state = section.getBlockState(sx, sy, sz);
-
-                        if (savedData != null) {
-                            this.blockEntities.add(
-                                    new BlockEntityMoveRecord(strategy, blockEntity, savedData, entry.getKey(), state));
-
-                            // Set the state to AIR now since that prevents it from being resurrected recursively
-                            section.setBlockState(sx, sy, sz, Blocks.AIR.defaultBlockState());
-                            c.removeBlockEntity(entry.getKey());
-                        } else {
-                            // don't skip air, just let the code replace it...
-                            if (state.isAir()) {
-                                level.removeBlock(pos, false);
-                            } else {
-                                this.myColumns[pos.getX() - minX][pos.getZ() - minZ].setSkip(pos.getY());
-                            }
-                        }
-                    }
-                }
+                this.myChunks[cx][cz] = level.getChunk(minCX + cx, minCZ + cz);
+            }
+        }
 
-                var pending = (LevelChunkTicks<Block>) c.getBlockTicks();
-                pending.getAll().forEach(entry -> {
-                    var pos = entry.pos();
-                    if (pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY
-                            && pos.getZ() >= minZ && pos.getZ() <= maxZ) {
-                        this.ticks.add(entry);
-                    }
-                });
+    }
+
+    boolean hasSameSize(CachedPlane dst) {
+        return dst.x_size == this.x_size && dst.y_size == this.y_size && dst.z_size == this.z_size;
+    }
+
+    /**
+     * @return The number of chunk columns this plane spans. Swaps are done one chunk column at a time.
+     */
+    int getChunkColumnCount() {
+        return this.cx_size * this.cz_size;
+    }
+
+    List<ChunkPos> getChunkPositions() {
+        var result = new ArrayList<ChunkPos>(this.getChunkColumnCount());
+        for (int cx = 0; cx < this.cx_size; cx++) {
+            for (int cz = 0; cz < this.cz_size; cz++) {
+                result.add(this.myChunks[cx][cz].getPos());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return True if all chunks of this plane are still the loaded instances. If a chunk was unloaded since this plane
+     *         was captured, changes to it would be lost.
+     */
+    boolean isLoaded() {
+        var chunkSource = this.level.getChunkSource();
+        for (int cx = 0; cx < this.cx_size; cx++) {
+            for (int cz = 0; cz < this.cz_size; cz++) {
+                var chunk = this.myChunks[cx][cz];
+                if (chunkSource.getChunkNow(chunk.getPos().x, chunk.getPos().z) != chunk) {
+                    return false;
+                }
             }
         }
+        return true;
+    }
 
+    /**
+     * Swaps the blocks of one chunk column of this plane with the corresponding blocks of the destination plane,
+     * together with their scheduled ticks. Positions holding a block entity in either plane are left in place, so that
+     * their block entities keep working and are saved as usual until {@link #completeSwap} moves them within a single
+     * tick. Swapping the same chunk column twice restores both planes.
+     *
+     * @param index The index of the chunk column, between 0 and {@link #getChunkColumnCount()}.
+     */
+    void swapChunkColumn(CachedPlane dst, int index) {
+        this.swapChunkColumn(dst, index, this.deferredPositions);
     }
 
-    void swap(CachedPlane dst) {
-        if (dst.x_size == this.x_size && dst.y_size == this.y_size && dst.z_size == this.z_size) {
-            AELog.info("Block Copy Scale: " + this.x_size + ", " + this.y_size + ", " + this.z_size);
-
-            long startTime = System.nanoTime();
-
-            for (int x = 0; x < this.x_size; x++) {
-                for (int z = 0; z < this.z_size; z++) {
-                    final Column srcCol = this.myColumns[x][z];
-                    final Column dstCol = dst.myColumns[x][z];
-
-                    for (int y = 0; y < this.y_size; y++) {
-                        var src_y = this.y_offset + y;
-                        var dst_y = dst.y_offset + y;
-
-                        if (srcCol.doNotSkip(src_y) && dstCol.doNotSkip(dst_y)) {
-                            var srcSection = srcCol.getSection(src_y);
-                            var dstSection = dstCol.getSection(dst_y);
-
-                            var srcState = srcSection.getBlockState(srcCol.x, SectionPos.sectionRelative(src_y),
-                                    srcCol.z);
-                            if (srcState == CachedPlane.this.matrixBlockState) {
-                                srcState = Blocks.AIR.defaultBlockState();
-                            }
-                            var dstState = dstSection.getBlockState(dstCol.x, SectionPos.sectionRelative(dst_y),
-                                    dstCol.z);
-                            if (dstState == CachedPlane.this.matrixBlockState) {
-                                dstState = Blocks.AIR.defaultBlockState();
-                            }
-
-                            srcSection.setBlockState(srcCol.x, SectionPos.sectionRelative(src_y), srcCol.z, dstState);
-                            dstSection.setBlockState(dstCol.x, SectionPos.sectionRelative(dst_y), dstCol.z, srcState);
-                        } else {
-                            this.markForUpdate(this.x_offset + x, src_y, this.z_offset + z);
-                            dst.markForUpdate(dst.x_offset + x, dst_y, dst.z_offset + z);
-                        }
+    /**
+     * @param deferred Receives the positions that were left in place because they hold block entities, or null if
+     *                 they don't need to be swapped later.
+     */
+    private void swapChunkColumn(CachedPlane dst, int index, @Nullable LongList deferred) {
+        int cx = index / this.cz_size;
+        int cz = index % this.cz_size;
+        var swappedSections = this.swapWholeSections(dst, cx, cz);
+        var minCY = SectionPos.blockToSectionCoord(this.y_offset);
+
+        // The block columns of this plane that lie in the chunk column
+        int chunkX = SectionPos.sectionToBlockCoord((this.x_offset >> 4) + cx);
+        int chunkZ = SectionPos.sectionToBlockCoord((this.z_offset >> 4) + cz);
+        int minX = Math.max(0, chunkX - this.x_offset);
+        int maxX = Math.min(this.x_size, chunkX + LevelChunkSection.SECTION_WIDTH - this.x_offset);
+        int minZ = Math.max(0, chunkZ - this.z_offset);
+        int maxZ = Math.min(this.z_size, chunkZ + LevelChunkSection.SECTION_WIDTH - this.z_offset);
+
+        var leftInPlace = new LongOpenHashSet();
+        for (int x = minX; x < maxX; x++) {
+            for (int z = minZ; z < maxZ; z++) {
+                for (int y = 0; y < this.y_size; y++) {
+                    var src_y = this.y_offset + y;
+                    if (swappedSections != null && swappedSections[SectionPos.blockToSectionCoord(src_y) - minCY]) {
+                        // Skip the rest of the section, which was already swapped
+                        y += LevelChunkSection.SECTION_HEIGHT - 1 - SectionPos.sectionRelative(src_y);
+                        continue;
+                    }
+
+                    if (!this.swapBlock(dst, x, y, z, false)) {
+                        leftInPlace.add(BlockPos.asLong(x, y, z));
                     }
                 }
             }
+        }
+        if (deferred != null) {
+            deferred.addAll(leftInPlace);
+        }
 
-            long endTime = System.nanoTime();
-            long duration = endTime - startTime;
-            AELog.info("Block Copy Time: " + duration);
+        // Ticks scheduled until now are moved with their blocks, so none of them fire for the wrong block or twice
+        var area = new BoundingBox(minX, 0, minZ, maxX - 1, this.y_size - 1, maxZ - 1);
+        this.swapTicks(dst, area, pos -> !leftInPlace.contains(pos));
+    }
 
-            for (var moveRecord : this.blockEntities) {
-                var pos = moveRecord.blockEntity().getBlockPos();
-                dst.addBlockEntity(pos.getX() - this.x_offset, pos.getY() - this.y_offset,
-                        pos.getZ() - this.z_offset,
-                        moveRecord);
+    /**
+     * Swaps the block at a position relative to this plane with the block at the same position in the destination
+     * plane.
+     *
+     * @param withBlockEntities Whether blocks with block entities are swapped too. Their block entities must have been
+     *                          captured already.
+     * @return False if the blocks were left in place because one of them has a block entity.
+     */
+    private boolean swapBlock(CachedPlane dst, int x, int y, int z, boolean withBlockEntities) {
+        final Column srcCol = this.myColumns[x][z];
+        final Column dstCol = dst.myColumns[x][z];
+        var src_y = this.y_offset + y;
+        var dst_y = dst.y_offset + y;
+
+        if (srcCol.doNotSkip(src_y) && dstCol.doNotSkip(dst_y)) {
+            var srcSection = srcCol.getSection(src_y);
+            var dstSection = dstCol.getSection(dst_y);
+
+            var srcState = srcSection.getBlockState(srcCol.x, SectionPos.sectionRelative(src_y), srcCol.z);
+            var dstState = dstSection.getBlockState(dstCol.x, SectionPos.sectionRelative(dst_y), dstCol.z);
+            if (!withBlockEntities && (srcState.hasBlockEntity() || dstState.hasBlockEntity())) {
+                return false;
+            }
+            if (srcState == CachedPlane.this.matrixBlockState) {
+                srcState = Blocks.AIR.defaultBlockState();
+            }
+            if (dstState == CachedPlane.this.matrixBlockState) {
+                dstState = Blocks.AIR.defaultBlockState();
             }
 
-            for (var moveRecord : dst.blockEntities) {
-                var pos = moveRecord.blockEntity().getBlockPos();
-                this.addBlockEntity(pos.getX() - dst.x_offset, pos.getY() - dst.y_offset,
-                        pos.getZ() - dst.z_offset, moveRecord);
+            srcSection.setBlockState(srcCol.x, SectionPos.sectionRelative(src_y), srcCol.z, dstState);
+            dstSection.setBlockState(dstCol.x, SectionPos.sectionRelative(dst_y), dstCol.z, srcState);
+        } else {
+            this.markForUpdate(this.x_offset + x, src_y, this.z_offset + z);
+            dst.markForUpdate(dst.x_offset + x, dst_y, dst.z_offset + z);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the block entity at a position relative to this plane from the level, to move it once the blocks have
+     * been swapped. Block entities that can't be moved stay where they are, and so does their block.
+     */
+    private void captureBlockEntity(int x, int y, int z) {
+        var pos = new BlockPos(this.x_offset + x, this.y_offset + y, this.z_offset + z);
+        var column = this.myColumns[x][z];
+        var blockEntity = column.c.getBlockEntity(pos, LevelChunk.EntityCreationType.CHECK);
+        // If the block entities containing block is blacklisted, it will be skipped
+        // automatically later, so we have to avoid removing it here
+        if (blockEntity == null || blockEntity.getBlockState().is(AETags.SPATIAL_BLACKLIST)) {
+            return;
+        }
+
+        var strategy = BlockEntityMoveStrategies.get(blockEntity);
+        var savedData = strategy.beginMove(blockEntity, this.level.registryAccess());
+        var section = column.getSection(pos.getY());
+        int sy = SectionPos.sectionRelative(pos.getY());
+        var state = section.getBlockState(column.x, sy, column.z);
+
+        if (savedData != null) {
+            this.blockEntities.add(new BlockEntityMoveRecord(strategy, blockEntity, savedData, pos, state));
+
+            // Set the state to AIR now since that prevents it from being resurrected recursively
+            section.setBlockState(column.x, sy, column.z, Blocks.AIR.defaultBlockState());
+            column.c.removeBlockEntity(pos);
+        } else if (state.isAir()) {
+            // don't skip air, just let the code replace it...
+            this.level.removeBlock(pos, false);
+        } else {
+            column.setSkip(pos.getY());
+        }
+    }
+
+    /**
+     * Moves the block entities of both planes, and the scheduled ticks of their blocks, to the other plane once all
+     * chunk columns have been swapped, and sends the changed chunks to players.
+     */
+    void completeSwap(CachedPlane dst) {
+        // Block entities are only removed from the level now, so that they are never missing from a saved chunk
+        for (var i = 0; i < this.deferredPositions.size(); i++) {
+            var packed = this.deferredPositions.getLong(i);
+            this.captureBlockEntity(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+            dst.captureBlockEntity(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+        }
+        for (var i = 0; i < this.deferredPositions.size(); i++) {
+            var packed = this.deferredPositions.getLong(i);
+            this.swapBlock(dst, BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed), true);
+        }
+        if (!this.deferredPositions.isEmpty()) {
+            var deferred = new LongOpenHashSet(this.deferredPositions);
+            var area = new BoundingBox(0, 0, 0, this.x_size - 1, this.y_size - 1, this.z_size - 1);
+            this.swapTicks(dst, area, deferred::contains);
+        }
+        this.deferredPositions.clear();
+
+        for (var moveRecord : this.blockEntities) {
+            var pos = moveRecord.blockEntity().getBlockPos();
+            dst.addBlockEntity(pos.getX() - this.x_offset, pos.getY() - this.y_offset,
+                    pos.getZ() - this.z_offset,
+                    moveRecord);
+        }
+
+        for (var moveRecord : dst.blockEntities) {
+            var pos = moveRecord.blockEntity().getBlockPos();
+            this.addBlockEntity(pos.getX() - dst.x_offset, pos.getY() - dst.y_offset,
+                    pos.getZ() - dst.z_offset, moveRecord);
+        }
+
+        long startTime = System.nanoTime();
+        this.updateChunks();
+        dst.updateChunks();
+        long endTime = System.nanoTime();
+
+        long duration = endTime - startTime;
+        AELog.info("Update Time: " + duration);
+    }
+
+    /**
+     * Undoes the swap of the first chunk columns. Block entities were never removed, so they are still where they
+     * were. Chunks that were unloaded in the meantime are loaded again.
+     *
+     * @param swappedChunkColumns The number of chunk columns that were swapped so far.
+     */
+    void rollbackSwap(CachedPlane dst, int swappedChunkColumns) {
+        this.reloadChunks();
+        dst.reloadChunks();
+
+        for (int i = 0; i < swappedChunkColumns; i++) {
+            this.swapChunkColumn(dst, i, null);
+        }
+        this.deferredPositions.clear();
+
+        // Swapping the chunk columns again also moved their scheduled ticks back
+
+        this.updateChunks();
+        dst.updateChunks();
+    }
+
+    private void reloadChunks() {
+        for (int cx = 0; cx < this.cx_size; cx++) {
+            for (int cz = 0; cz < this.cz_size; cz++) {
+                var pos = this.myChunks[cx][cz].getPos();
+                this.myChunks[cx][cz] = this.level.getChunk(pos.x, pos.z);
             }
+        }
+        for (int x = 0; x < this.x_size; x++) {
+            for (int z = 0; z < this.z_size; z++) {
+                this.myColumns[x][z].c = this.level.getChunk(this.x_offset + x >> 4, this.z_offset + z >> 4);
+            }
+        }
+    }
 
-            for (var entry : this.ticks) {
-                var movedPos = entry.pos().offset(-this.x_offset, -this.y_offset, -this.z_offset);
-                dst.addTick(movedPos, entry);
+    /**
+     * Swaps the block states of the sections of one chunk column that lie completely inside both planes and contain
+     * no block entities or blocks that must stay in place, by exchanging their containers instead of copying block by
+     * block. Biomes stay where they are. This requires both planes to be at the same offset within their sections.
+     *
+     * @return For each section of the chunk column, whether it was swapped, or null if the planes are not aligned.
+     */
+    private boolean[] swapWholeSections(CachedPlane dst, int cx, int cz) {
+        int dx = dst.x_offset - this.x_offset;
+        int dy = dst.y_offset - this.y_offset;
+        int dz = dst.z_offset - this.z_offset;
+        if (((dx | dy | dz) & (LevelChunkSection.SECTION_WIDTH - 1)) != 0) {
+            return null;
+        }
+
+        int minCY = this.y_offset >> 4;
+        int cy_size = (this.y_offset + this.y_size - 1 >> 4) - minCY + 1;
+        var swapped = new boolean[cy_size];
+
+        // Since the planes are aligned, the chunks at the same index correspond to each other
+        var srcChunk = this.myChunks[cx][cz];
+        var dstChunk = dst.myChunks[cx][cz];
+        int sx = (this.x_offset >> 4) + cx;
+        int sz = (this.z_offset >> 4) + cz;
+
+        for (int cy = 0; cy < cy_size; cy++) {
+            int sy = minCY + cy;
+            if (!this.containsWholeSection(sx, sy, sz)) {
+                continue;
             }
 
-            for (var entry : dst.ticks) {
-                var movedPos = entry.pos().offset(-dst.x_offset, -dst.y_offset, -dst.z_offset);
-                addTick(movedPos, entry);
+            int srcIndex = srcChunk.getSectionIndexFromSectionY(sy);
+            int dstIndex = dstChunk.getSectionIndexFromSectionY(sy + (dy >> 4));
+            var srcSection = srcChunk.getSection(srcIndex);
+            var dstSection = dstChunk.getSection(dstIndex);
+            // Blocks with block entities are only swapped once their block entities are moved
+            if (srcSection.maybeHas(CachedPlane::mustSwapIndividually)
+                    || dstSection.maybeHas(CachedPlane::mustSwapIndividually)) {
+                continue;
             }
 
-            startTime = System.nanoTime();
-            this.updateChunks();
-            dst.updateChunks();
-            endTime = System.nanoTime();
+            var newSrcSection = new LevelChunkSection(dstSection.getStates(), srcSection.getBiomes());
+            var newDstSection = new LevelChunkSection(srcSection.getStates(), dstSection.getBiomes());
+            this.removeMatrixFrames(newSrcSection);
+            this.removeMatrixFrames(newDstSection);
+            srcChunk.getSections()[srcIndex] = newSrcSection;
+            dstChunk.getSections()[dstIndex] = newDstSection;
+
+            swapped[cy] = true;
+        }
+
+        return swapped;
+    }
+
+    private static boolean mustSwapIndividually(BlockState state) {
+        return state.hasBlockEntity() || state.is(AETags.SPATIAL_BLACKLIST);
+    }
+
+    private boolean containsWholeSection(int sx, int sy, int sz) {
+        return SectionPos.sectionToBlockCoord(sx) >= this.x_offset
+                && SectionPos.sectionToBlockCoord(sx, 15) < this.x_offset + this.x_size
+                && SectionPos.sectionToBlockCoord(sy) >= this.y_offset
+                && SectionPos.sectionToBlockCoord(sy, 15) < this.y_offset + this.y_size
+                && SectionPos.sectionToBlockCoord(sz) >= this.z_offset
+                && SectionPos.sectionToBlockCoord(sz, 15) < this.z_offset + this.z_size;
+    }
+
+    private void removeMatrixFrames(LevelChunkSection section) {
+        if (this.matrixBlockState == null || !section.maybeHas(state -> state == this.matrixBlockState)) {
+            return;
+        }
 
-            duration = endTime - startTime;
-            AELog.info("Update Time: " + duration);
+        for (int x = 0; x < LevelChunkSection.SECTION_WIDTH; x++) {
+            for (int y = 0; y < LevelChunkSection.SECTION_HEIGHT; y++) {
+                for (int z = 0; z < LevelChunkSection.SECTION_WIDTH; z++) {
+                    if (section.getBlockState(x, y, z) == this.matrixBlockState) {
+                        section.setBlockState(x, y, z, Blocks.AIR.defaultBlockState());
+                    }
+                }
+            }
         }
     }
 
@@ -251,9 +465,65 @@ private void markForUpdate(int x, int y, int z) {
         }
     }
 
-    private void addTick(BlockPos pos, ScheduledTick<Block> tick) {
-        this.level.getBlockTicks().schedule(new ScheduledTick<>(
-                tick.type(), pos, tick.triggerTick(), tick.priority(), tick.subTickOrder()));
+    /**
+     * Swaps the scheduled block and fluid ticks in an area relative to this plane with those in the destination plane.
+     *
+     * @param isSwapped Tests whether the block at a relative position was swapped. Ticks of blocks that were left in
+     *                  place stay where they are.
+     */
+    private void swapTicks(CachedPlane dst, BoundingBox area, LongPredicate isSwapped) {
+        this.swapTicks(dst, area, isSwapped, LevelChunk::getBlockTicks, ServerLevel::getBlockTicks);
+        this.swapTicks(dst, area, isSwapped, LevelChunk::getFluidTicks, ServerLevel::getFluidTicks);
+    }
+
+    private <T> void swapTicks(CachedPlane dst, BoundingBox area, LongPredicate isSwapped,
+            Function<LevelChunk, TickContainerAccess<T>> chunkTicks, Function<ServerLevel, LevelTicks<T>> levelTicks) {
+        var srcTicks = this.removeTicks(area, chunkTicks, levelTicks);
+        var dstTicks = dst.removeTicks(area, chunkTicks, levelTicks);
+        this.addTicks(dst, srcTicks, isSwapped, levelTicks);
+        dst.addTicks(this, dstTicks, isSwapped, levelTicks);
+    }
+
+    /**
+     * Removes the scheduled ticks in an area relative to this plane from the level.
+     */
+    private <T> List<ScheduledTick<T>> removeTicks(BoundingBox area,
+            Function<LevelChunk, TickContainerAccess<T>> chunkTicks, Function<ServerLevel, LevelTicks<T>> levelTicks) {
+        var absoluteArea = area.moved(this.x_offset, this.y_offset, this.z_offset);
+        var result = new ArrayList<ScheduledTick<T>>();
+        for (int cx = absoluteArea.minX() >> 4; cx <= absoluteArea.maxX() >> 4; cx++) {
+            for (int cz = absoluteArea.minZ() >> 4; cz <= absoluteArea.maxZ() >> 4; cz++) {
+                var ticks = (LevelChunkTicks<T>) chunkTicks.apply(this.level.getChunk(cx, cz));
+                ticks.getAll().filter(tick -> absoluteArea.isInside(tick.pos())).forEach(result::add);
+            }
+        }
+        if (!result.isEmpty()) {
+            levelTicks.apply(this.level).clearArea(absoluteArea);
+        }
+        return result;
+    }
+
+    /**
+     * Schedules ticks that were removed from this plane again, either at the same position relative to the destination
+     * plane if their block was swapped, or where they were.
+     */
+    private <T> void addTicks(CachedPlane dst, List<ScheduledTick<T>> ticks, LongPredicate isSwapped,
+            Function<ServerLevel, LevelTicks<T>> levelTicks) {
+        for (var tick : ticks) {
+            var pos = tick.pos().offset(-this.x_offset, -this.y_offset, -this.z_offset);
+            var target = isSwapped.test(pos.asLong()) && this.isSwappable(dst, pos) ? dst : this;
+            var movedPos = pos.offset(target.x_offset, target.y_offset, target.z_offset);
+            levelTicks.apply(target.level).schedule(new ScheduledTick<>(
+                    tick.type(), movedPos, tick.triggerTick(), tick.priority(), tick.subTickOrder()));
+        }
+    }
+
+    /**
+     * @return False if the block at a position relative to this plane or the destination plane is never swapped.
+     */
+    private boolean isSwappable(CachedPlane dst, BlockPos pos) {
+        return this.myColumns[pos.getX()][pos.getZ()].doNotSkip(this.y_offset + pos.getY())
+                && dst.myColumns[pos.getX()][pos.getZ()].doNotSkip(dst.y_offset + pos.getY());
     }
 
     private void addBlockEntity(int x, int y, int z, BlockEntityMoveRecord moveRecord) {
@@ -365,7 +635,7 @@ private static class Column {
         private final int x;
         private final int z;
 
-        private final LevelChunk c;
+        private LevelChunk c;
         private List<Integer> skipThese = null;
         private Int2ObjectMap<BlockState> savedBlockStates = null;
 
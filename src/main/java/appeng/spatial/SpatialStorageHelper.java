@@ -20,12 +20,18 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
@@ -33,13 +39,17 @@
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
 import net.minecraft.world.level.entity.Visibility;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.level.portal.DimensionTransition;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.event.level.BlockEvent;
 
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
 
+import appeng.core.AEConfig;
+import appeng.core.AELog;
 import appeng.core.definitions.AEBlocks;
 import appeng.core.stats.AdvancementTriggers;
 
@@ -47,6 +57,12 @@ public class SpatialStorageHelper {
 
     private static SpatialStorageHelper instance;
 
+    private final List<SpatialTransfer> transfers = new ArrayList<>();
+    /**
+     * Replaces the configured time budget of transfers if not negative. Used by tests to force multi-tick transfers.
+     */
+    private long transferTickBudgetOverride = -1;
+
     public static SpatialStorageHelper getInstance() {
         if (instance == null) {
             instance = new SpatialStorageHelper();
@@ -145,7 +161,12 @@ private void transverseEdges(int minX, int minY, int minZ, int maxX, int maxY,
         }
     }
 
-    public void swapRegions(ServerLevel srcLevel, int srcX, int srcY, int srcZ,
+    /**
+     * Starts swapping two regions. The blocks are swapped over several ticks (see {@link #tickTransfers()}), the
+     * entities are moved once all blocks have been swapped. Until then, the entities are removed from both regions, so
+     * that they don't interact with regions whose blocks are only partially swapped.
+     */
+    public SpatialTransfer swapRegions(ServerLevel srcLevel, int srcX, int srcY, int srcZ,
             ServerLevel dstLevel, int dstX, int dstY, int dstZ, int scaleX,
             int scaleY, int scaleZ) {
         Block matrixFrameBlock = AEBlocks.MATRIX_FRAME.block();
@@ -164,13 +185,34 @@ public void swapRegions(ServerLevel srcLevel, int srcX, int srcY, int srcZ,
         final CachedPlane cSrc = new CachedPlane(srcLevel, srcX, srcY, srcZ, srcX + scaleX, srcY + scaleY,
                 srcZ + scaleZ);
 
+        var heldEntities = new HeldEntities();
+        var transfer = new SpatialTransfer(cSrc, cDst,
+                new BoundingBox(srcX, srcY, srcZ, srcX + scaleX, srcY + scaleY, srcZ + scaleZ),
+                new BoundingBox(dstX, dstY, dstZ, dstX + scaleX, dstY + scaleY, dstZ + scaleZ),
+                () -> this.completeSwap(srcLevel, srcX, srcY, srcZ, dstLevel, dstX, dstY, dstZ, scaleX, scaleY, scaleZ,
+                        srcBox, dstBox, cSrc, cDst, heldEntities),
+                () -> this.releaseEntities(heldEntities, srcLevel, srcBox, dstLevel, dstBox, false));
+
+        // If a player is inside, the transfer completes right away and moves all entities at once
+        if (!transfer.hasPlayerInside()) {
+            this.holdEntities(heldEntities, srcLevel, srcBox, dstLevel, dstBox);
+        }
+
         // do nearly all the work... swaps blocks, block entities, and block ticks
-        cSrc.swap(cDst);
+        if (!transfer.tick(getTransferTickBudget())) {
+            this.transfers.add(transfer);
+        }
+        return transfer;
+    }
 
+    private void completeSwap(ServerLevel srcLevel, int srcX, int srcY, int srcZ,
+            ServerLevel dstLevel, int dstX, int dstY, int dstZ, int scaleX, int scaleY, int scaleZ,
+            AABB srcBox, AABB dstBox, CachedPlane cSrc, CachedPlane cDst, HeldEntities heldEntities) {
         // Synchronously load entities
         var loadedSrcChunks = loadEntityChunksSynchronously(srcLevel, srcBox);
         var loadedDestChunks = loadEntityChunksSynchronously(dstLevel, dstBox);
         try {
+            // These are the entities that could not be held, or that entered the regions during the transfer
             var srcE = srcLevel.getEntitiesOfClass(Entity.class, srcBox);
             var dstE = dstLevel.getEntitiesOfClass(Entity.class, dstBox);
 
@@ -183,6 +225,8 @@ public void swapRegions(ServerLevel srcLevel, int srcX, int srcY, int srcZ,
                 this.teleportEntity(e, new TelDestination(dstLevel, dstBox, e.getX(), e.getY(), e.getZ(),
                         -srcX + dstX, -srcY + dstY, -srcZ + dstZ));
             }
+
+            heldEntities.release(srcLevel, srcBox, dstLevel, dstBox, true);
         } finally {
             unloadEntityChunks(srcLevel, loadedSrcChunks);
             unloadEntityChunks(dstLevel, loadedDestChunks);
@@ -207,6 +251,117 @@ public void swapRegions(ServerLevel srcLevel, int srcX, int srcY, int srcZ,
                 new TriggerUpdates(dstLevel));
     }
 
+    /**
+     * Removes the entities from both regions before their blocks are swapped.
+     */
+    private void holdEntities(HeldEntities heldEntities, ServerLevel srcLevel, AABB srcBox, ServerLevel dstLevel,
+            AABB dstBox) {
+        var loadedSrcChunks = loadEntityChunksSynchronously(srcLevel, srcBox);
+        var loadedDestChunks = loadEntityChunksSynchronously(dstLevel, dstBox);
+        try {
+            heldEntities.hold(srcLevel, srcBox, heldEntities.fromSrc);
+            heldEntities.hold(dstLevel, dstBox, heldEntities.fromDst);
+        } finally {
+            unloadEntityChunks(srcLevel, loadedSrcChunks);
+            unloadEntityChunks(dstLevel, loadedDestChunks);
+        }
+    }
+
+    /**
+     * Adds the held entities back to the level, either to the other region or to the one they were taken from.
+     */
+    private void releaseEntities(HeldEntities heldEntities, ServerLevel srcLevel, AABB srcBox, ServerLevel dstLevel,
+            AABB dstBox, boolean swapped) {
+        var loadedSrcChunks = loadEntityChunksSynchronously(srcLevel, srcBox);
+        var loadedDestChunks = loadEntityChunksSynchronously(dstLevel, dstBox);
+        try {
+            heldEntities.release(srcLevel, srcBox, dstLevel, dstBox, swapped);
+        } finally {
+            unloadEntityChunks(srcLevel, loadedSrcChunks);
+            unloadEntityChunks(dstLevel, loadedDestChunks);
+        }
+    }
+
+    /**
+     * Continues the running transfers within the configured time budget. Called once per server tick.
+     */
+    public void tickTransfers() {
+        var budget = getTransferTickBudget();
+        // Transfers may start new ones once they complete, so don't iterate the list directly
+        for (var transfer : List.copyOf(this.transfers)) {
+            if (transfer.tick(budget)) {
+                this.transfers.remove(transfer);
+            }
+        }
+    }
+
+    /**
+     * Completes all running transfers immediately, i.e. when the server is stopping.
+     */
+    public void finishTransfers() {
+        while (!this.transfers.isEmpty()) {
+            this.transfers.remove(0).tick(0);
+        }
+    }
+
+    /**
+     * @return The running transfer that swaps the region containing the given position, if any.
+     */
+    @Nullable
+    public SpatialTransfer getTransfer(Level level, BlockPos pos) {
+        for (var transfer : this.transfers) {
+            if (transfer.contains(level, pos)) {
+                return transfer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return A running transfer that swaps a region overlapping the given box, if any.
+     */
+    @Nullable
+    public SpatialTransfer getTransfer(Level level, BoundingBox box) {
+        for (var transfer : this.transfers) {
+            if (transfer.intersects(level, box)) {
+                return transfer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Prevents players from placing and breaking blocks in regions that are being swapped.
+     */
+    public void onBlockBreak(BlockEvent.BreakEvent event) {
+        if (event.getLevel() instanceof Level level && getTransfer(level, event.getPos()) != null) {
+            event.setCanceled(true);
+        }
+    }
+
+    /**
+     * Prevents players from placing and breaking blocks in regions that are being swapped.
+     */
+    public void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
+        if (event.getLevel() instanceof Level level && getTransfer(level, event.getPos()) != null) {
+            event.setCanceled(true);
+        }
+    }
+
+    /**
+     * Overrides the configured time budget that transfers get per tick, or restores it if the override is negative.
+     */
+    public void setTransferTickBudgetOverride(long budgetNanos) {
+        this.transferTickBudgetOverride = budgetNanos;
+    }
+
+    private long getTransferTickBudget() {
+        if (this.transferTickBudgetOverride >= 0) {
+            return this.transferTickBudgetOverride;
+        }
+        return TimeUnit.MICROSECONDS.toNanos(AEConfig.instance().getSpatialTransferTickBudgetMicros());
+    }
+
     // Force-loads entity-chunks that are not currently loaded and returns the chunks
     // that we loaded explicitly (to allow unloading them)
     private LongSet loadEntityChunksSynchronously(ServerLevel level, AABB box) {
@@ -267,6 +422,68 @@ public void visit(BlockPos pos) {
         }
     }
 
+    /**
+     * The saved entities that were removed from the regions of a transfer while their blocks are being swapped.
+     * Entities that can't be saved, such as players, are left in place and teleported once the transfer completes.
+     */
+    private static class HeldEntities {
+        private final List<CompoundTag> fromSrc = new ArrayList<>();
+        private final List<CompoundTag> fromDst = new ArrayList<>();
+
+        private void hold(ServerLevel level, AABB box, List<CompoundTag> into) {
+            for (var entity : level.getEntitiesOfClass(Entity.class, box)) {
+                // Passengers are saved with their vehicle, unless one of them is a player
+                if (entity.isPassenger() || entity.getSelfAndPassengers().anyMatch(e -> e instanceof Player)) {
+                    continue;
+                }
+
+                var data = new CompoundTag();
+                if (!entity.save(data)) {
+                    continue;
+                }
+
+                into.add(data);
+                for (var removed : entity.getSelfAndPassengers().toList()) {
+                    removed.remove(Entity.RemovalReason.CHANGED_DIMENSION);
+                }
+            }
+        }
+
+        /**
+         * @param swapped True to add the entities to the other region, false to add them back where they were.
+         */
+        private void release(ServerLevel srcLevel, AABB srcBox, ServerLevel dstLevel, AABB dstBox, boolean swapped) {
+            if (swapped) {
+                add(this.fromSrc, dstLevel, srcBox, dstBox);
+                add(this.fromDst, srcLevel, dstBox, srcBox);
+            } else {
+                add(this.fromSrc, srcLevel, srcBox, srcBox);
+                add(this.fromDst, dstLevel, dstBox, dstBox);
+            }
+            this.fromSrc.clear();
+            this.fromDst.clear();
+        }
+
+        private static void add(List<CompoundTag> entities, ServerLevel level, AABB fromBox, AABB toBox) {
+            var offsetX = (int) (toBox.minX - fromBox.minX);
+            var offsetY = (int) (toBox.minY - fromBox.minY);
+            var offsetZ = (int) (toBox.minZ - fromBox.minZ);
+            for (var data : entities) {
+                var entity = EntityType.loadEntityRecursive(data, level, loaded -> {
+                    var destination = new TelDestination(level, toBox, loaded.getX(), loaded.getY(), loaded.getZ(),
+                            offsetX, offsetY, offsetZ);
+                    loaded.moveTo(destination.x, destination.y, destination.z, loaded.getYRot(), loaded.getXRot());
+                    return loaded;
+                });
+                if (entity != null) {
+                    level.addFreshEntityWithPassengers(entity);
+                } else {
+                    AELog.warn("Failed to restore entity %s after spatial transfer", data.getString("id"));
+                }
+            }
+        }
+    }
+
     private static class TelDestination {
         private final ServerLevel dim;
         private final double x;
@@ -0,0 +1,182 @@
+package appeng.spatial;
+
+import java.util.Comparator;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.phys.AABB;
+
+import appeng.core.AELog;
+
+/**
+ * A swap of two regions that is spread over several server ticks.
+ * <p/>
+ * The blocks are swapped one chunk column at a time, as far as the time budget of each tick allows, and their
+ * scheduled ticks are moved with them. Blocks with block entities are left in place until all chunk columns are
+ * swapped, and are then moved together with their block entities in the same tick. Until then, block entities keep
+ * working and are saved with their chunk as usual. While the transfer is running, the chunks of both regions are kept
+ * loaded, and players can't place or break blocks in them. If a chunk is unloaded anyway, the transfer is rolled back.
+ * <p/>
+ * Players can't be held back from a region whose blocks are only partially swapped, so a transfer is completed within
+ * the current tick while a player is in one of its regions.
+ */
+public final class SpatialTransfer {
+    private static final TicketType<ChunkPos> TICKET_TYPE = TicketType.create("ae2_spatial_transfer",
+            Comparator.comparingLong(ChunkPos::toLong));
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        ROLLED_BACK
+    }
+
+    private final CachedPlane src;
+    private final CachedPlane dst;
+    private final BoundingBox srcBox;
+    private final BoundingBox dstBox;
+    /**
+     * Called once all blocks and block entities have been swapped, to move entities and update neighbors.
+     */
+    private final Runnable onCompleted;
+    /**
+     * Called once the transfer has been rolled back.
+     */
+    private final Runnable onRolledBack;
+    private State state = State.RUNNING;
+    private int swappedChunkColumns;
+    private long swapTime;
+
+    SpatialTransfer(CachedPlane src, CachedPlane dst, BoundingBox srcBox, BoundingBox dstBox,
+            Runnable onCompleted, Runnable onRolledBack) {
+        this.src = src;
+        this.dst = dst;
+        this.srcBox = srcBox;
+        this.dstBox = dstBox;
+        this.onCompleted = onCompleted;
+        this.onRolledBack = onRolledBack;
+        setChunksForced(src, true);
+        setChunksForced(dst, true);
+        AELog.info("Block Copy Scale: " + srcBox.getXSpan() + ", " + srcBox.getYSpan() + ", " + srcBox.getZSpan());
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return The share of chunk columns that have been swapped so far, between 0 and 1.
+     */
+    public float getProgress() {
+        if (state == State.COMPLETED) {
+            return 1;
+        }
+        return swappedChunkColumns / (float) src.getChunkColumnCount();
+    }
+
+    /**
+     * @return True if the position is in one of the regions that are being swapped.
+     */
+    public boolean contains(Level level, BlockPos pos) {
+        return level == src.getLevel() && srcBox.isInside(pos) || level == dst.getLevel() && dstBox.isInside(pos);
+    }
+
+    /**
+     * @return True if the box overlaps one of the regions that are being swapped.
+     */
+    public boolean intersects(Level level, BoundingBox box) {
+        return level == src.getLevel() && srcBox.intersects(box) || level == dst.getLevel() && dstBox.intersects(box);
+    }
+
+    /**
+     * @return True if a player is in one of the regions that are being swapped.
+     */
+    boolean hasPlayerInside() {
+        return hasPlayerInside(src.getLevel(), srcBox) || hasPlayerInside(dst.getLevel(), dstBox);
+    }
+
+    private static boolean hasPlayerInside(ServerLevel level, BoundingBox box) {
+        var area = AABB.of(box);
+        for (var player : level.players()) {
+            if (player.getBoundingBox().intersects(area)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Swaps chunk columns until the time budget is used up, and completes the transfer once all are swapped.
+     *
+     * @param budgetNanos The time to spend, or 0 to finish the transfer regardless of how long it takes.
+     * @return True if the transfer is no longer running.
+     */
+    boolean tick(long budgetNanos) {
+        if (state != State.RUNNING) {
+            return true;
+        }
+
+        if (!src.isLoaded() || !dst.isLoaded()) {
+            AELog.warn("Rolling back spatial transfer from %s to %s because a chunk was unloaded", srcBox, dstBox);
+            rollback();
+            return true;
+        }
+
+        if (budgetNanos > 0 && hasPlayerInside()) {
+            budgetNanos = 0;
+        }
+
+        var startTime = System.nanoTime();
+        var chunkColumnCount = src.getChunkColumnCount();
+        while (swappedChunkColumns < chunkColumnCount) {
+            src.swapChunkColumn(dst, swappedChunkColumns++);
+            if (budgetNanos > 0 && System.nanoTime() - startTime >= budgetNanos) {
+                break;
+            }
+        }
+        swapTime += System.nanoTime() - startTime;
+
+        if (swappedChunkColumns < chunkColumnCount) {
+            return false;
+        }
+
+        AELog.info("Block Copy Time: " + swapTime);
+        src.completeSwap(dst);
+        onCompleted.run();
+        finish(State.COMPLETED);
+        return true;
+    }
+
+    /**
+     * Swaps back the chunk columns that were already swapped, leaving both regions as they were before the transfer.
+     */
+    public void rollback() {
+        if (state != State.RUNNING) {
+            return;
+        }
+        src.rollbackSwap(dst, swappedChunkColumns);
+        finish(State.ROLLED_BACK);
+        onRolledBack.run();
+    }
+
+    private void finish(State state) {
+        this.state = state;
+        setChunksForced(src, false);
+        setChunksForced(dst, false);
+    }
+
+    private static void setChunksForced(CachedPlane plane, boolean forced) {
+        ServerLevel level = plane.getLevel();
+        var chunkSource = level.getChunkSource();
+        for (var pos : plane.getChunkPositions()) {
+            if (forced) {
+                chunkSource.addRegionTicket(TICKET_TYPE, pos, 0, pos);
+            } else {
+                chunkSource.removeRegionTicket(TICKET_TYPE, pos, 0, pos);
+            }
+        }
+    }
+}
@@ -5,9 +5,14 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -28,6 +33,7 @@
 
 import appeng.api.config.FuzzyMode;
 import appeng.api.ids.AEComponents;
+import appeng.core.AEConfig;
 import appeng.core.definitions.AEItems;
 import appeng.util.BootstrapMinecraft;
 import appeng.util.Platform;
@@ -202,37 +208,100 @@ void testIsDamaged() {
         assertTrue(AEItemKey.of(stack).isDamaged());
     }
 
-    /**
-     * Regression test for {@link FuzzySearch#COMPARATOR} wrongly using AEKey identity comparison as a last resort.
-     */
     @Test
-    void testDifferentInstances(MinecraftServer server) {
-        int testCount = 100;
-        while (testCount-- > 0) {
-
-            final int COUNT = 5;
-            AEKey[] keys = new AEKey[COUNT];
-            AEKey[] keyCopies = new AEKey[COUNT];
-
-            for (int i = 0; i < COUNT; i++) {
-                var stack = new ItemStack(Items.DIAMOND_SWORD);
-                stack.enchant(Platform.getEnchantment(server, Enchantments.SHARPNESS), i + 1);
-                keys[i] = AEItemKey.of(stack);
-                keyCopies[i] = AEItemKey.of(stack);
+    void testKeysAreInterned(MinecraftServer server) {
+        var stack = new ItemStack(Items.DIAMOND_SWORD, 3);
+        var key = AEItemKey.of(stack);
+        assertThat(AEItemKey.of(Items.DIAMOND_SWORD)).isSameAs(key);
+        assertThat(key.getReadOnlyStack()).isNotSameAs(stack);
+
+        stack.enchant(Platform.getEnchantment(server, Enchantments.SHARPNESS), 1);
+        var enchantedKey = AEItemKey.of(stack);
+        assertThat(enchantedKey).isNotEqualTo(key);
+        assertThat(AEItemKey.of(stack.copy())).isSameAs(enchantedKey);
+
+        // Changing the stack afterwards must not affect the interned key
+        stack.setDamageValue(5);
+        assertThat(enchantedKey.isDamaged()).isFalse();
+        assertThat(AEItemKey.of(stack)).isNotEqualTo(enchantedKey);
+    }
 
-                // If we ever intern AEKeys, remember to update this test...
-                assertThat(keys[i]).isNotSameAs(keyCopies[i]);
+    @Test
+    void testKeysAreInternedAcrossThreads() throws Exception {
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<AEItemKey[]>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    var keys = new AEItemKey[256];
+                    for (int i = 0; i < keys.length; i++) {
+                        var stack = new ItemStack(Items.DIAMOND_SWORD);
+                        stack.setDamageValue(i + 1);
+                        keys[i] = AEItemKey.of(stack);
+                    }
+                    return keys;
+                }));
             }
 
-            var counter = new KeyCounter();
-            for (int i = 0; i < COUNT; i++) {
-                counter.set(keys[i], 1);
+            var expected = futures.getFirst().get(10, TimeUnit.SECONDS);
+            for (var future : futures) {
+                var keys = future.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < keys.length; i++) {
+                    assertThat(keys[i]).isSameAs(expected[i]);
+                }
             }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            for (int i = 0; i < COUNT; i++) {
-                assertThat(counter.get(keyCopies[i])).isEqualTo(1);
+    /**
+     * Regression test for {@link FuzzySearch#COMPARATOR} wrongly using AEKey identity comparison as a last resort.
+     */
+    @Test
+    void testDifferentInstances(MinecraftServer server) {
+        var config = AEConfig.instance();
+        var internItemKeys = config.isInternItemKeys();
+        // Interning would return the same instance for equal keys
+        config.setInternItemKeys(false);
+        try {
+            int testCount = 100;
+            while (testCount-- > 0) {
+
+                final int COUNT = 5;
+                AEKey[] keys = new AEKey[COUNT];
+                AEKey[] keyCopies = new AEKey[COUNT];
+
+                for (int i = 0; i < COUNT; i++) {
+                    var stack = new ItemStack(Items.DIAMOND_SWORD);
+                    stack.enchant(Platform.getEnchantment(server, Enchantments.SHARPNESS), i + 1);
+                    keys[i] = AEItemKey.of(stack);
+                    keyCopies[i] = AEItemKey.of(stack);
+
+                    assertThat(keys[i]).isNotSameAs(keyCopies[i]);
+                    assertThat(keys[i]).isEqualTo(keyCopies[i]);
+                    assertThat(keys[i].hashCode()).isEqualTo(keyCopies[i].hashCode());
+                }
+
+                var counter = new KeyCounter();
+                for (int i = 0; i < COUNT; i++) {
+                    counter.set(keys[i], 1);
+                }
+
+                for (int i = 0; i < COUNT; i++) {
+                    assertThat(counter.get(keyCopies[i])).isEqualTo(1);
+                }
             }
-
+        } finally {
+            config.setInternItemKeys(internItemKeys);
         }
     }
+
+    @Test
+    void testEqualKeysAreInterned(MinecraftServer server) {
+        var stack = new ItemStack(Items.DIAMOND_SWORD);
+        stack.enchant(Platform.getEnchantment(server, Enchantments.SHARPNESS), 3);
+
+        assertSame(AEItemKey.of(stack), AEItemKey.of(stack.copy()));
+    }
 }
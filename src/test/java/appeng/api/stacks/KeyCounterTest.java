@@ -20,12 +20,14 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -295,6 +297,68 @@ void testFindFuzzyForNormalItems() {
         }
     }
 
+    @Test
+    void testForEachVisitsAllEntries() {
+        itemList.add(diamondSword(100), 1);
+        itemList.add(diamondSword(50), 2);
+        itemList.add(nameTag(), 0);
+
+        var visited = new HashMap<AEKey, Long>();
+        itemList.forEach((what, amount) -> visited.put(what, amount));
+
+        assertThat(visited).containsOnly(
+                Map.entry(diamondSword(100), 1L),
+                Map.entry(diamondSword(50), 2L),
+                Map.entry(nameTag(), 0L));
+    }
+
+    /**
+     * The fuzzy index is built on the first search, and has to follow later changes.
+     */
+    @Test
+    void testFindFuzzyAfterModification() {
+        itemList.add(diamondSword(100), 1);
+        assertThat(itemList.findFuzzy(diamondSword(100), FuzzyMode.IGNORE_ALL))
+                .extracting(Map.Entry::getKey)
+                .containsOnly(diamondSword(100));
+
+        itemList.add(diamondSword(50), 1);
+        itemList.set(nameTag(), 1);
+        itemList.removeKey(diamondSword(100));
+
+        assertThat(itemList.findFuzzy(diamondSword(100), FuzzyMode.IGNORE_ALL))
+                .extracting(Map.Entry::getKey)
+                .containsOnly(diamondSword(50));
+        assertThat(itemList.findFuzzy(nameTag(), FuzzyMode.IGNORE_ALL))
+                .extracting(Map.Entry::getKey)
+                .containsOnly(nameTag());
+
+        itemList.clear();
+        assertThat(itemList.findFuzzy(diamondSword(100), FuzzyMode.IGNORE_ALL)).isEmpty();
+    }
+
+    @Test
+    void testContainsFuzzy() {
+        itemList.add(diamondSword(50), 1);
+        itemList.add(nameTag("name1"), 1);
+
+        assertTrue(itemList.containsFuzzy(diamondSword(100), FuzzyMode.IGNORE_ALL));
+        assertFalse(itemList.containsFuzzy(diamondSword(100), FuzzyMode.PERCENT_75));
+        assertTrue(itemList.containsFuzzy(diamondSword(0), FuzzyMode.PERCENT_75));
+        assertTrue(itemList.containsFuzzy(nameTag(), FuzzyMode.PERCENT_99));
+        assertFalse(itemList.containsFuzzy(AEItemKey.of(Items.CRAFTING_TABLE), FuzzyMode.IGNORE_ALL));
+
+        // Keys removed through an iterator are still in the index, but must not be found
+        var it = itemList.iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey().equals(diamondSword(50))) {
+                it.remove();
+            }
+        }
+        assertFalse(itemList.containsFuzzy(diamondSword(100), FuzzyMode.IGNORE_ALL));
+        assertThat(itemList.findFuzzy(diamondSword(100), FuzzyMode.IGNORE_ALL)).isEmpty();
+    }
+
     /**
      * Unlike previous iterations of item lists in AE, KeyCounter will throw on null arguments.
      */
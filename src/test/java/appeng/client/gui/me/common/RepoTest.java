@@ -0,0 +1,96 @@
+package appeng.client.gui.me.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.SortDir;
+import appeng.api.config.SortOrder;
+import appeng.api.config.ViewItems;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKeyType;
+import appeng.api.stacks.AEKeyTypes;
+import appeng.client.gui.widgets.ISortSource;
+import appeng.menu.me.common.GridInventoryEntry;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class RepoTest {
+    private static final int KEYS = 200;
+
+    /**
+     * Applies random updates to a repo, and checks that its incrementally updated view matches a view that is built
+     * from scratch.
+     */
+    @ParameterizedTest
+    @EnumSource(value = SortOrder.class, names = { "NAME", "AMOUNT" })
+    void testIncrementalViewMatchesFullRebuild(SortOrder sortOrder) {
+        var sortSource = new TestSortSource(sortOrder, SortDir.DESCENDING, ViewItems.STORED);
+        var repo = new Repo(() -> 0, sortSource);
+        var items = BuiltInRegistries.ITEM.stream().filter(item -> item != Items.AIR).limit(KEYS).toList();
+        var random = new Random(1234);
+
+        var current = new ArrayList<GridInventoryEntry>();
+        for (int serial = 0; serial < KEYS; serial++) {
+            current.add(new GridInventoryEntry(serial, AEItemKey.of(items.get(serial)), random.nextInt(100), 0,
+                    random.nextBoolean()));
+        }
+        repo.handleUpdate(true, current);
+
+        for (int round = 0; round < 50; round++) {
+            var updates = new ArrayList<GridInventoryEntry>();
+            for (int i = 0; i < 10; i++) {
+                var serial = random.nextInt(KEYS);
+                // Amount updates omit the key, and amount 0 without being craftable removes the entry
+                var entry = new GridInventoryEntry(serial, random.nextBoolean() ? null : current.get(serial).getWhat(),
+                        random.nextInt(4) == 0 ? 0 : random.nextInt(100), 0, random.nextBoolean());
+                updates.add(entry);
+            }
+            repo.handleUpdate(false, updates);
+
+            var rebuilt = new Repo(() -> 0, sortSource);
+            rebuilt.handleUpdate(true, new ArrayList<>(repo.getAllEntries()));
+            assertThat(getView(repo)).containsExactlyElementsOf(getView(rebuilt));
+        }
+    }
+
+    private static List<Long> getView(Repo repo) {
+        var serials = new ArrayList<Long>();
+        for (int i = 0; i < repo.size(); i++) {
+            serials.add(repo.get(i).getSerial());
+        }
+        return serials;
+    }
+
+    private record TestSortSource(SortOrder sortBy, SortDir sortDir, ViewItems viewItems) implements ISortSource {
+        @Override
+        public SortOrder getSortBy() {
+            return sortBy;
+        }
+
+        @Override
+        public SortDir getSortDir() {
+            return sortDir;
+        }
+
+        @Override
+        public ViewItems getSortDisplay() {
+            return viewItems;
+        }
+
+        @Override
+        public Set<AEKeyType> getSortKeyTypes() {
+            return new HashSet<>(AEKeyTypes.getAll());
+        }
+    }
+}
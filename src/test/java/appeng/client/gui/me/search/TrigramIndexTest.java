@@ -0,0 +1,38 @@
+package appeng.client.gui.me.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void testCandidatesContainAllTextsWithTheTerm() {
+        index.add(0, "diamond pickaxe");
+        index.add(1, "diamond");
+        index.add(2, "iron pickaxe");
+
+        assertThat(index.findCandidates("diamond")).containsExactly(0, 1);
+        assertThat(index.findCandidates("pickaxe")).containsExactly(0, 2);
+        assertThat(index.findCandidates("ond pick")).containsExactly(0);
+        assertThat(index.findCandidates("gold")).isEmpty();
+    }
+
+    @Test
+    void testShortTermsAreNotNarrowedDown() {
+        index.add(0, "stick");
+
+        assertThat(index.findCandidates("st")).isNull();
+        assertThat(index.findCandidates("")).isNull();
+    }
+
+    @Test
+    void testCandidatesAreNotLinkedToTheIndex() {
+        index.add(0, "stone");
+        var candidates = index.findCandidates("stone");
+        index.add(1, "stone");
+
+        assertThat(candidates).containsExactly(0);
+    }
+}
@@ -0,0 +1,184 @@
+package appeng.core.network.clientbound;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluids;
+import net.neoforged.neoforge.network.connection.ConnectionType;
+
+import appeng.api.stacks.AEFluidKey;
+import appeng.api.stacks.AEItemKey;
+import appeng.core.AEConfig;
+import appeng.menu.me.common.GridInventoryEntry;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class MEInventoryUpdatePacketTest {
+    private static final int CONTAINER_ID = 7;
+
+    private final RegistryAccess registryAccess = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+    private boolean compressTerminalUpdates;
+
+    @BeforeEach
+    void saveConfig() {
+        compressTerminalUpdates = AEConfig.instance().isCompressTerminalUpdates();
+    }
+
+    @AfterEach
+    void restoreConfig() {
+        AEConfig.instance().setCompressTerminalUpdates(compressTerminalUpdates);
+    }
+
+    @Test
+    void testUncompressedRoundtrip() {
+        AEConfig.instance().setCompressTerminalUpdates(false);
+        var entries = List.of(
+                new GridInventoryEntry(5, AEItemKey.of(Items.DIAMOND), 64, 0, false),
+                // Negative serial delta
+                new GridInventoryEntry(2, AEFluidKey.of(Fluids.WATER), 1000, 250, true),
+                // Large serial delta
+                new GridInventoryEntry(Long.MAX_VALUE / 2, AEItemKey.of(Items.STICK), Long.MAX_VALUE, 0, true),
+                // Incremental updates of keys the client already knows
+                new GridInventoryEntry(Long.MAX_VALUE / 2 - 1, null, 3, 0, false),
+                new GridInventoryEntry(0, null, 0, 0, false));
+
+        var packets = build(true, entries);
+        assertThat(packets).hasSize(1);
+        assertThat(packets.get(0).deflate()).isFalse();
+
+        var decoded = roundtrip(packets.get(0));
+        assertThat(decoded.fullUpdate()).isTrue();
+        assertThat(decoded.containerId()).isEqualTo(CONTAINER_ID);
+        assertEntries(decoded, entries);
+    }
+
+    @Test
+    void testCompressedRoundtrip() {
+        AEConfig.instance().setCompressTerminalUpdates(true);
+        var entries = new ArrayList<GridInventoryEntry>();
+        for (int i = 0; i < 4000; i++) {
+            // Mix serials going up and down, and entries without key
+            var serial = i % 2 == 0 ? i * 1000L : 4_000_000L - i;
+            var what = i % 3 == 0 ? null : AEItemKey.of(i % 3 == 1 ? Items.DIAMOND : Items.STICK);
+            entries.add(new GridInventoryEntry(serial, what, i * 1_000_003L, i % 5, i % 7 == 0));
+        }
+
+        var packets = build(true, entries);
+        assertThat(packets).hasSize(1);
+        assertThat(packets.get(0).deflate()).isTrue();
+
+        var decoded = roundtrip(packets.get(0));
+        assertThat(decoded.fullUpdate()).isTrue();
+        assertEntries(decoded, entries);
+    }
+
+    @Test
+    void testIncrementalUpdatesAreNotCompressed() {
+        AEConfig.instance().setCompressTerminalUpdates(true);
+        var entries = new ArrayList<GridInventoryEntry>();
+        for (int i = 0; i < 4000; i++) {
+            entries.add(new GridInventoryEntry(i, AEItemKey.of(Items.DIAMOND), i, 0, false));
+        }
+
+        var packets = build(false, entries);
+        assertThat(packets).hasSize(1);
+        assertThat(packets.get(0).deflate()).isFalse();
+
+        var decoded = roundtrip(packets.get(0));
+        assertThat(decoded.fullUpdate()).isFalse();
+        assertEntries(decoded, entries);
+    }
+
+    @Test
+    void testInflatedSizeIsBounded() {
+        var data = createBuffer();
+        data.writeVarInt(CONTAINER_ID);
+        data.writeBoolean(true);
+        data.writeVarInt(1);
+        data.writeBoolean(true);
+        data.writeVarInt(Integer.MAX_VALUE);
+        data.writeByteArray(new byte[16]);
+
+        assertThatThrownBy(() -> MEInventoryUpdatePacket.decode(data))
+                .isInstanceOf(DecoderException.class)
+                .hasMessageContaining("size");
+    }
+
+    @Test
+    void testTruncatedPayloadIsRejected() {
+        AEConfig.instance().setCompressTerminalUpdates(true);
+        var entries = new ArrayList<GridInventoryEntry>();
+        for (int i = 0; i < 4000; i++) {
+            entries.add(new GridInventoryEntry(i, AEItemKey.of(Items.DIAMOND), i, 0, false));
+        }
+        var encoded = createBuffer();
+        MEInventoryUpdatePacket.STREAM_CODEC.encode(encoded, build(true, entries).get(0));
+
+        // Claim a larger inflated size than the deflated payload actually has
+        var containerId = encoded.readVarInt();
+        var fullUpdate = encoded.readBoolean();
+        var entryCount = encoded.readVarInt();
+        encoded.readBoolean();
+        var inflatedLength = encoded.readVarInt();
+        var deflated = encoded.readByteArray();
+
+        var data = createBuffer();
+        data.writeVarInt(containerId);
+        data.writeBoolean(fullUpdate);
+        data.writeVarInt(entryCount);
+        data.writeBoolean(true);
+        data.writeVarInt(inflatedLength + 1);
+        data.writeByteArray(deflated);
+
+        assertThatThrownBy(() -> MEInventoryUpdatePacket.decode(data))
+                .isInstanceOf(DecoderException.class)
+                .hasMessageContaining("Truncated");
+    }
+
+    private List<MEInventoryUpdatePacket> build(boolean fullUpdate, List<GridInventoryEntry> entries) {
+        var builder = MEInventoryUpdatePacket.builder(CONTAINER_ID, fullUpdate, registryAccess);
+        for (var entry : entries) {
+            builder.add(entry);
+        }
+        return builder.build();
+    }
+
+    private MEInventoryUpdatePacket roundtrip(MEInventoryUpdatePacket packet) {
+        var data = createBuffer();
+        MEInventoryUpdatePacket.STREAM_CODEC.encode(data, packet);
+        var decoded = MEInventoryUpdatePacket.STREAM_CODEC.decode(data);
+        assertThat(data.readableBytes()).isZero();
+        return decoded;
+    }
+
+    private RegistryFriendlyByteBuf createBuffer() {
+        return new RegistryFriendlyByteBuf(Unpooled.buffer(), registryAccess, ConnectionType.NEOFORGE);
+    }
+
+    private static void assertEntries(MEInventoryUpdatePacket packet, List<GridInventoryEntry> expected) {
+        assertThat(packet.entries())
+                .extracting(MEInventoryUpdatePacketTest::toTuple)
+                .containsExactlyElementsOf(expected.stream().map(MEInventoryUpdatePacketTest::toTuple).toList());
+    }
+
+    private static Tuple toTuple(GridInventoryEntry entry) {
+        return tuple(entry.getSerial(), entry.getWhat(), entry.getStoredAmount(), entry.getRequestableAmount(),
+                entry.isCraftable());
+    }
+}
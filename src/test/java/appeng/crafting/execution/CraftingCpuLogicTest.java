@@ -0,0 +1,223 @@
+package appeng.crafting.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.Actionable;
+import appeng.api.crafting.IPatternDetails;
+import appeng.api.networking.IGrid;
+import appeng.api.networking.crafting.ICraftingProvider;
+import appeng.api.networking.energy.IEnergyService;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.GenericStack;
+import appeng.api.stacks.KeyCounter;
+import appeng.crafting.CraftingPlan;
+import appeng.crafting.simulation.helpers.ProcessingPatternBuilder;
+import appeng.me.cluster.implementations.CraftingCPUCluster;
+import appeng.me.service.CraftingService;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class CraftingCpuLogicTest {
+    private static final int TASKS = 10;
+
+    private final AEItemKey ingot = AEItemKey.of(Items.IRON_INGOT);
+    private final AEItemKey block = AEItemKey.of(Items.IRON_BLOCK);
+    // Each copy turns 2 ingots into a block.
+    private final IPatternDetails pattern = new ProcessingPatternBuilder(new GenericStack(block, 1))
+            .addPreciseInput(2, new GenericStack(ingot, 1))
+            .build();
+
+    private final CraftingCPUCluster cluster = mock(CraftingCPUCluster.class);
+    private final CraftingService craftingService = mock(CraftingService.class);
+    private final IEnergyService energyService = mock(IEnergyService.class);
+    private final CraftingCpuLogic cpu = new CraftingCpuLogic(cluster);
+    private double extractedPower;
+    private double availablePower = Double.MAX_VALUE;
+
+    @BeforeEach
+    void setUp() {
+        when(cluster.isActive()).thenReturn(true);
+        when(cluster.getAvailableStorage()).thenReturn(Long.MAX_VALUE);
+        when(energyService.extractAEPower(anyDouble(), any(), any())).thenAnswer(invocation -> {
+            double requested = invocation.getArgument(0);
+            var amount = Math.min(requested, availablePower);
+            if (invocation.getArgument(1) == Actionable.MODULATE) {
+                extractedPower += amount;
+                availablePower -= amount;
+            }
+            return amount;
+        });
+    }
+
+    @Test
+    void testBatchesExtractInputsAndPowerOnce() {
+        submitJob(2 * TASKS);
+        var provider = new BatchingProvider(4);
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(provider));
+
+        // Each provider is pushed to once per call
+        assertThat(cpu.executeCrafting(8, craftingService, energyService, null)).isEqualTo(4);
+        assertThat(cpu.executeCrafting(4, craftingService, energyService, null)).isEqualTo(4);
+
+        assertThat(provider.pushedCopies).containsExactly(4, 4);
+        assertThat(provider.pushedIngots).containsExactly(8L, 8L);
+        assertThat(cpu.getStored(ingot)).isEqualTo(4);
+        assertThat(extractedPower).isEqualTo(16);
+        assertThat(cpu.getWaitingFor(block)).isEqualTo(8);
+        assertThat(cpu.getPendingOutputs(block)).isEqualTo(TASKS - 8);
+    }
+
+    @Test
+    void testBatchIsHalvedUntilInputsAreAvailable() {
+        // Only enough ingots for 3 copies
+        submitJob(6);
+        var provider = new BatchingProvider(4);
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(provider));
+
+        assertThat(cpu.executeCrafting(8, craftingService, energyService, null)).isEqualTo(2);
+
+        assertThat(provider.pushedCopies).containsExactly(2);
+        assertThat(provider.pushedIngots).containsExactly(4L);
+        assertThat(cpu.getStored(ingot)).isEqualTo(2);
+        assertThat(extractedPower).isEqualTo(4);
+        assertThat(cpu.getWaitingFor(block)).isEqualTo(2);
+        assertThat(cpu.getPendingOutputs(block)).isEqualTo(TASKS - 2);
+    }
+
+    @Test
+    void testBatchIsHalvedUntilPowerIsAvailable() {
+        submitJob(2 * TASKS);
+        // Only enough power for 2 copies
+        availablePower = 5;
+        var provider = new BatchingProvider(4);
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(provider));
+
+        assertThat(cpu.executeCrafting(4, craftingService, energyService, null)).isEqualTo(2);
+
+        assertThat(provider.pushedCopies).containsExactly(2);
+        assertThat(cpu.getStored(ingot)).isEqualTo(2 * TASKS - 4);
+        assertThat(extractedPower).isEqualTo(4);
+        assertThat(cpu.getWaitingFor(block)).isEqualTo(2);
+        assertThat(cpu.getPendingOutputs(block)).isEqualTo(TASKS - 2);
+    }
+
+    @Test
+    void testRejectedBatchIsPassedToTheNextProvider() {
+        submitJob(2 * TASKS);
+        var rejecting = new BatchingProvider(4);
+        rejecting.accept = false;
+        var accepting = new BatchingProvider(4);
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(rejecting, accepting));
+
+        assertThat(cpu.executeCrafting(4, craftingService, energyService, null)).isEqualTo(4);
+
+        assertThat(rejecting.pushedCopies).isEmpty();
+        assertThat(accepting.pushedCopies).containsExactly(4);
+        assertThat(cpu.getStored(ingot)).isEqualTo(2 * TASKS - 8);
+        assertThat(extractedPower).isEqualTo(8);
+        assertThat(cpu.getWaitingFor(block)).isEqualTo(4);
+        assertThat(cpu.getPendingOutputs(block)).isEqualTo(TASKS - 4);
+    }
+
+    @Test
+    void testRejectedBatchIsReinjected() {
+        submitJob(2 * TASKS);
+        var provider = new BatchingProvider(4);
+        provider.accept = false;
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(provider));
+
+        assertThat(cpu.executeCrafting(8, craftingService, energyService, null)).isZero();
+
+        assertThat(cpu.getStored(ingot)).isEqualTo(2 * TASKS);
+        assertThat(extractedPower).isZero();
+        assertThat(cpu.getWaitingFor(block)).isZero();
+        assertThat(cpu.getPendingOutputs(block)).isEqualTo(TASKS);
+    }
+
+    @Test
+    void testInvalidBatchSizeIsTreatedAsSingleCopy() {
+        submitJob(2 * TASKS);
+        var provider = new BatchingProvider(0);
+        when(craftingService.getProviders(pattern)).thenReturn(List.of(provider));
+
+        assertThat(cpu.executeCrafting(4, craftingService, energyService, null)).isEqualTo(1);
+
+        assertThat(provider.pushedCopies).containsExactly(1);
+        assertThat(cpu.getPendingOutputs(block)).isEqualTo(TASKS - 1);
+    }
+
+    /**
+     * Submits a job that crafts {@link #TASKS} copies of the pattern, with the given number of ingots extracted from
+     * the network.
+     */
+    private void submitJob(long ingots) {
+        var usedItems = new KeyCounter();
+        usedItems.add(ingot, ingots);
+        var plan = new CraftingPlan(new GenericStack(block, TASKS), 0, false, false, usedItems, new KeyCounter(),
+                new KeyCounter(), Map.of(pattern, (long) TASKS));
+
+        var grid = mock(IGrid.class, RETURNS_DEEP_STUBS);
+        when(grid.getStorageService().getInventory().extract(any(), anyLong(), eq(Actionable.MODULATE), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        assertThat(cpu.trySubmitJob(grid, plan, IActionSource.empty(), null).successful()).isTrue();
+    }
+
+    private static class BatchingProvider implements ICraftingProvider {
+        private final int maxBatchSize;
+        private final List<Integer> pushedCopies = new ArrayList<>();
+        private final List<Long> pushedIngots = new ArrayList<>();
+        private boolean accept = true;
+
+        BatchingProvider(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        @Override
+        public List<IPatternDetails> getAvailablePatterns() {
+            return List.of();
+        }
+
+        @Override
+        public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder) {
+            return pushPatterns(patternDetails, inputHolder, 1);
+        }
+
+        @Override
+        public int getMaxPatternBatchSize(IPatternDetails patternDetails) {
+            return maxBatchSize;
+        }
+
+        @Override
+        public boolean pushPatterns(IPatternDetails patternDetails, KeyCounter[] inputHolder, int copies) {
+            if (!accept) {
+                return false;
+            }
+            pushedCopies.add(copies);
+            pushedIngots.add(inputHolder[0].get(AEItemKey.of(Items.IRON_INGOT)));
+            return true;
+        }
+
+        @Override
+        public boolean isBusy() {
+            return false;
+        }
+    }
+}
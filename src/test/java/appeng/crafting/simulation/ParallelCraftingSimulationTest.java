@@ -0,0 +1,71 @@
+package appeng.crafting.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import appeng.api.networking.crafting.CalculationStrategy;
+import appeng.api.networking.crafting.ICraftingPlan;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.core.AEConfig;
+import appeng.crafting.simulation.benchmark.SyntheticRecipeGraph;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Runs the scenarios of {@link CraftingSimulationTest} while the inputs of patterns are requested by parallel workers,
+ * which has to result in the same plans as requesting them one after another.
+ */
+@BootstrapMinecraft
+public class ParallelCraftingSimulationTest extends CraftingSimulationTest {
+    private static final int THREADS = 4;
+
+    private int previousThreads;
+
+    @BeforeEach
+    void enableParallelPlanner() {
+        previousThreads = AEConfig.instance().getCraftingCalculationThreads();
+        AEConfig.instance().setCraftingCalculationThreads(THREADS);
+    }
+
+    @AfterEach
+    void restoreThreads() {
+        AEConfig.instance().setCraftingCalculationThreads(previousThreads);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticRecipeGraph.class)
+    void testSamePlanAsSequentialPlanner(SyntheticRecipeGraph graph) {
+        var instance = graph.create();
+
+        for (var strategy : CalculationStrategy.values()) {
+            AEConfig.instance().setCraftingCalculationThreads(0);
+            var sequential = instance.env().runSimulation(instance.request(), strategy);
+            AEConfig.instance().setCraftingCalculationThreads(THREADS);
+            var parallel = instance.env().runSimulation(instance.request(), strategy);
+
+            assertSamePlan(parallel, sequential);
+        }
+    }
+
+    private static void assertSamePlan(ICraftingPlan actual, ICraftingPlan expected) {
+        assertThat(actual.simulation()).isEqualTo(expected.simulation());
+        assertThat(actual.patternTimes()).isEqualTo(expected.patternTimes());
+        assertThat(toMap(actual.usedItems())).isEqualTo(toMap(expected.usedItems()));
+        assertThat(toMap(actual.missingItems())).isEqualTo(toMap(expected.missingItems()));
+        assertThat(toMap(actual.emittedItems())).isEqualTo(toMap(expected.emittedItems()));
+        assertThat(actual.bytes()).isEqualTo(expected.bytes());
+    }
+
+    private static Map<AEKey, Long> toMap(KeyCounter counter) {
+        var result = new HashMap<AEKey, Long>();
+        counter.forEach(result::put);
+        return result;
+    }
+}
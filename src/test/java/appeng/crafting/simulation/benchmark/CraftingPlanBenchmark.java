@@ -0,0 +1,66 @@
+package appeng.crafting.simulation.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import appeng.api.networking.crafting.CalculationStrategy;
+import appeng.api.networking.crafting.ICraftingPlan;
+import appeng.core.AELog;
+
+/**
+ * Measures how many plans per second the crafting calculation produces for each {@link SyntheticRecipeGraph}. Run it
+ * through {@link CraftingPlanBenchmarkRunner}, which also reports the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CraftingPlanBenchmark {
+    @Param
+    public SyntheticRecipeGraph graph;
+
+    @Param
+    public CalculationStrategy strategy;
+
+    private SyntheticRecipeGraph.Instance instance;
+    private ExecutorService executor;
+    /**
+     * The largest plan seen during the trial, in bytes, which is the size the simulation state had to track.
+     */
+    private long peakPlanBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        instance = graph.create();
+        executor = Executors.newSingleThreadExecutor();
+        peakPlanBytes = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        AELog.info("Crafting plan benchmark %s/%s: peak plan size %d bytes", graph, strategy, peakPlanBytes);
+    }
+
+    @Benchmark
+    public ICraftingPlan plan() {
+        var plan = instance.env().runSimulation(instance.request(), strategy, executor);
+        peakPlanBytes = Math.max(peakPlanBytes, plan.bytes());
+        return plan;
+    }
+}
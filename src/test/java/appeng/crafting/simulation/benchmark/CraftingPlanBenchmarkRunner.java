@@ -0,0 +1,32 @@
+package appeng.crafting.simulation.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Runs {@link CraftingPlanBenchmark} from within the unit test environment, since Minecraft is only bootstrapped there.
+ * Excluded from the regular test run, use <code>./gradlew test -Pbenchmarks</code> to run it.
+ */
+@Tag("benchmark")
+@BootstrapMinecraft
+class CraftingPlanBenchmarkRunner {
+    @Test
+    void runCraftingPlanBenchmark() throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(CraftingPlanBenchmark.class.getName())
+                // Forked JVMs would not have Minecraft bootstrapped
+                .forks(0)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("build/reports/jmh/crafting-plan.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,158 @@
+package appeng.crafting.simulation.benchmark;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.material.Fluids;
+
+import appeng.api.stacks.AEFluidKey;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.GenericStack;
+import appeng.crafting.simulation.helpers.ProcessingPatternBuilder;
+import appeng.crafting.simulation.helpers.SimulationEnv;
+
+/**
+ * Recipe graphs of different shapes used to measure the crafting calculation.
+ */
+public enum SyntheticRecipeGraph {
+    /**
+     * A single long chain of patterns, each consuming the output of the previous one.
+     */
+    DEEP_CHAIN(SyntheticRecipeGraph::deepChain),
+    /**
+     * One pattern with many different inputs, each of which has to be crafted first.
+     */
+    WIDE_FAN_IN(SyntheticRecipeGraph::wideFanIn),
+    /**
+     * Two patterns that pass a container item back and forth, so that it can be reused.
+     */
+    CONTAINER_CYCLE(SyntheticRecipeGraph::containerCycle),
+    /**
+     * Patterns whose inputs are matched fuzzily against many damaged variants of a tool.
+     */
+    FUZZY_INPUTS(SyntheticRecipeGraph::fuzzyInputs);
+
+    private static final int CHAIN_LENGTH = 64;
+    private static final int FAN_IN_WIDTH = 32;
+
+    private final Supplier<Instance> factory;
+
+    SyntheticRecipeGraph(Supplier<Instance> factory) {
+        this.factory = factory;
+    }
+
+    public Instance create() {
+        return factory.get();
+    }
+
+    /**
+     * @param env     The simulated network containing the patterns and stored items.
+     * @param request The stack to plan.
+     */
+    public record Instance(SimulationEnv env, GenericStack request) {
+    }
+
+    private static Instance deepChain() {
+        var env = new SimulationEnv();
+        var items = distinctItems(CHAIN_LENGTH + 1);
+
+        for (int i = 0; i < CHAIN_LENGTH; i++) {
+            env.addPattern(new ProcessingPatternBuilder(item(items.get(i + 1), 1))
+                    .addPreciseInput(1, item(items.get(i), 1))
+                    .build());
+        }
+        env.addStoredItem(AEItemKey.of(items.get(0)), 1_000_000);
+
+        return new Instance(env, item(items.get(CHAIN_LENGTH), 1000));
+    }
+
+    private static Instance wideFanIn() {
+        var env = new SimulationEnv();
+        var items = distinctItems(2 * FAN_IN_WIDTH + 1);
+        var output = items.get(2 * FAN_IN_WIDTH);
+
+        var root = new ProcessingPatternBuilder(item(output, 1));
+        for (int i = 0; i < FAN_IN_WIDTH; i++) {
+            var intermediate = item(items.get(i), 1);
+            var base = item(items.get(FAN_IN_WIDTH + i), 1);
+            root.addPreciseInput(1, intermediate);
+            env.addPattern(new ProcessingPatternBuilder(intermediate).addPreciseInput(3, base).build());
+            env.addStoredItem(base.what(), 1_000_000);
+        }
+        env.addPattern(root.build());
+
+        return new Instance(env, item(output, 1000));
+    }
+
+    private static Instance containerCycle() {
+        var env = new SimulationEnv();
+
+        var emptyBucket = item(Items.BUCKET, 1);
+        var waterBucket = item(Items.WATER_BUCKET, 1);
+        var grass = item(Items.GRASS_BLOCK, 1);
+        var dirt = item(Items.DIRT, 1);
+        var water = new GenericStack(AEFluidKey.of(Fluids.WATER), AEFluidKey.AMOUNT_BUCKET);
+
+        env.addPattern(new ProcessingPatternBuilder(grass)
+                .addPreciseInput(1, dirt)
+                .addPreciseInput(1, true, waterBucket)
+                .build());
+        env.addPattern(new ProcessingPatternBuilder(waterBucket)
+                .addPreciseInput(1, emptyBucket)
+                .addPreciseInput(1, water)
+                .build());
+
+        env.addStoredItem(emptyBucket);
+        env.addStoredItem(dirt.what(), 1_000_000);
+        env.addEmitable(water.what());
+
+        return new Instance(env, item(Items.GRASS_BLOCK, 1000));
+    }
+
+    private static Instance fuzzyInputs() {
+        var env = new SimulationEnv();
+
+        var pickaxe = new ItemStack(Items.DIAMOND_PICKAXE);
+        pickaxe.setDamageValue(100);
+        var damagedPickaxe = GenericStack.fromItemStack(pickaxe);
+        var cobble = item(Items.COBBLESTONE, 1);
+        var stone = item(Items.STONE, 1);
+
+        env.addPattern(new ProcessingPatternBuilder(cobble)
+                .addPreciseInput(1, stone)
+                .addDamageableInput(Items.DIAMOND_PICKAXE)
+                .build());
+        // The pattern output is damaged, so it can only be found through a fuzzy lookup
+        env.addPattern(new ProcessingPatternBuilder(damagedPickaxe)
+                .addPreciseInput(3, item(Items.DIAMOND, 1))
+                .addPreciseInput(2, item(Items.STICK, 1))
+                .build());
+
+        env.addStoredItem(stone.what(), 1_000_000);
+        env.addStoredItem(item(Items.DIAMOND, 1000));
+        env.addStoredItem(item(Items.STICK, 1000));
+        // Many differently damaged tools for the fuzzy search to choose from
+        for (int damage = 1; damage <= 64; damage++) {
+            var candidate = new ItemStack(Items.DIAMOND_PICKAXE);
+            candidate.setDamageValue(damage);
+            env.addStoredItem(GenericStack.fromItemStack(candidate));
+        }
+
+        return new Instance(env, item(Items.COBBLESTONE, 1000));
+    }
+
+    private static List<Item> distinctItems(int count) {
+        return BuiltInRegistries.ITEM.stream()
+                .filter(item -> item != Items.AIR && !new ItemStack(item).isDamageableItem())
+                .limit(count)
+                .toList();
+    }
+
+    private static GenericStack item(Item item, long amount) {
+        return new GenericStack(AEItemKey.of(item), amount);
+    }
+}
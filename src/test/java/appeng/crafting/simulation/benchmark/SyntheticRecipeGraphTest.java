@@ -0,0 +1,29 @@
+package appeng.crafting.simulation.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import appeng.api.networking.crafting.CalculationStrategy;
+import appeng.util.BootstrapMinecraft;
+
+/**
+ * Makes sure the benchmarked graphs actually result in successful plans, so that the benchmark doesn't only measure
+ * failing calculations.
+ */
+@BootstrapMinecraft
+class SyntheticRecipeGraphTest {
+    @ParameterizedTest
+    @EnumSource(SyntheticRecipeGraph.class)
+    void testGraphCanBeCrafted(SyntheticRecipeGraph graph) {
+        var instance = graph.create();
+
+        for (var strategy : CalculationStrategy.values()) {
+            var plan = instance.env().runSimulation(instance.request(), strategy);
+            assertThat(plan.simulation()).isFalse();
+            assertThat(plan.finalOutput()).isEqualTo(instance.request());
+            assertThat(plan.patternTimes()).isNotEmpty();
+        }
+    }
+}
@@ -9,6 +9,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -88,16 +89,22 @@ public SimulationEnv copy() {
     }
 
     public ICraftingPlan runSimulation(GenericStack what, CalculationStrategy strategy) {
-        var calculation = new CraftingCalculation(mock(Level.class), gridMock, simulationRequester, what, strategy);
+        return runSimulation(what, strategy, Executors.newSingleThreadExecutor());
+    }
+
+    /**
+     * Runs the calculation on the given executor, which allows repeated simulations to reuse the same thread.
+     */
+    public ICraftingPlan runSimulation(GenericStack what, CalculationStrategy strategy, ExecutorService executor) {
+        var calculation = new CraftingCalculation(levelMock, gridMock, simulationRequester, what, strategy);
         try {
-            var calculationFuture = Executors.newSingleThreadExecutor().submit(calculation::run);
-            calculation.simulateFor(1000000000);
-            return calculationFuture.get(1000, TimeUnit.MILLISECONDS);
+            return executor.submit(calculation::run).get(1000, TimeUnit.MILLISECONDS);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private final Level levelMock = mock(Level.class);
     private final IGrid gridMock = createGridMock();
     private final IGridNode nodeMock = createNodeMock();
     private final ICraftingSimulationRequester simulationRequester = new ICraftingSimulationRequester() {
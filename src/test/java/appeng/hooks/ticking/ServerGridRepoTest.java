@@ -0,0 +1,73 @@
+package appeng.hooks.ticking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import appeng.me.Grid;
+
+class ServerGridRepoTest {
+    private final ServerGridRepo repo = new ServerGridRepo();
+    private final Grid first = mock(Grid.class);
+    private final Grid second = mock(Grid.class);
+
+    /**
+     * Both grids always have more work than one global budget allows, so only the grid that is ticked first gets to
+     * tick. They must take turns instead of the first one starving the other.
+     */
+    @Test
+    void testGridsTakeTurnsWithOneGlobalBudget() {
+        repo.addNetwork(first);
+        repo.addNetwork(second);
+        repo.updateNetworks();
+
+        var tickedFirst = 0;
+        var tickedSecond = 0;
+        for (int tick = 0; tick < 10; tick++) {
+            var ticked = new HashSet<Grid>();
+            var deferred = new HashSet<Grid>();
+            simulateTick(ticked, deferred);
+            if (ticked.contains(first)) {
+                tickedFirst++;
+            }
+            if (ticked.contains(second)) {
+                tickedSecond++;
+            }
+            repo.rotatePastLastTicked(deferred::contains, ticked::contains);
+        }
+
+        assertThat(tickedFirst).isEqualTo(5);
+        assertThat(tickedSecond).isEqualTo(5);
+    }
+
+    @Test
+    void testOrderIsKeptWhenNothingWasDeferred() {
+        repo.addNetwork(first);
+        repo.addNetwork(second);
+        repo.updateNetworks();
+        var order = repo.getNetworks().stream().toList();
+
+        repo.rotatePastLastTicked(g -> false, g -> true);
+
+        assertThat(repo.getNetworks()).containsExactlyElementsOf(order);
+    }
+
+    /**
+     * The grid that is ticked first uses up the whole budget and still has work left, and every grid after it gets
+     * nothing.
+     */
+    private void simulateTick(Set<Grid> ticked, Set<Grid> deferred) {
+        var budgetUsed = false;
+        for (var grid : repo.getNetworks()) {
+            if (!budgetUsed) {
+                ticked.add(grid);
+                budgetUsed = true;
+            }
+            deferred.add(grid);
+        }
+    }
+}
@@ -205,4 +205,54 @@ private void assertSameGrid(IGridNode a, IGridNode b) {
         }
     }
 
+    /**
+     * Tests how grids are split when connections or nodes are removed.
+     */
+    @Nested
+    class GridSplitting {
+        @Test
+        void testRemovingConnectionInLoopKeepsGrid() {
+            var a = makeReadyNode();
+            var b = makeReadyNode();
+            var c = makeReadyNode();
+            var ab = GridHelper.createConnection(a, b);
+            GridHelper.createConnection(b, c);
+            GridHelper.createConnection(c, a);
+            var grid = a.getGrid();
+
+            ab.destroy();
+            assertSame(grid, a.getGrid());
+            assertSame(grid, b.getGrid());
+            assertSame(grid, c.getGrid());
+            assertEquals(3, grid.size());
+        }
+
+        /**
+         * When there's <code>a-b-c-d</code> and <code>b-e</code>, destroying b should leave three grids, and the
+         * largest part keeps the original grid.
+         */
+        @Test
+        void testDestroyingNodeSplitsGridIntoParts() {
+            var a = makeReadyNode();
+            var b = makeReadyNode();
+            var c = makeReadyNode();
+            var d = makeReadyNode();
+            var e = makeReadyNode();
+            GridHelper.createConnection(a, b);
+            GridHelper.createConnection(b, c);
+            GridHelper.createConnection(c, d);
+            GridHelper.createConnection(b, e);
+            var grid = a.getGrid();
+            assertEquals(5, grid.size());
+
+            b.destroy();
+            assertSame(grid, c.getGrid());
+            assertSame(grid, d.getGrid());
+            assertEquals(2, grid.size());
+            assertThat(a.getGrid()).isNotSameAs(grid).isNotSameAs(e.getGrid());
+            assertEquals(1, a.getGrid().size());
+            assertEquals(1, e.getGrid().size());
+        }
+    }
+
 }
@@ -9,6 +9,10 @@
 
 import org.junit.jupiter.api.Test;
 
+import appeng.api.networking.GridHelper;
+import appeng.api.networking.IGridConnection;
+import appeng.api.networking.IGridConnectionVisitor;
+import appeng.api.networking.IGridNode;
 import appeng.api.networking.IGridNodeListener;
 import appeng.me.service.PathingService;
 
@@ -33,4 +37,43 @@ public void rebootNotificationIsPostedAfterGridBeginsBooting() {
         assertThat(calls).containsExactly(false, true);
     }
 
+    /**
+     * Visits of <code>a-b-c</code> with <code>b-d</code> reach every node and connection once, in breadth-first
+     * order.
+     */
+    @Test
+    void testVisitReachesEveryNodeOnce() {
+        var a = makeReadyNode();
+        var b = makeReadyNode();
+        var c = makeReadyNode();
+        var d = makeReadyNode();
+        var ab = GridHelper.createConnection(a, b);
+        var bc = GridHelper.createConnection(b, c);
+        var bd = GridHelper.createConnection(b, d);
+
+        var visited = new ArrayList<IGridNode>();
+        var connections = new ArrayList<IGridConnection>();
+        a.beginVisit(new IGridConnectionVisitor() {
+            @Override
+            public void visitConnection(IGridConnection gc) {
+                connections.add(gc);
+            }
+
+            @Override
+            public boolean visitNode(IGridNode n) {
+                visited.add(n);
+                return true;
+            }
+        });
+
+        assertThat(visited.subList(0, 2)).containsExactly(a, b);
+        assertThat(visited.subList(2, 4)).containsExactlyInAnyOrder(c, d);
+        assertThat(connections).containsExactly(ab, bc, bd);
+
+        // Visiting again must not be affected by the previous visit
+        visited.clear();
+        c.beginVisit(visited::add);
+        assertThat(visited).containsExactlyInAnyOrder(a, b, c, d);
+    }
+
 }
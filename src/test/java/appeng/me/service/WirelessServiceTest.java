@@ -0,0 +1,63 @@
+package appeng.me.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
+import appeng.api.networking.IGridNode;
+import appeng.blockentity.networking.WirelessAccessPointBlockEntity;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class WirelessServiceTest {
+    private final WirelessService service = new WirelessService();
+    private final Level level = mock(Level.class);
+    private final Level otherLevel = mock(Level.class);
+
+    @Test
+    void testAccessPointsAreFoundWithinTheirRange() {
+        var near = addAccessPoint(level, new BlockPos(0, 64, 0), 16);
+        var far = addAccessPoint(level, new BlockPos(1000, 64, -1000), 300);
+
+        assertThat(service.getAccessPointsNear(level, 10, -10)).containsExactly(near);
+        assertThat(service.getAccessPointsNear(level, 800, -800)).containsExactly(far);
+        assertThat(service.getAccessPointsNear(level, 5000, 5000)).isEmpty();
+        assertThat(service.getAccessPointsNear(otherLevel, 10, -10)).isEmpty();
+    }
+
+    @Test
+    void testRangeChangesAndRemovalUpdateTheIndex() {
+        var accessPoint = mock(WirelessAccessPointBlockEntity.class);
+        when(accessPoint.getLevel()).thenReturn(level);
+        when(accessPoint.getBlockPos()).thenReturn(BlockPos.ZERO);
+        when(accessPoint.getRange()).thenReturn(16.0);
+        var node = mock(IGridNode.class);
+        when(node.getOwner()).thenReturn(accessPoint);
+        service.addNode(node, null);
+        assertThat(service.getAccessPointsNear(level, 500, 0)).isEmpty();
+
+        when(accessPoint.getRange()).thenReturn(600.0);
+        service.updateAccessPoint(accessPoint);
+        assertThat(service.getAccessPointsNear(level, 500, 0)).containsExactly(accessPoint);
+
+        service.removeNode(node);
+        assertThat(service.getAccessPointsNear(level, 500, 0)).isEmpty();
+        assertThat(service.getAccessPointsNear(level, 0, 0)).isEmpty();
+    }
+
+    private WirelessAccessPointBlockEntity addAccessPoint(Level level, BlockPos pos, double range) {
+        var accessPoint = mock(WirelessAccessPointBlockEntity.class);
+        when(accessPoint.getLevel()).thenReturn(level);
+        when(accessPoint.getBlockPos()).thenReturn(pos);
+        when(accessPoint.getRange()).thenReturn(range);
+        var node = mock(IGridNode.class);
+        when(node.getOwner()).thenReturn(accessPoint);
+        service.addNode(node, null);
+        return accessPoint;
+    }
+}
@@ -0,0 +1,58 @@
+package appeng.me.service.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.Items;
+
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class KeyChangeLogTest {
+    private final KeyChangeLog log = new KeyChangeLog(4);
+
+    private final AEItemKey diamond = AEItemKey.of(Items.DIAMOND);
+    private final AEItemKey stick = AEItemKey.of(Items.STICK);
+
+    @Test
+    void testChangesSinceVersion() {
+        log.record(diamond);
+        var version = log.getVersion();
+        log.record(stick);
+        log.record(diamond);
+
+        var changes = new ArrayList<AEKey>();
+        assertThat(log.getChangesSince(version, changes::add)).isTrue();
+        assertThat(changes).containsExactly(stick, diamond);
+    }
+
+    @Test
+    void testNoChangesAtCurrentVersion() {
+        log.record(diamond);
+
+        var changes = new ArrayList<AEKey>();
+        assertThat(log.getChangesSince(log.getVersion(), changes::add)).isTrue();
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void testFallingBehindRequiresFullUpdate() {
+        var version = log.getVersion();
+        for (int i = 0; i < 4; i++) {
+            log.record(diamond);
+        }
+        assertThat(log.getChangesSince(version, key -> {
+        })).isTrue();
+
+        log.record(stick);
+
+        var changes = new ArrayList<AEKey>();
+        assertThat(log.getChangesSince(version, changes::add)).isFalse();
+        assertThat(changes).isEmpty();
+    }
+}
@@ -4,11 +4,17 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
 import appeng.api.crafting.IPatternDetails;
@@ -87,6 +93,99 @@ public Set<AEKey> getEmitableItems() {
         assertThat(craftingProviders.getMediums(pattern)).isEmpty();
     }
 
+    @Test
+    void testSnapshotIsNotAffectedByLaterChanges() {
+        var craftingProviders = new NetworkCraftingProviders();
+        var andesite = AEItemKey.of(Items.ANDESITE);
+        var pattern = new ProcessingPatternBuilder(new GenericStack(andesite, 1)).build();
+        var diamond = AEItemKey.of(Items.DIAMOND);
+        var testProvider = new ICraftingProvider() {
+            @Override
+            public List<IPatternDetails> getAvailablePatterns() {
+                return List.of(pattern);
+            }
+
+            @Override
+            public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder) {
+                return false;
+            }
+
+            @Override
+            public boolean isBusy() {
+                return true;
+            }
+
+            @Override
+            public Set<AEKey> getEmitableItems() {
+                return Set.of(diamond);
+            }
+        };
+        var testNode = mock(IGridNode.class);
+        when(testNode.getService(ICraftingProvider.class)).thenReturn(testProvider);
+
+        craftingProviders.addProvider(testNode);
+        var snapshot = craftingProviders.createSnapshot();
+        craftingProviders.removeProvider(testNode);
+
+        assertThat(snapshot.getCraftingFor(andesite)).containsExactly(pattern);
+        assertThat(snapshot.getFuzzyCraftable(andesite, k -> true)).isEqualTo(andesite);
+        assertThat(snapshot.canEmitFor(diamond)).isTrue();
+        assertThat(craftingProviders.createSnapshot().getCraftingFor(andesite)).isEmpty();
+    }
+
+    @Test
+    void testSnapshotResolvesFuzzySubstitutesFromSeveralThreads() throws Exception {
+        var patterns = new ArrayList<IPatternDetails>();
+        for (int damage = 1; damage <= 50; damage++) {
+            var sword = new ItemStack(Items.DIAMOND_SWORD);
+            sword.setDamageValue(damage);
+            patterns.add(new ProcessingPatternBuilder(GenericStack.fromItemStack(sword)).build());
+        }
+        var testProvider = new ICraftingProvider() {
+            @Override
+            public List<IPatternDetails> getAvailablePatterns() {
+                return patterns;
+            }
+
+            @Override
+            public boolean pushPattern(IPatternDetails patternDetails, KeyCounter[] inputHolder) {
+                return false;
+            }
+
+            @Override
+            public boolean isBusy() {
+                return true;
+            }
+        };
+        var testNode = mock(IGridNode.class);
+        when(testNode.getService(ICraftingProvider.class)).thenReturn(testProvider);
+        var craftingProviders = new NetworkCraftingProviders();
+        craftingProviders.addProvider(testNode);
+        var undamagedSword = AEItemKey.of(Items.DIAMOND_SWORD);
+
+        var threads = 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                var snapshot = craftingProviders.createSnapshot();
+                var start = new CountDownLatch(1);
+                var futures = new ArrayList<Future<AEKey>>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return snapshot.getFuzzyCraftable(undamagedSword, k -> true);
+                    }));
+                }
+                start.countDown();
+                for (var future : futures) {
+                    assertThat(future.get(10, TimeUnit.SECONDS)).isNotNull();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testPatternPriorities() {
         var craftingProviders = new NetworkCraftingProviders();
@@ -0,0 +1,35 @@
+package appeng.me.service.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RollingSeriesTest {
+    private final RollingSeries series = new RollingSeries(3);
+
+    @Test
+    void testCurrentTickIsNotReported() {
+        series.add(5);
+        assertThat(series.size()).isZero();
+        assertThat(series.getAverage()).isZero();
+
+        series.advance();
+        assertThat(series.size()).isEqualTo(1);
+        assertThat(series.get(1)).isEqualTo(5);
+    }
+
+    @Test
+    void testOldestTicksAreOverwritten() {
+        for (int i = 1; i <= 5; i++) {
+            series.add(i);
+            series.add(i);
+            series.advance();
+        }
+
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.toArray()).containsExactly(6, 8, 10);
+        assertThat(series.get(1)).isEqualTo(10);
+        assertThat(series.getAverage()).isEqualTo(8);
+        assertThat(series.getMax()).isEqualTo(10);
+    }
+}
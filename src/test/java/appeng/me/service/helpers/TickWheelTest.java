@@ -0,0 +1,101 @@
+package appeng.me.service.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import appeng.api.networking.ticking.TickingRequest;
+
+class TickWheelTest {
+    private final TickWheel wheel = new TickWheel(0);
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 63, 64, 65, 4095, 4096, 100_000, 300_000, 20_000_000 })
+    void testTrackerIsDueOnItsNextTick(int rate) {
+        var tracker = createTracker(rate, 0);
+        wheel.schedule(tracker);
+
+        wheel.advanceTo(rate - 1);
+        assertThat(wheel.pollDue()).isNull();
+        assertThat(wheel.contains(tracker)).isTrue();
+
+        wheel.advanceTo(rate);
+        assertThat(wheel.pollDue()).isSameAs(tracker);
+        assertThat(wheel.contains(tracker)).isFalse();
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testSteppingThroughEveryTick() {
+        var trackers = new ArrayList<TickTracker>();
+        for (int rate = 1; rate <= 5000; rate += 7) {
+            var tracker = createTracker(rate, 0);
+            trackers.add(tracker);
+            wheel.schedule(tracker);
+        }
+
+        for (long tick = 1; tick <= 5000; tick++) {
+            wheel.advanceTo(tick);
+            var due = drainDue();
+            for (var tracker : due) {
+                assertThat(tracker.getNextTick()).isEqualTo(tick);
+            }
+            assertThat(due.size()).isEqualTo((tick - 1) % 7 == 0 ? 1 : 0);
+        }
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testRescheduleAndRemove() {
+        var first = createTracker(20, 0);
+        var second = createTracker(10, 0);
+        wheel.schedule(first);
+        wheel.schedule(second);
+
+        // Rescheduling moves the tracker instead of adding it twice
+        first.setCurrentRate(5);
+        wheel.schedule(first);
+        assertThat(wheel.remove(second)).isTrue();
+        assertThat(wheel.remove(second)).isFalse();
+
+        wheel.advanceTo(5);
+        assertThat(drainDue()).containsExactly(first);
+        wheel.advanceTo(20);
+        assertThat(wheel.pollDue()).isNull();
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testOverdueTrackersAreDueRightAwayInOrder() {
+        wheel.advanceTo(100);
+
+        var late = createTracker(1, 50);
+        var later = createTracker(1, 80);
+        var future = createTracker(1, 100);
+        wheel.schedule(later);
+        wheel.schedule(future);
+        wheel.schedule(late);
+
+        assertThat(drainDue()).containsExactly(late, later);
+        wheel.advanceTo(101);
+        assertThat(drainDue()).containsExactly(future);
+    }
+
+    private List<TickTracker> drainDue() {
+        var result = new ArrayList<TickTracker>();
+        TickTracker tracker;
+        while ((tracker = wheel.pollDue()) != null) {
+            result.add(tracker);
+        }
+        return result;
+    }
+
+    private static TickTracker createTracker(int rate, long lastTick) {
+        return new TickTracker(new TickingRequest(1, rate, false, rate), null, null, lastTick);
+    }
+}
@@ -0,0 +1,49 @@
+package appeng.me.service.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.Items;
+
+import appeng.api.stacks.AEItemKey;
+import appeng.crafting.execution.CraftingCpuLogic;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class WaitingForIndexTest {
+    private final WaitingForIndex index = new WaitingForIndex();
+    private final CraftingCpuLogic cpu1 = mock(CraftingCpuLogic.class);
+    private final CraftingCpuLogic cpu2 = mock(CraftingCpuLogic.class);
+
+    @Test
+    void testOnlyWaitingCpusAreReturned() {
+        var diamond = AEItemKey.of(Items.DIAMOND);
+        var stick = AEItemKey.of(Items.STICK);
+
+        index.setWaiting(cpu1, diamond, true);
+        index.setWaiting(cpu2, diamond, true);
+        index.setWaiting(cpu2, stick, true);
+
+        assertThat(index.getWaitingCpus(diamond)).containsExactly(cpu1, cpu2);
+        assertThat(index.getWaitingCpus(stick)).containsExactly(cpu2);
+        assertThat(index.getWaitingCpus(AEItemKey.of(Items.DIRT))).isEmpty();
+    }
+
+    @Test
+    void testStoppingToWaitRemovesEntries() {
+        var diamond = AEItemKey.of(Items.DIAMOND);
+
+        index.setWaiting(cpu1, diamond, true);
+        index.setWaiting(cpu1, diamond, true);
+        var cpus = index.getWaitingCpus(diamond);
+        index.setWaiting(cpu1, diamond, false);
+        index.setWaiting(cpu2, diamond, false);
+
+        // Copies that were handed out before are not affected
+        assertThat(cpus).containsExactly(cpu1);
+        assertThat(index.getWaitingCpus(diamond)).isEmpty();
+        assertThat(index.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,71 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.neoforged.neoforge.items.ItemStackHandler;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class ExternalInventoryCacheTest {
+    private final ItemStackHandler handler = new ItemStackHandler(8);
+    private final ExternalStorageFacade facade = ExternalStorageFacade.of(handler);
+    private final ExternalInventoryCache cache = facade.getInventoryCache();
+
+    @Test
+    void testFirstUpdateScansAllSlots() {
+        handler.setStackInSlot(0, new ItemStack(Items.DIAMOND, 3));
+        handler.setStackInSlot(7, new ItemStack(Items.DIAMOND, 2));
+
+        assertThat(cache.update(1)).isTrue();
+        assertThat(cache.isScanInProgress()).isFalse();
+        assertThat(getAvailable().get(AEItemKey.of(Items.DIAMOND))).isEqualTo(5);
+    }
+
+    @Test
+    void testExternalChangesAreFoundByScanning() {
+        cache.update(2);
+        handler.setStackInSlot(5, new ItemStack(Items.STICK, 4));
+
+        // The scan window covers slots 0-1 and 2-3 first
+        assertThat(cache.update(2)).isFalse();
+        assertThat(cache.update(2)).isFalse();
+        assertThat(cache.isScanInProgress()).isTrue();
+        assertThat(cache.update(2)).isTrue();
+        assertThat(getAvailable().get(AEItemKey.of(Items.STICK))).isEqualTo(4);
+        assertThat(cache.update(2)).isFalse();
+        assertThat(cache.isScanInProgress()).isFalse();
+    }
+
+    @Test
+    void testOwnChangesAreUpdatedWithoutScanning() {
+        cache.update(0);
+        var diamond = AEItemKey.of(Items.DIAMOND);
+
+        facade.insert(diamond, 10, Actionable.MODULATE, IActionSource.empty());
+        assertThat(cache.update(0)).isTrue();
+        assertThat(getAvailable().get(diamond)).isEqualTo(10);
+
+        facade.extract(diamond, 4, Actionable.MODULATE, IActionSource.empty());
+        assertThat(cache.update(0)).isTrue();
+        assertThat(getAvailable().get(diamond)).isEqualTo(6);
+
+        facade.extract(diamond, 6, Actionable.MODULATE, IActionSource.empty());
+        assertThat(cache.update(0)).isTrue();
+        assertThat(getAvailable().isEmpty()).isTrue();
+    }
+
+    private KeyCounter getAvailable() {
+        var available = new KeyCounter();
+        cache.getAvailableItems(available);
+        return available;
+    }
+}
@@ -0,0 +1,52 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.FuzzyMode;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class InventorySnapshotTest {
+    @Test
+    void testSnapshotIsNotAffectedByLaterChanges() {
+        var diamond = AEItemKey.of(Items.DIAMOND);
+        var stick = AEItemKey.of(Items.STICK);
+        var stacks = new KeyCounter();
+        stacks.add(diamond, 5);
+        stacks.add(stick, 0);
+
+        var snapshot = InventorySnapshot.copyOf(3, stacks);
+        stacks.add(diamond, 10);
+        stacks.clear();
+
+        assertThat(snapshot.getVersion()).isEqualTo(3);
+        assertThat(snapshot.get(diamond)).isEqualTo(5);
+        // Zero amounts are not part of the snapshot
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.get(stick)).isZero();
+    }
+
+    @Test
+    void testFuzzySearch() {
+        var damaged = new ItemStack(Items.DIAMOND_PICKAXE);
+        damaged.setDamageValue(10);
+        var damagedPickaxe = AEItemKey.of(damaged);
+        var stacks = new KeyCounter();
+        stacks.add(damagedPickaxe, 1);
+        stacks.add(AEItemKey.of(Items.DIAMOND), 1);
+
+        var snapshot = InventorySnapshot.copyOf(0, stacks);
+
+        var matches = snapshot.findFuzzy(AEItemKey.of(Items.DIAMOND_PICKAXE), FuzzyMode.IGNORE_ALL);
+        assertThat(matches).extracting(Map.Entry::getKey).containsExactly(damagedPickaxe);
+    }
+}
@@ -0,0 +1,224 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+import appeng.api.storage.StorageCells;
+import appeng.api.storage.cells.ISaveProvider;
+import appeng.api.storage.cells.StorageCell;
+import appeng.core.definitions.AEItems;
+import appeng.me.helpers.BaseActionSource;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class NetworkStorageTest {
+    private static final IActionSource SRC = new BaseActionSource();
+
+    private final NetworkStorage storage = new NetworkStorage();
+
+    private final AEItemKey diamond = AEItemKey.of(Items.DIAMOND);
+    private final AEItemKey stick = AEItemKey.of(Items.STICK);
+
+    @Test
+    void testJournalIsInvalidUntilReconciled() {
+        var cell = new DriveWatcher(createCell(), () -> {
+        });
+        storage.mount(0, cell);
+
+        assertThat(storage.getChangeJournal().isInvalidated()).isTrue();
+        cell.insert(diamond, 10, Actionable.MODULATE, SRC);
+        assertThat(drainChanges()).isEmpty();
+
+        var content = new KeyCounter();
+        storage.reconcile(content);
+        assertThat(content.get(diamond)).isEqualTo(10);
+        assertThat(storage.getChangeJournal().isInvalidated()).isFalse();
+    }
+
+    @Test
+    void testJournaledStorageReportsChanges() {
+        storage.reconcile(new KeyCounter());
+        var cell = new DriveWatcher(createCell(), () -> {
+        });
+        cell.insert(stick, 5, Actionable.MODULATE, SRC);
+
+        // Mounting records the existing content
+        storage.mount(0, cell);
+        var changes = drainChanges();
+        assertThat(changes.get(stick)).isEqualTo(5);
+
+        storage.insert(diamond, 10, Actionable.MODULATE, SRC);
+        storage.extract(diamond, 3, Actionable.MODULATE, SRC);
+        storage.insert(diamond, 100, Actionable.SIMULATE, SRC);
+        changes = drainChanges();
+        assertThat(changes.get(diamond)).isEqualTo(7);
+        assertThat(changes.get(stick)).isZero();
+
+        // Unmounting records the content as removed
+        storage.unmount(cell);
+        changes = drainChanges();
+        assertThat(changes.get(diamond)).isEqualTo(-7);
+        assertThat(changes.get(stick)).isEqualTo(-5);
+    }
+
+    @Test
+    void testJournaledStorageReportsChangesUntilLastMountIsRemoved() {
+        storage.reconcile(new KeyCounter());
+        var cell = new DriveWatcher(createCell(), () -> {
+        });
+        storage.mount(0, cell);
+        storage.mount(0, cell);
+        drainChanges();
+
+        // Removing one of the mounts removes the content it contributed, but the other mount still reports changes
+        cell.insert(stick, 5, Actionable.MODULATE, SRC);
+        storage.unmount(cell);
+        assertThat(drainChanges().get(stick)).isZero();
+        cell.insert(diamond, 4, Actionable.MODULATE, SRC);
+        assertThat(drainChanges().get(diamond)).isEqualTo(4);
+
+        storage.unmount(cell);
+        var changes = drainChanges();
+        assertThat(changes.get(diamond)).isEqualTo(-4);
+        assertThat(changes.get(stick)).isEqualTo(-5);
+        cell.insert(diamond, 1, Actionable.MODULATE, SRC);
+        assertThat(drainChanges()).isEmpty();
+    }
+
+    @Test
+    void testPolledStorageChangesAreFoundByPolling() {
+        storage.reconcile(new KeyCounter());
+        var inventory = new SimpleStorage();
+        inventory.content.add(stick, 5);
+        storage.mount(0, inventory);
+
+        // Polled inventories record their content on the next poll
+        assertThat(drainChanges()).isEmpty();
+        storage.pollChanges();
+        assertThat(drainChanges().get(stick)).isEqualTo(5);
+
+        inventory.content.remove(stick, 5);
+        inventory.content.add(diamond, 2);
+        storage.pollChanges();
+        var changes = drainChanges();
+        assertThat(changes.get(stick)).isEqualTo(-5);
+        assertThat(changes.get(diamond)).isEqualTo(2);
+
+        storage.unmount(inventory);
+        assertThat(drainChanges().get(diamond)).isEqualTo(-2);
+    }
+
+    @Test
+    void testInvalidateDiscardsChanges() {
+        storage.reconcile(new KeyCounter());
+        var cell = new DriveWatcher(createCell(), () -> {
+        });
+        storage.mount(0, cell);
+        storage.insert(diamond, 10, Actionable.MODULATE, SRC);
+
+        storage.getChangeJournal().invalidate();
+        assertThat(drainChanges()).isEmpty();
+    }
+
+    @Test
+    void testExtractionAsksHoldersInPriorityOrder() {
+        var first = new DriveWatcher(createCell(), () -> {
+        });
+        first.insert(diamond, 5, Actionable.MODULATE, SRC);
+        var second = new DriveWatcher(createCell(), () -> {
+        });
+        var polled = new SimpleStorage();
+        polled.content.add(diamond, 4);
+
+        storage.mount(5, polled);
+        storage.mount(0, first);
+        storage.mount(0, second);
+
+        // Changes made directly to a mounted cell are picked up, even though the journal was never reconciled
+        second.insert(diamond, 3, Actionable.MODULATE, SRC);
+
+        assertThat(storage.extract(diamond, 10, Actionable.MODULATE, SRC)).isEqualTo(10);
+        assertThat(first.getAvailableStacks().get(diamond)).isZero();
+        assertThat(second.getAvailableStacks().get(diamond)).isZero();
+        assertThat(polled.content.get(diamond)).isEqualTo(2);
+
+        // Emptied cells are asked again once they hold the key again
+        first.insert(diamond, 1, Actionable.MODULATE, SRC);
+        assertThat(storage.extract(diamond, 3, Actionable.SIMULATE, SRC)).isEqualTo(3);
+    }
+
+    @Test
+    void testCellChangedOutsideTheWatcherIsReindexed() {
+        storage.reconcile(new KeyCounter());
+        var watcher = new DriveWatcher[1];
+        var cell = createCell(() -> watcher[0].onCellContentChanged());
+        watcher[0] = new DriveWatcher(cell, () -> {
+        });
+        storage.mount(0, watcher[0]);
+
+        // Changes made through the watcher are reported as deltas
+        storage.insert(stick, 2, Actionable.MODULATE, SRC);
+        assertThat(storage.getChangeJournal().isInvalidated()).isFalse();
+        assertThat(drainChanges().get(stick)).isEqualTo(2);
+
+        // Changes made to the cell directly can't be, but the cell is still asked for the key it now holds
+        cell.insert(diamond, 5, Actionable.MODULATE, SRC);
+        assertThat(storage.getChangeJournal().isInvalidated()).isTrue();
+        assertThat(storage.extract(diamond, 5, Actionable.MODULATE, SRC)).isEqualTo(5);
+    }
+
+    private KeyCounter drainChanges() {
+        var result = new KeyCounter();
+        result.addAll(storage.getChangeJournal().drainChanges());
+        result.removeZeros();
+        return result;
+    }
+
+    private static StorageCell createCell() {
+        return createCell(null);
+    }
+
+    private static StorageCell createCell(@Nullable ISaveProvider saveProvider) {
+        var cell = StorageCells.getCellInventory(new ItemStack(AEItems.ITEM_CELL_1K.asItem()), saveProvider);
+        return Objects.requireNonNull(cell);
+    }
+
+    private static class SimpleStorage implements MEStorage {
+        private final KeyCounter content = new KeyCounter();
+
+        @Override
+        public void getAvailableStacks(KeyCounter out) {
+            for (var entry : content) {
+                out.add(entry.getKey(), entry.getLongValue());
+            }
+        }
+
+        @Override
+        public long extract(AEKey what, long amount, Actionable mode, IActionSource source) {
+            var extracted = Math.min(amount, content.get(what));
+            if (mode == Actionable.MODULATE) {
+                content.remove(what, extracted);
+            }
+            return extracted;
+        }
+
+        @Override
+        public Component getDescription() {
+            return Component.empty();
+        }
+    }
+}
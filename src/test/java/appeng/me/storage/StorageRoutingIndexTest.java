@@ -0,0 +1,86 @@
+package appeng.me.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.world.item.Items;
+
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+import appeng.util.BootstrapMinecraft;
+
+@BootstrapMinecraft
+class StorageRoutingIndexTest {
+    private final StorageRoutingIndex index = new StorageRoutingIndex();
+
+    private final AEItemKey diamond = AEItemKey.of(Items.DIAMOND);
+
+    private final MEStorage cell = mock(MEStorage.class);
+    private final MEStorage otherCell = mock(MEStorage.class);
+    private final MEStorage polled = mock(MEStorage.class);
+
+    @Test
+    void testCandidatesAreSortedByPriorityAndMountOrder() {
+        index.mount(5, cell, content(diamond));
+        index.mount(0, polled, null);
+        index.mount(0, otherCell, content(diamond));
+
+        assertThat(getCandidates()).containsExactly(polled, otherCell, cell);
+
+        index.setHeld(otherCell, diamond, false);
+        assertThat(getCandidates()).containsExactly(polled, cell);
+
+        index.unmount(polled, 0);
+        assertThat(getCandidates()).containsExactly(cell);
+    }
+
+    @Test
+    void testCandidatesAreNotModifiedByLaterChanges() {
+        index.mount(0, cell, content(diamond));
+        index.mount(0, otherCell, content(diamond));
+
+        // Inventories report changes while an extraction iterates over the candidates
+        var candidates = index.getExtractionCandidates(diamond);
+        index.setHeld(cell, diamond, false);
+        index.unmount(otherCell, 0);
+
+        assertThat(candidates).extracting(mount -> mount.inventory).containsExactly(cell, otherCell);
+        assertThat(index.getExtractionCandidates(diamond)).isEmpty();
+    }
+
+    @Test
+    void testIndexIsUsableAgainWhenDuplicateMountIsRemoved() {
+        index.mount(0, cell, content(diamond));
+        index.mount(1, otherCell, content(diamond));
+        index.mount(2, cell, content(diamond));
+        assertThat(index.isUsable()).isFalse();
+
+        index.unmount(cell, 0);
+        assertThat(index.isUsable()).isTrue();
+        // The remaining mount is at a higher priority
+        assertThat(getCandidates()).containsExactly(otherCell, cell);
+
+        index.mount(2, cell, content(diamond));
+        assertThat(index.isUsable()).isFalse();
+        index.unmount(cell, 2);
+        assertThat(index.isUsable()).isTrue();
+        index.unmount(cell, 2);
+        assertThat(getCandidates()).containsExactly(otherCell);
+    }
+
+    private List<MEStorage> getCandidates() {
+        return Arrays.stream(index.getExtractionCandidates(diamond)).map(mount -> mount.inventory).toList();
+    }
+
+    private static KeyCounter content(AEItemKey what) {
+        var content = new KeyCounter();
+        content.add(what, 1);
+        return content;
+    }
+}